@@ -0,0 +1,62 @@
+package com.darsavelidze.renju.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.AlphaBetaComputerTurn;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+import com.darsavelidze.renju.impl.DefaultComputerTurn;
+import com.darsavelidze.renju.impl.RandomComputerTurn;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComputerTurnBenchmark {
+	@Param({ "default", "random", "alphaBeta" })
+	private String engine;
+
+	@Param({ "EARLY", "MIDDLE", "LATE" })
+	private GameStage stage;
+
+	private PlayingField playingField;
+	private ComputerTurn computerTurn;
+
+	@Setup
+	public void setUp() {
+		playingField = new BitboardPlayingField();
+		stage.fill(playingField);
+		if ("default".equals(engine)) {
+			computerTurn = new DefaultComputerTurn();
+		} else if ("random".equals(engine)) {
+			computerTurn = new RandomComputerTurn();
+		} else {
+			computerTurn = new AlphaBetaComputerTurn(60000, 3);
+		}
+		computerTurn.setPlayingField(playingField);
+	}
+
+	@Benchmark
+	public Cell makeTurn() {
+		Cell cell = computerTurn.makeTurn();
+		// the engine pushes its move on the move stack, so it is taken back the same way
+		playingField.unmakeMove();
+		return cell;
+	}
+}
@@ -0,0 +1,52 @@
+package com.darsavelidze.renju.benchmark;
+
+import java.util.Random;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.WinnerFinder;
+import com.darsavelidze.renju.impl.DefaultWinnerFinder;
+
+public enum GameStage {
+	EARLY(6), MIDDLE(30), LATE(100);
+
+	private static final long SEED = 20161004L;
+	private final int stoneCount;
+
+	private GameStage(int stoneCount) {
+		this.stoneCount = stoneCount;
+	}
+
+	public int getStoneCount() {
+		return stoneCount;
+	}
+
+	public Cell fill(PlayingField playingField) {
+		playingField.reInitialize();
+		WinnerFinder winnerFinder = new DefaultWinnerFinder();
+		winnerFinder.setPlayingField(playingField);
+		Random random = new Random(SEED + stoneCount);
+		int size = playingField.getSize();
+		double spread = Math.max(1.5, Math.sqrt(stoneCount) / 1.5);
+		Cell lastTurn = null;
+		int placed = 0;
+		while (placed < stoneCount) {
+			int rowIndex = (int) Math.round(size / 2 + random.nextGaussian() * spread);
+			int columnIndex = (int) Math.round(size / 2 + random.nextGaussian() * spread);
+			if (rowIndex < 0 || rowIndex >= size || columnIndex < 0 || columnIndex >= size
+					|| !playingField.isCellFree(rowIndex, columnIndex)) {
+				continue;
+			}
+			Cell cell = new Cell(rowIndex, columnIndex);
+			playingField.setValue(rowIndex, columnIndex, placed % 2 == 0 ? CellValue.HUMAN : CellValue.COMPUTER);
+			if (winnerFinder.isWinnerFound(cell).winnerExists()) {
+				playingField.setValue(rowIndex, columnIndex, CellValue.EMPTY);
+			} else {
+				lastTurn = cell;
+				placed++;
+			}
+		}
+		return lastTurn;
+	}
+}
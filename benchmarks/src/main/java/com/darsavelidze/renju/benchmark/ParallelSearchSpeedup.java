@@ -0,0 +1,66 @@
+package com.darsavelidze.renju.benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+import com.darsavelidze.renju.impl.ParallelAlphaBetaSearch;
+import com.darsavelidze.renju.impl.SearchResult;
+import com.darsavelidze.renju.impl.TranspositionTable;
+
+public class ParallelSearchSpeedup {
+	private static final int[][] POSITION = { { 7, 7 }, { 7, 8 }, { 8, 8 }, { 6, 6 }, { 8, 6 }, { 9, 7 }, { 6, 8 },
+			{ 8, 7 }, { 5, 9 }, { 4, 10 }, { 9, 5 }, { 10, 4 } };
+	private static final int DEFAULT_DEPTH = 5;
+	private static final int REPEATS = 3;
+
+	private static void warmUp(PlayingField playingField, int depth) {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(1);
+		try {
+			for (int i = 0; i < REPEATS; i++) {
+				new ParallelAlphaBetaSearch(playingField, forkJoinPool, new TranspositionTable(64), 0)
+						.search(CellValue.COMPUTER, Long.MAX_VALUE / 2, depth);
+			}
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	public static void main(String[] args) {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+		int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		PlayingField playingField = new BitboardPlayingField();
+		for (int i = 0; i < POSITION.length; i++) {
+			playingField.setValue(POSITION[i][0], POSITION[i][1], i % 2 == 0 ? CellValue.COMPUTER : CellValue.HUMAN);
+		}
+		warmUp(playingField, depth);
+		System.out.printf("Parallel root search to depth %d, %d stones on the board%n", depth, POSITION.length);
+		System.out.printf("%8s %12s %14s %10s %10s %s%n", "threads", "time, ms", "nodes/s", "speedup", "score",
+				"move");
+		long baseline = 0;
+		for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2,
+				maxThreads) : threads + 1) {
+			ForkJoinPool forkJoinPool = new ForkJoinPool(threads);
+			try {
+				long best = Long.MAX_VALUE;
+				SearchResult result = null;
+				for (int i = 0; i < REPEATS; i++) {
+					ParallelAlphaBetaSearch search = new ParallelAlphaBetaSearch(playingField, forkJoinPool,
+							new TranspositionTable(64), 0);
+					long start = System.nanoTime();
+					result = search.search(CellValue.COMPUTER, Long.MAX_VALUE / 2, depth);
+					best = Math.min(best, System.nanoTime() - start);
+				}
+				if (threads == 1) {
+					baseline = best;
+				}
+				System.out.printf("%8d %12.1f %14.0f %10.2f %10d %s%n", threads, best / 1e6,
+						result.getNodes() * 1e9 / best, (double) baseline / best, result.getScore(),
+						result.getBestMove());
+			} finally {
+				forkJoinPool.shutdown();
+			}
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.darsavelidze.renju.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+import com.darsavelidze.renju.impl.DefaultPlayingField;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayingFieldBenchmark {
+	@Param({ "default", "bitboard" })
+	private String field;
+
+	@Param({ "EARLY", "MIDDLE", "LATE" })
+	private GameStage stage;
+
+	private PlayingField playingField;
+	private PlayingField emptyPlayingField;
+	private int freeRowIndex;
+	private int freeColumnIndex;
+
+	@Setup
+	public void setUp() {
+		playingField = createPlayingField();
+		emptyPlayingField = createPlayingField();
+		stage.fill(playingField);
+		for (int i = 0; i < playingField.getSize(); i++) {
+			for (int j = 0; j < playingField.getSize(); j++) {
+				if (playingField.isCellFree(i, j)) {
+					freeRowIndex = i;
+					freeColumnIndex = j;
+				}
+			}
+		}
+	}
+
+	private PlayingField createPlayingField() {
+		return "default".equals(field) ? new DefaultPlayingField() : new BitboardPlayingField();
+	}
+
+	@Benchmark
+	public int getValue() {
+		int stones = 0;
+		for (int i = 0; i < playingField.getSize(); i++) {
+			for (int j = 0; j < playingField.getSize(); j++) {
+				if (playingField.getValue(i, j) != CellValue.EMPTY) {
+					stones++;
+				}
+			}
+		}
+		return stones;
+	}
+
+	@Benchmark
+	public boolean isEmptyCellExists() {
+		return playingField.isEmptyCellExists();
+	}
+
+	@Benchmark
+	public long setValue() {
+		playingField.setValue(freeRowIndex, freeColumnIndex, CellValue.COMPUTER);
+		playingField.setValue(freeRowIndex, freeColumnIndex, CellValue.EMPTY);
+		return playingField.getHashKey();
+	}
+
+	@Benchmark
+	public long reInitialize() {
+		emptyPlayingField.reInitialize();
+		return emptyPlayingField.getHashKey();
+	}
+}
@@ -0,0 +1,58 @@
+package com.darsavelidze.renju.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameStatus;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.WinnerFinder;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+import com.darsavelidze.renju.impl.DefaultWinnerFinder;
+
+// gc.alloc.rate.norm of the GC profiler is expected to be zero: cells are created only for a found winner
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinnerFinderBenchmark {
+	@Param({ "EARLY", "MIDDLE", "LATE" })
+	private GameStage stage;
+
+	private WinnerFinder winnerFinder;
+	private Cell lastTurn;
+	private CellValue lastValue;
+
+	@Setup
+	public void setUp() {
+		PlayingField playingField = new BitboardPlayingField();
+		lastTurn = stage.fill(playingField);
+		lastValue = playingField.getValue(lastTurn.getRowIndex(), lastTurn.getColumnIndex());
+		winnerFinder = new DefaultWinnerFinder();
+		winnerFinder.setPlayingField(playingField);
+	}
+
+	@Benchmark
+	public GameStatus fullScan() {
+		return winnerFinder.isWinnerFound(lastValue);
+	}
+
+	@Benchmark
+	public GameStatus lastTurn() {
+		return winnerFinder.isWinnerFound(lastTurn);
+	}
+}
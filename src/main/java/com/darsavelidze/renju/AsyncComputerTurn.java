@@ -0,0 +1,17 @@
+package com.darsavelidze.renju;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncComputerTurn {
+	void setPlayingField(PlayingField playingField);
+
+	CompletableFuture<Cell> makeTurn();
+
+	CompletableFuture<Cell> makeFirstTurn();
+
+	boolean isThinking();
+
+	void cancel();
+
+	void shutdown();
+}
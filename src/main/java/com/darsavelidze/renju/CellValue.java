@@ -3,13 +3,19 @@ package com.darsavelidze.renju;
 public enum CellValue {
 	EMPTY(' '), HUMAN('X'), COMPUTER('O');
 
-	private char value;
+	private final char symbol;
+	private final String value;
 
-	private CellValue(char value) {
-		this.value = value;
+	private CellValue(char symbol) {
+		this.symbol = symbol;
+		this.value = String.valueOf(symbol);
+	}
+
+	public char getSymbol() {
+		return symbol;
 	}
 
 	public String getValue() {
-		return String.valueOf(value);
+		return value;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.darsavelidze.renju;
+
+public interface ComputerTurnFactory {
+	ComputerTurn createComputerTurn();
+}
@@ -1,123 +1,256 @@
 package com.darsavelidze.renju;
 
-import java.awt.Color;
+import java.awt.Cursor;
 import java.awt.Dimension;
-import java.awt.Font;
-import java.awt.GridLayout;
 import java.awt.HeadlessException;
 import java.awt.Toolkit;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
+import java.awt.event.ActionEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import javax.swing.BorderFactory;
+import javax.swing.AbstractAction;
+import javax.swing.InputMap;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
-import javax.swing.JLabel;
 import javax.swing.JOptionPane;
-import javax.swing.SwingConstants;
+import javax.swing.JRootPane;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.darsavelidze.renju.impl.DefaultComputerTurn;
+import com.darsavelidze.renju.book.BookComputerTurn;
+import com.darsavelidze.renju.book.OpeningBook;
+import com.darsavelidze.renju.impl.AlphaBetaComputerTurn;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
 import com.darsavelidze.renju.impl.DefaultHumanTurn;
-import com.darsavelidze.renju.impl.DefaultPlayingField;
 import com.darsavelidze.renju.impl.DefaultWinnerFinder;
+import com.darsavelidze.renju.impl.ExecutorAsyncComputerTurn;
+import com.darsavelidze.renju.impl.RenjuRules;
+import com.darsavelidze.renju.impl.RenjuWinnerFinder;
+import com.darsavelidze.renju.record.GameRecordWriter;
+import com.darsavelidze.renju.record.GameRecorder;
 
 public class GUIRenju extends JFrame {
 	private static final long serialVersionUID = -5164429115387109570L;
 	private static final Logger LOGGER = LoggerFactory.getLogger(GUIRenju.class);
-	private final JLabel cells[][];
+	private static final String OPENING_BOOK_PROPERTY = "renju.book";
+	private static final String GAME_RECORDS_PROPERTY = "renju.records";
+	private static final String RENJU_RULES_PROPERTY = "renju.rules";
+	private static final String PONDER_PROPERTY = "renju.ponder";
+	private static final String UNDO_ACTION = "undo";
+	private static final String REDO_ACTION = "redo";
+	private static final int CELL_SIZE = 35;
+	private final PlayingFieldComponent board;
 	private final transient PlayingField playingField;
 	private final transient HumanTurn humanTurn;
-	private final transient ComputerTurn computerTurn;
+	private final transient AsyncComputerTurn computerTurn;
 	private final transient WinnerFinder winnerFinder;
+	private final transient RenjuRules renjuRules;
+	private final transient GameRecorder gameRecorder;
+	private final transient GameRecordWriter gameRecordWriter;
+	private boolean gameRecorded;
 	private boolean humanMakeFirstTurn;
+	private boolean gameStopped;
 
 	public GUIRenju() throws HeadlessException {
 		super("Renju");
 		// start configuration section ------------------------ <
-		playingField = new DefaultPlayingField();
+		playingField = new BitboardPlayingField(GameConfiguration.DEFAULT);
+		boolean renju = Boolean.getBoolean(RENJU_RULES_PROPERTY);
 		humanTurn = new DefaultHumanTurn();
-		computerTurn = new DefaultComputerTurn();
-		winnerFinder = new DefaultWinnerFinder();
+		ExecutorAsyncComputerTurn asyncComputerTurn = new ExecutorAsyncComputerTurn(createComputerTurn(renju),
+				SwingUtilities::invokeLater);
+		asyncComputerTurn.setPondering(Boolean.parseBoolean(System.getProperty(PONDER_PROPERTY, "true")));
+		computerTurn = asyncComputerTurn;
+		winnerFinder = renju ? new RenjuWinnerFinder() : new DefaultWinnerFinder();
+		renjuRules = renju ? new RenjuRules(playingField) : null;
 		// end configuration sections ------------------------- <
+		gameRecorder = new GameRecorder(playingField);
+		gameRecordWriter = createGameRecordWriter();
 		initializeGameComponents();
 		humanMakeFirstTurn = true;
-		cells = new JLabel[playingField.getSize()][playingField.getSize()];
+		updateBlack();
+		board = new PlayingFieldComponent(playingField, CELL_SIZE);
 		createPlayingUIField();
+		bindUndoKeys();
 		addWindowListener(new WindowAdapter() {
 			@Override
 			public void windowClosing(WindowEvent e) {
+				computerTurn.shutdown();
+				saveGameRecord(GameState.IN_PROGRESS);
+				closeGameRecordWriter();
 				LOGGER.info("Game stopped with playing field {}x{}", playingField.getSize(), playingField.getSize());
 				System.exit(0);
 			}
 		});
 	}
 
+	private static ComputerTurn createComputerTurn(boolean renju) {
+		AlphaBetaComputerTurn computerTurn = new AlphaBetaComputerTurn(1000);
+		computerTurn.setRenjuRules(renju);
+		String bookFile = System.getProperty(OPENING_BOOK_PROPERTY);
+		if (bookFile == null) {
+			return computerTurn;
+		}
+		try {
+			OpeningBook openingBook = OpeningBook.open(Paths.get(bookFile));
+			LOGGER.info("Opening book {} loaded: {}", bookFile, openingBook);
+			BookComputerTurn bookComputerTurn = new BookComputerTurn(openingBook, computerTurn);
+			bookComputerTurn.setRenjuRules(renju);
+			return bookComputerTurn;
+		} catch (IOException e) {
+			LOGGER.warn("Opening book {} can't be loaded: {}", bookFile, e.toString());
+			return computerTurn;
+		}
+	}
+
+	private static GameRecordWriter createGameRecordWriter() {
+		String recordFile = System.getProperty(GAME_RECORDS_PROPERTY);
+		if (recordFile == null) {
+			return null;
+		}
+		try {
+			return new GameRecordWriter(Paths.get(recordFile));
+		} catch (IOException e) {
+			LOGGER.warn("Game records {} can't be opened: {}", recordFile, e.toString());
+			return null;
+		}
+	}
+
+	private void saveGameRecord(GameState result) {
+		if (gameRecordWriter == null || gameRecorded || gameRecorder.getMoveCount() == 0) {
+			return;
+		}
+		try {
+			gameRecordWriter.write(gameRecorder.toRecord(result));
+			gameRecordWriter.flush();
+			gameRecorded = true;
+		} catch (IOException e) {
+			LOGGER.warn("Game record can't be saved: {}", e.toString());
+		}
+	}
+
+	private void closeGameRecordWriter() {
+		if (gameRecordWriter != null) {
+			try {
+				gameRecordWriter.close();
+			} catch (IOException e) {
+				LOGGER.warn("Game records can't be closed: {}", e.toString());
+			}
+		}
+	}
+
 	protected void initializeGameComponents() {
 		humanTurn.setPlayingField(playingField);
 		computerTurn.setPlayingField(playingField);
 		winnerFinder.setPlayingField(playingField);
 	}
 
+	private void updateBlack() {
+		CellValue black = humanMakeFirstTurn ? CellValue.HUMAN : CellValue.COMPUTER;
+		if (renjuRules != null) {
+			renjuRules.setBlack(black);
+		}
+		if (winnerFinder instanceof RenjuWinnerFinder) {
+			((RenjuWinnerFinder) winnerFinder).setBlack(black);
+		}
+	}
+
 	protected void createPlayingUIField() {
-		setLayout(new GridLayout(playingField.getSize(), playingField.getSize()));
-		for (int i = 0; i < playingField.getSize(); i++) {
-			for (int j = 0; j < playingField.getSize(); j++) {
-				final int row = i;
-				final int column = j;
-				cells[i][j] = new JLabel();
-				cells[i][j].setPreferredSize(new Dimension(35, 35));
-				cells[i][j].setHorizontalAlignment(SwingConstants.CENTER);
-				cells[i][j].setVerticalAlignment(SwingConstants.CENTER);
-				cells[i][j].setFont(new Font(Font.SERIF, Font.PLAIN, 28));
-				cells[i][j].setForeground(Color.BLACK);
-				cells[i][j].setBorder(BorderFactory.createLineBorder(Color.BLACK));
-				add(cells[i][j]);
-				cells[i][j].addMouseListener(new MouseAdapter() {
-					@Override
-					public void mouseClicked(MouseEvent e) {
-						handleHumanTurn(row, column);
-					}
-				});
+		board.setCellListener(this::handleHumanTurn);
+		add(board);
+	}
+
+	private void bindUndoKeys() {
+		JRootPane rootPane = getRootPane();
+		InputMap inputMap = rootPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+		inputMap.put(KeyStroke.getKeyStroke("control Z"), UNDO_ACTION);
+		inputMap.put(KeyStroke.getKeyStroke("control Y"), REDO_ACTION);
+		rootPane.getActionMap().put(UNDO_ACTION, new AbstractAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				undoTurn();
+			}
+		});
+		rootPane.getActionMap().put(REDO_ACTION, new AbstractAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				redoTurn();
+			}
+		});
+	}
+
+	protected void undoTurn() {
+		if (gameStopped) {
+			return;
+		}
+		computerTurn.cancel();
+		// take back moves up to and including the last human turn, so the human is to move again
+		while (playingField.getMoveCount() > 0) {
+			Cell cell = playingField.getLastMove();
+			CellValue cellValue = playingField.getValue(cell.getRowIndex(), cell.getColumnIndex());
+			if (cellValue == CellValue.COMPUTER && playingField.getMoveCount() == 1) {
+				break;
+			}
+			playingField.unmakeMove();
+			drawCurrentCellValue(cell);
+			LOGGER.info("Turn {} is taken back", cell);
+			if (cellValue == CellValue.HUMAN) {
+				break;
 			}
 		}
 	}
 
+	protected void redoTurn() {
+		if (gameStopped || computerTurn.isThinking() || playingField.getRedoCount() == 0) {
+			return;
+		}
+		playingField.redoMove();
+		drawCurrentCellValue(playingField.getLastMove());
+		if (playingField.getRedoCount() > 0) {
+			playingField.redoMove();
+			drawCurrentCellValue(playingField.getLastMove());
+		} else {
+			handleComputerTurn(computerTurn.makeTurn());
+		}
+	}
+
 	protected void handleHumanTurn(int rowIndex, int columnIndex) {
 		try {
-			if (playingField.isCellFree(rowIndex, columnIndex)) {
+			if (computerTurn.isThinking()) {
+				LOGGER.debug("Computer is thinking, turn {}:{} is ignored", rowIndex, columnIndex);
+			} else if (isForbidden(rowIndex, columnIndex)) {
+				return;
+			} else if (playingField.isCellFree(rowIndex, columnIndex)) {
 				Cell humanCell = humanTurn.makeTurn(rowIndex, columnIndex);
 				drawCurrentCellValue(humanCell);
-				GameStatus gameStatus = winnerFinder.isWinnerFound(CellValue.HUMAN);
+				GameStatus gameStatus = winnerFinder.isWinnerFound(humanCell);
 				if (gameStatus.winnerExists()) {
 					fillWinnerCells(gameStatus.getWinnerCells());
 					LOGGER.info("Human win: {}", gameStatus.getWinnerCells());
+					saveGameRecord(GameState.HUMAN_WINS);
 					gameOverHandler("Game over: You win!\nNew game?");
 					return;
 				}
 				if (!playingField.isEmptyCellExists()) {
 					LOGGER.info("Nobody wins - draw");
+					saveGameRecord(GameState.DRAW);
 					gameOverHandler("Game over: Draw!\nNewGame?");
 					return;
 				}
-				Cell computerCell = computerTurn.makeTurn();
-				drawCurrentCellValue(computerCell);
-				gameStatus = winnerFinder.isWinnerFound(CellValue.COMPUTER);
-				if (gameStatus.winnerExists()) {
-					fillWinnerCells(gameStatus.getWinnerCells());
-					LOGGER.info("Computer wins: {}", gameStatus.getWinnerCells());
-					gameOverHandler("Game over: Computer wins!\nNew game?");
-					return;
-				}
-				if (!playingField.isEmptyCellExists()) {
-					LOGGER.info("Nobody wins - draw");
-					gameOverHandler("Game over: Draw!\nNew game?");
-					return;
-				}
+				handleComputerTurn(computerTurn.makeTurn());
 			} else {
 				LOGGER.warn("Cell {}:{} is not empty", rowIndex, columnIndex);
 				JOptionPane.showMessageDialog(this, "Cell is not empty! Click on empty cell!");
@@ -127,22 +260,53 @@ public class GUIRenju extends JFrame {
 		}
 	}
 
-	protected void drawCurrentCellValue(Cell currentCell) {
-		CellValue currentCellValue = playingField.getValue(currentCell.getRowIndex(), currentCell.getColumnIndex());
-		cells[currentCell.getRowIndex()][currentCell.getColumnIndex()].setText(currentCellValue.getValue());
-		if (currentCellValue == CellValue.COMPUTER) {
-			cells[currentCell.getRowIndex()][currentCell.getColumnIndex()].setForeground(Color.RED);
-		} else {
-			cells[currentCell.getRowIndex()][currentCell.getColumnIndex()].setForeground(Color.BLUE);
+	private boolean isForbidden(int rowIndex, int columnIndex) {
+		if (renjuRules == null) {
+			return false;
+		}
+		RenjuRules.Foul foul = renjuRules.getFoul(rowIndex, columnIndex, CellValue.HUMAN);
+		if (foul == RenjuRules.Foul.NONE) {
+			return false;
 		}
+		LOGGER.warn("Turn {}:{} is forbidden: {}", rowIndex, columnIndex, foul);
+		JOptionPane.showMessageDialog(this, "Forbidden move for black: " + foul + "! Click on another cell!");
+		return true;
+	}
+
+	protected void handleComputerTurn(CompletableFuture<Cell> computerTurnFuture) {
+		setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+		computerTurnFuture.whenComplete((computerCell, e) -> {
+			setCursor(Cursor.getDefaultCursor());
+			if (e != null) {
+				if (!(e instanceof CancellationException)) {
+					Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+					LOGGER.error("Error in the game: " + cause.getMessage(), cause);
+				}
+				return;
+			}
+			drawCurrentCellValue(computerCell);
+			GameStatus gameStatus = winnerFinder.isWinnerFound(computerCell);
+			if (gameStatus.winnerExists()) {
+				fillWinnerCells(gameStatus.getWinnerCells());
+				LOGGER.info("Computer wins: {}", gameStatus.getWinnerCells());
+				saveGameRecord(GameState.COMPUTER_WINS);
+				gameOverHandler("Game over: Computer wins!\nNew game?");
+				return;
+			}
+			if (!playingField.isEmptyCellExists()) {
+				LOGGER.info("Nobody wins - draw");
+				saveGameRecord(GameState.DRAW);
+				gameOverHandler("Game over: Draw!\nNew game?");
+			}
+		});
+	}
+
+	protected void drawCurrentCellValue(Cell currentCell) {
+		board.repaintCell(currentCell);
 	}
 
 	protected void fillWinnerCells(List<Cell> winnerCells) {
-		for (int i = 0; i < winnerCells.size(); i++) {
-			Cell cell = winnerCells.get(i);
-			cells[cell.getRowIndex()][cell.getColumnIndex()].setForeground(Color.CYAN);
-			cells[cell.getRowIndex()][cell.getColumnIndex()].setFont(new Font(Font.SERIF, Font.BOLD, 28));
-		}
+		board.setWinnerCells(winnerCells);
 	}
 
 	protected void gameOverHandler(String message) {
@@ -154,29 +318,25 @@ public class GUIRenju extends JFrame {
 	}
 
 	protected void startNewGame() {
+		computerTurn.cancel();
 		humanMakeFirstTurn = !humanMakeFirstTurn;
+		updateBlack();
+		saveGameRecord(GameState.IN_PROGRESS);
 		playingField.reInitialize();
-		for (int i = 0; i < playingField.getSize(); i++) {
-			for (int j = 0; j < playingField.getSize(); j++) {
-				cells[i][j].setText(playingField.getValue(i, j).getValue());
-				cells[i][j].setFont(new Font(Font.SERIF, Font.PLAIN, 35));
-				cells[i][j].setForeground(Color.BLACK);
-			}
-		}
+		gameRecorded = false;
+		board.clearWinnerCells();
+		board.repaint();
 		if (!humanMakeFirstTurn) {
-			Cell computerCell = computerTurn.makeFirstTurn();
-			drawCurrentCellValue(computerCell);
+			handleComputerTurn(computerTurn.makeFirstTurn());
 		}
 		LOGGER.info("New game started with playing field {}x{} {}", playingField.getSize(), playingField.getSize(),
 				humanMakeFirstTurn ? "" : CellValue.COMPUTER + " made the first turn");
 	}
 
 	protected void stopGame() {
-		for (int i = 0; i < playingField.getSize(); i++) {
-			for (int j = 0; j < playingField.getSize(); j++) {
-				cells[i][j].removeMouseListener(cells[i][j].getMouseListeners()[0]);
-			}
-		}
+		computerTurn.cancel();
+		gameStopped = true;
+		board.setEnabled(false);
 		LOGGER.info("Game disabled with playing field {}x{}", playingField.getSize(), playingField.getSize());
 	}
 
@@ -0,0 +1,54 @@
+package com.darsavelidze.renju;
+
+public final class GameConfiguration {
+	public static final int DEFAULT_SIZE = 15;
+	public static final int DEFAULT_WIN_COUNT = 5;
+	public static final int MIN_WIN_COUNT = 3;
+	public static final int MAX_SIZE = 1000;
+	public static final GameConfiguration DEFAULT = new GameConfiguration(DEFAULT_SIZE, DEFAULT_WIN_COUNT);
+	private final int size;
+	private final int winCount;
+
+	public GameConfiguration(int size, int winCount) {
+		if (winCount < MIN_WIN_COUNT) {
+			throw new IllegalArgumentException("Win count is small: winCount = " + winCount
+					+ ". Minimum requirement: " + MIN_WIN_COUNT);
+		}
+		if (size < winCount || size > MAX_SIZE) {
+			throw new IllegalArgumentException("Size of playing field should be between win count " + winCount
+					+ " and " + MAX_SIZE + ": size = " + size);
+		}
+		this.size = size;
+		this.winCount = winCount;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public int getWinCount() {
+		return winCount;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GameConfiguration)) {
+			return false;
+		}
+		GameConfiguration other = (GameConfiguration) obj;
+		return size == other.size && winCount == other.winCount;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * size + winCount;
+	}
+
+	@Override
+	public String toString() {
+		return size + "x" + size + ", win count = " + winCount;
+	}
+}
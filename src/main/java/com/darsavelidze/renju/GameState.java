@@ -0,0 +1,9 @@
+package com.darsavelidze.renju;
+
+public enum GameState {
+	IN_PROGRESS, HUMAN_WINS, COMPUTER_WINS, DRAW;
+
+	public boolean isOver() {
+		return this != IN_PROGRESS;
+	}
+}
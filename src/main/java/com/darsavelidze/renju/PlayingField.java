@@ -6,10 +6,30 @@ public interface PlayingField {
 	void setValue(int rowIndex, int columnIndex, CellValue cellValue);
 	
 	void reInitialize();
+
+	void makeMove(int rowIndex, int columnIndex, CellValue cellValue);
+
+	void unmakeMove();
+
+	void redoMove();
+
+	int getMoveCount();
+
+	int getRedoCount();
+
+	Cell getLastMove();
 	
 	int getSize();
+
+	GameConfiguration getConfiguration();
 	
 	boolean isCellFree(int rowIndex, int columnIndex);
 	
 	boolean isEmptyCellExists();
+
+	long getHashKey();
+
+	void addPlayingFieldListener(PlayingFieldListener listener);
+
+	void removePlayingFieldListener(PlayingFieldListener listener);
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.darsavelidze.renju;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import javax.swing.JComponent;
+
+/**
+ * Paints the whole playing field in one component straight from the {@link PlayingField} state. Only the clipped
+ * cells are painted, so callers repaint the cells that changed with {@link #repaintCell(Cell)}.
+ */
+public class PlayingFieldComponent extends JComponent {
+	private static final long serialVersionUID = 3940617236826451783L;
+	private static final Color GRID_COLOR = Color.BLACK;
+	private static final Color HUMAN_COLOR = Color.BLUE;
+	private static final Color COMPUTER_COLOR = Color.RED;
+	private static final Color WINNER_COLOR = Color.CYAN;
+	private final transient PlayingField playingField;
+	private final int size;
+	private final int cellSize;
+	private final boolean[] winnerCells;
+	private final List<Cell> highlightedCells = new ArrayList<>();
+	private final Font font;
+	private final Font winnerFont;
+	private transient CellListener cellListener;
+
+	public PlayingFieldComponent(PlayingField playingField, int cellSize) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		if (cellSize <= 0) {
+			throw new IllegalArgumentException("Cell size should be positive: " + cellSize);
+		}
+		this.playingField = playingField;
+		this.size = playingField.getSize();
+		this.cellSize = cellSize;
+		this.winnerCells = new boolean[size * size];
+		this.font = new Font(Font.SERIF, Font.PLAIN, cellSize * 4 / 5);
+		this.winnerFont = font.deriveFont(Font.BOLD);
+		setOpaque(true);
+		setPreferredSize(new Dimension(size * cellSize, size * cellSize));
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				handleClick(e.getX(), e.getY());
+			}
+		});
+	}
+
+	public void setCellListener(CellListener cellListener) {
+		this.cellListener = cellListener;
+	}
+
+	public void repaintCell(Cell cell) {
+		repaint(cell.getColumnIndex() * cellSize, cell.getRowIndex() * cellSize, cellSize, cellSize);
+	}
+
+	public void setWinnerCells(List<Cell> cells) {
+		for (int i = 0; i < cells.size(); i++) {
+			Cell cell = cells.get(i);
+			winnerCells[cell.getRowIndex() * size + cell.getColumnIndex()] = true;
+			highlightedCells.add(cell);
+			repaintCell(cell);
+		}
+	}
+
+	public void clearWinnerCells() {
+		for (int i = 0; i < highlightedCells.size(); i++) {
+			Cell cell = highlightedCells.get(i);
+			winnerCells[cell.getRowIndex() * size + cell.getColumnIndex()] = false;
+			repaintCell(cell);
+		}
+		highlightedCells.clear();
+	}
+
+	private void handleClick(int x, int y) {
+		if (!isEnabled() || cellListener == null || x < 0 || y < 0) {
+			return;
+		}
+		int rowIndex = y / cellSize;
+		int columnIndex = x / cellSize;
+		if (rowIndex < size && columnIndex < size) {
+			cellListener.cellClicked(rowIndex, columnIndex);
+		}
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		Rectangle clip = g.getClipBounds();
+		if (clip == null) {
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+		g.setColor(getBackground());
+		g.fillRect(clip.x, clip.y, clip.width, clip.height);
+		int firstRow = Math.max(0, clip.y / cellSize);
+		int lastRow = Math.min(size - 1, (clip.y + clip.height - 1) / cellSize);
+		int firstColumn = Math.max(0, clip.x / cellSize);
+		int lastColumn = Math.min(size - 1, (clip.x + clip.width - 1) / cellSize);
+		Graphics2D g2 = (Graphics2D) g;
+		g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				paintCell(g2, row, column);
+			}
+		}
+	}
+
+	private void paintCell(Graphics2D g, int row, int column) {
+		int x = column * cellSize;
+		int y = row * cellSize;
+		g.setColor(GRID_COLOR);
+		g.drawRect(x, y, cellSize - 1, cellSize - 1);
+		CellValue cellValue = playingField.getValue(row, column);
+		if (cellValue == CellValue.EMPTY) {
+			return;
+		}
+		boolean winner = winnerCells[row * size + column];
+		Font cellFont = winner ? winnerFont : font;
+		g.setFont(cellFont);
+		if (winner) {
+			g.setColor(WINNER_COLOR);
+		} else {
+			g.setColor(cellValue == CellValue.COMPUTER ? COMPUTER_COLOR : HUMAN_COLOR);
+		}
+		String text = cellValue.getValue();
+		FontMetrics metrics = g.getFontMetrics(cellFont);
+		int textX = x + (cellSize - metrics.stringWidth(text)) / 2;
+		int textY = y + (cellSize - metrics.getHeight()) / 2 + metrics.getAscent();
+		g.drawString(text, textX, textY);
+	}
+
+	public interface CellListener {
+		void cellClicked(int rowIndex, int columnIndex);
+	}
+}
@@ -0,0 +1,7 @@
+package com.darsavelidze.renju;
+
+public interface PlayingFieldListener {
+	void valueChanged(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue);
+
+	void reInitialized();
+}
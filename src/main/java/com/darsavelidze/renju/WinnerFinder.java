@@ -4,4 +4,6 @@ public interface WinnerFinder {
 	void setPlayingField(PlayingField playinField);
 
 	GameStatus isWinnerFound(CellValue cellValue);
+
+	GameStatus isWinnerFound(Cell lastTurn);
 }
\ No newline at end of file
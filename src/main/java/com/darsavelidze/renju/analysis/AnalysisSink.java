@@ -0,0 +1,7 @@
+package com.darsavelidze.renju.analysis;
+
+import java.io.IOException;
+
+public interface AnalysisSink {
+	void write(PositionAnalysis analysis) throws IOException;
+}
@@ -0,0 +1,55 @@
+package com.darsavelidze.renju.analysis;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.impl.SearchResult;
+
+/**
+ * Writes one tab separated line per analysis: number, side to move, best move, score, depth, nodes and the
+ * principal variation, or number, side to move, "error" and the message for a failed analysis.
+ */
+public class AnalysisWriter implements AnalysisSink, Closeable {
+	private final BufferedWriter writer;
+	private final StringBuilder line = new StringBuilder();
+
+	public AnalysisWriter(Writer writer) {
+		Objects.requireNonNull(writer, "Writer can't be null");
+		this.writer = writer instanceof BufferedWriter ? (BufferedWriter) writer : new BufferedWriter(writer);
+	}
+
+	@Override
+	public void write(PositionAnalysis analysis) throws IOException {
+		line.setLength(0);
+		line.append(analysis.getNumber()).append('\t').append(analysis.getSideToMove()).append('\t');
+		if (analysis.isFailed()) {
+			line.append("error\t").append(analysis.getError());
+		} else {
+			SearchResult result = analysis.getResult();
+			line.append(result.getBestMove()).append('\t').append(result.getScore()).append('\t')
+					.append(result.getDepth()).append('\t').append(result.getNodes()).append('\t');
+			List<Cell> variation = result.getPrincipalVariation();
+			for (int i = 0; i < variation.size(); i++) {
+				if (i > 0) {
+					line.append(' ');
+				}
+				line.append(variation.get(i));
+			}
+		}
+		writer.append(line).append('\n');
+	}
+
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
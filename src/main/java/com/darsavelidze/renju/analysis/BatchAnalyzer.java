@@ -0,0 +1,112 @@
+package com.darsavelidze.renju.analysis;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.darsavelidze.renju.record.GameRecord;
+
+/**
+ * Analyzes a stream of positions on a pool of threads, each with its own {@link PositionAnalyzer}. Only a few
+ * positions per thread are in flight, and the analyses are written in the order of the source as soon as they are
+ * ready, so neither the source nor the results have to fit in memory.
+ */
+public class BatchAnalyzer {
+	private static final int POSITIONS_IN_FLIGHT_PER_THREAD = 4;
+	private final long timeBudgetMillis;
+	private final int maxDepth;
+	private final int threads;
+	private final int transpositionTableMegabytes;
+	private final boolean renjuRules;
+
+	public BatchAnalyzer(long timeBudgetMillis, int maxDepth, int threads, int transpositionTableMegabytes,
+			boolean renjuRules) {
+		if (timeBudgetMillis <= 0) {
+			throw new IllegalArgumentException("Time budget should be positive: " + timeBudgetMillis);
+		}
+		if (maxDepth <= 0) {
+			throw new IllegalArgumentException("Max depth should be positive: " + maxDepth);
+		}
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads should be positive: " + threads);
+		}
+		if (transpositionTableMegabytes <= 0) {
+			throw new IllegalArgumentException(
+					"Transposition table size should be positive: " + transpositionTableMegabytes);
+		}
+		this.timeBudgetMillis = timeBudgetMillis;
+		this.maxDepth = maxDepth;
+		this.threads = threads;
+		this.transpositionTableMegabytes = transpositionTableMegabytes;
+		this.renjuRules = renjuRules;
+	}
+
+	/**
+	 * Returns the number of analyzed positions.
+	 */
+	public long analyze(PositionSource source, AnalysisSink sink) throws IOException {
+		Objects.requireNonNull(source, "Position source can't be null");
+		Objects.requireNonNull(sink, "Analysis sink can't be null");
+		AtomicInteger threadNumber = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "analysis-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		ThreadLocal<PositionAnalyzer> analyzers = ThreadLocal.withInitial(
+				() -> new PositionAnalyzer(timeBudgetMillis, maxDepth, transpositionTableMegabytes, renjuRules));
+		Deque<Future<PositionAnalysis>> pending = new ArrayDeque<>();
+		long count = 0;
+		try {
+			GameRecord position;
+			while ((position = source.read()) != null) {
+				if (pending.size() >= threads * POSITIONS_IN_FLIGHT_PER_THREAD) {
+					sink.write(await(pending.poll()));
+				}
+				long number = count++;
+				GameRecord task = position;
+				pending.add(executor.submit(() -> analyzers.get().analyze(number, task)));
+			}
+			while (!pending.isEmpty()) {
+				sink.write(await(pending.poll()));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return count;
+	}
+
+	private static PositionAnalysis await(Future<PositionAnalysis> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Analysis is interrupted");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException("Analysis failed", cause);
+		}
+	}
+
+	public long getTimeBudgetMillis() {
+		return timeBudgetMillis;
+	}
+
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+}
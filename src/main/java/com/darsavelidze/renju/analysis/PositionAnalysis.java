@@ -0,0 +1,58 @@
+package com.darsavelidze.renju.analysis;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.impl.SearchResult;
+
+public class PositionAnalysis {
+	private final long number;
+	private final CellValue sideToMove;
+	private final SearchResult result;
+	private final String error;
+
+	private PositionAnalysis(long number, CellValue sideToMove, SearchResult result, String error) {
+		this.number = number;
+		this.sideToMove = sideToMove;
+		this.result = result;
+		this.error = error;
+	}
+
+	public static PositionAnalysis of(long number, CellValue sideToMove, SearchResult result) {
+		return new PositionAnalysis(number, sideToMove, result, null);
+	}
+
+	public static PositionAnalysis failed(long number, CellValue sideToMove, String error) {
+		return new PositionAnalysis(number, sideToMove, null, error);
+	}
+
+	/**
+	 * Returns the zero based number of the position in the source stream.
+	 */
+	public long getNumber() {
+		return number;
+	}
+
+	public CellValue getSideToMove() {
+		return sideToMove;
+	}
+
+	public boolean isFailed() {
+		return result == null;
+	}
+
+	/**
+	 * Returns the search result with the score from the point of view of the side to move, or null if the analysis
+	 * failed.
+	 */
+	public SearchResult getResult() {
+		return result;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return "#" + number + " " + sideToMove + " to move: " + (result != null ? result : "failed, " + error);
+	}
+}
@@ -0,0 +1,84 @@
+package com.darsavelidze.renju.analysis;
+
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.AlphaBetaSearch;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+import com.darsavelidze.renju.impl.LinePatterns;
+import com.darsavelidze.renju.impl.SearchResult;
+import com.darsavelidze.renju.impl.TranspositionTable;
+import com.darsavelidze.renju.record.GameRecord;
+
+/**
+ * Analyzes positions on its own playing field, which is reused from one position to the next. An analyzer is
+ * confined to one thread.
+ */
+public class PositionAnalyzer {
+	private final long timeBudgetMillis;
+	private final int maxDepth;
+	private final int transpositionTableMegabytes;
+	private final boolean renjuRules;
+	private PlayingField playingField;
+	private TranspositionTable transpositionTable;
+	private AlphaBetaSearch search;
+
+	public PositionAnalyzer(long timeBudgetMillis, int maxDepth, int transpositionTableMegabytes,
+			boolean renjuRules) {
+		if (timeBudgetMillis <= 0) {
+			throw new IllegalArgumentException("Time budget should be positive: " + timeBudgetMillis);
+		}
+		if (maxDepth <= 0) {
+			throw new IllegalArgumentException("Max depth should be positive: " + maxDepth);
+		}
+		if (transpositionTableMegabytes <= 0) {
+			throw new IllegalArgumentException(
+					"Transposition table size should be positive: " + transpositionTableMegabytes);
+		}
+		this.timeBudgetMillis = timeBudgetMillis;
+		this.maxDepth = maxDepth;
+		this.transpositionTableMegabytes = transpositionTableMegabytes;
+		this.renjuRules = renjuRules;
+	}
+
+	public PositionAnalysis analyze(long number, GameRecord position) {
+		Objects.requireNonNull(position, "Position can't be null");
+		CellValue sideToMove = position.getMover(position.getMoveCount());
+		try {
+			setUp(position);
+			SearchResult result = search.search(sideToMove, timeBudgetMillis, maxDepth);
+			return PositionAnalysis.of(number, sideToMove, result);
+		} catch (RuntimeException e) {
+			return PositionAnalysis.failed(number, sideToMove, e.getMessage());
+		}
+	}
+
+	private void setUp(GameRecord position) {
+		GameConfiguration configuration = position.getConfiguration();
+		if (playingField == null || !playingField.getConfiguration().equals(configuration)) {
+			if (configuration.getWinCount() > LinePatterns.MAX_WIN_COUNT) {
+				throw new IllegalArgumentException("Win count is big: winCount = " + configuration.getWinCount()
+						+ ". Maximum: " + LinePatterns.MAX_WIN_COUNT);
+			}
+			if (search != null) {
+				search.detach();
+			}
+			playingField = new BitboardPlayingField(configuration);
+			if (transpositionTable == null) {
+				transpositionTable = new TranspositionTable(transpositionTableMegabytes);
+			} else {
+				transpositionTable.clear();
+			}
+			search = new AlphaBetaSearch(playingField, transpositionTable);
+			search.setRenjuRules(renjuRules);
+		}
+		playingField.reInitialize();
+		int size = configuration.getSize();
+		for (int n = 0; n < position.getMoveCount(); n++) {
+			int move = position.getMove(n);
+			playingField.makeMove(move / size, move % size, position.getMover(n));
+		}
+	}
+}
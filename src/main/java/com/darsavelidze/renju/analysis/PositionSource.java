@@ -0,0 +1,21 @@
+package com.darsavelidze.renju.analysis;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import com.darsavelidze.renju.record.GameRecord;
+
+/**
+ * A stream of positions to analyze. A position is encoded as a game record: its moves are played from the empty
+ * board, and the side after the last mover is to move. {@code GameRecordReader::read} is a source of this kind.
+ */
+public interface PositionSource {
+	/**
+	 * Returns the next position, or null at the end of the stream.
+	 */
+	GameRecord read() throws IOException;
+
+	static PositionSource of(Iterator<GameRecord> positions) {
+		return () -> positions.hasNext() ? positions.next() : null;
+	}
+}
@@ -0,0 +1,158 @@
+package com.darsavelidze.renju.book;
+
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.EngineTracer;
+import com.darsavelidze.renju.impl.Ponderable;
+import com.darsavelidze.renju.impl.RenjuRules;
+import com.darsavelidze.renju.impl.SearchResult;
+import com.darsavelidze.renju.impl.SearchResultProvider;
+import com.darsavelidze.renju.impl.Traceable;
+
+public class BookComputerTurn implements ComputerTurn, Traceable, SearchResultProvider, Ponderable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(BookComputerTurn.class);
+	public static final int DEFAULT_MIN_GAMES = 4;
+	private final OpeningBook openingBook;
+	private final ComputerTurn computerTurn;
+	private final int minGames;
+	private PlayingField playingField;
+	private EngineTracer tracer;
+	private RenjuRules renjuRules;
+	private boolean renju;
+	private boolean lastTurnFromBook;
+
+	public BookComputerTurn(OpeningBook openingBook, ComputerTurn computerTurn) {
+		this(openingBook, computerTurn, DEFAULT_MIN_GAMES);
+	}
+
+	public BookComputerTurn(OpeningBook openingBook, ComputerTurn computerTurn, int minGames) {
+		Objects.requireNonNull(openingBook, "Opening book can't be null");
+		Objects.requireNonNull(computerTurn, "Computer turn can't be null");
+		if (minGames <= 0) {
+			throw new IllegalArgumentException("Minimum number of games should be positive: " + minGames);
+		}
+		this.openingBook = openingBook;
+		this.computerTurn = computerTurn;
+		this.minGames = minGames;
+	}
+
+	@Override
+	public void setPlayingField(PlayingField playingField) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		if (!openingBook.getConfiguration().equals(playingField.getConfiguration())) {
+			throw new IllegalArgumentException("Opening book is built for " + openingBook.getConfiguration()
+					+ ", playing field: " + playingField.getConfiguration());
+		}
+		this.playingField = playingField;
+		updateRenjuRules();
+		computerTurn.setPlayingField(playingField);
+	}
+
+	public boolean isRenjuRules() {
+		return renju;
+	}
+
+	/**
+	 * Skips the book moves that are forbidden for black. The wrapped computer turn is configured on its own.
+	 */
+	public void setRenjuRules(boolean renju) {
+		this.renju = renju;
+		if (playingField != null) {
+			updateRenjuRules();
+		}
+	}
+
+	private void updateRenjuRules() {
+		if (renjuRules != null) {
+			renjuRules.detach();
+			renjuRules = null;
+		}
+		if (renju) {
+			renjuRules = new RenjuRules(playingField);
+		}
+	}
+
+	@Override
+	public void setTracer(EngineTracer tracer) {
+		this.tracer = tracer;
+		if (computerTurn instanceof Traceable) {
+			((Traceable) computerTurn).setTracer(tracer);
+		}
+	}
+
+	@Override
+	public Cell makeTurn() {
+		Cell cell = makeBookTurn();
+		lastTurnFromBook = cell != null;
+		return cell != null ? cell : computerTurn.makeTurn();
+	}
+
+	@Override
+	public Cell makeFirstTurn() {
+		Cell cell = makeBookTurn();
+		lastTurnFromBook = cell != null;
+		return cell != null ? cell : computerTurn.makeFirstTurn();
+	}
+
+	@Override
+	public SearchResult getLastSearchResult() {
+		if (lastTurnFromBook || !(computerTurn instanceof SearchResultProvider)) {
+			return null;
+		}
+		return ((SearchResultProvider) computerTurn).getLastSearchResult();
+	}
+
+	@Override
+	public Cell predictReply() {
+		return computerTurn instanceof Ponderable ? ((Ponderable) computerTurn).predictReply() : null;
+	}
+
+	@Override
+	public void ponder(Cell reply) {
+		if (computerTurn instanceof Ponderable) {
+			((Ponderable) computerTurn).ponder(reply);
+		}
+	}
+
+	private Cell makeBookTurn() {
+		// the computer is to move, so the key of the position is the plain hash key of the playing field
+		BookEntry entry = openingBook.findBestMove(playingField.getHashKey(), minGames);
+		if (entry == null) {
+			return null;
+		}
+		int size = playingField.getSize();
+		Cell cell = new Cell(entry.getMove() / size, entry.getMove() % size);
+		if (!playingField.isCellFree(cell.getRowIndex(), cell.getColumnIndex())) {
+			LOGGER.warn("Opening book move {} is occupied, the key collides", cell);
+			return null;
+		}
+		if (renjuRules != null) {
+			renjuRules.setBlack(renjuRules.findBlack(CellValue.COMPUTER));
+			if (renjuRules.isForbidden(entry.getMove(), CellValue.COMPUTER)) {
+				LOGGER.debug("Opening book move {} is forbidden for black", cell);
+				return null;
+			}
+		}
+		playingField.makeMove(cell.getRowIndex(), cell.getColumnIndex(), CellValue.COMPUTER);
+		if (tracer != null) {
+			tracer.recordBookMove(entry.getMove(), entry.getGames());
+		}
+		LOGGER.info("Computer book turn is {}: {}", cell, entry);
+		return cell;
+	}
+
+	public OpeningBook getOpeningBook() {
+		return openingBook;
+	}
+
+	public int getMinGames() {
+		return minGames;
+	}
+}
@@ -0,0 +1,46 @@
+package com.darsavelidze.renju.book;
+
+public class BookEntry {
+	private final long key;
+	private final int move;
+	private final int games;
+	private final double score;
+
+	public BookEntry(long key, int move, int games, double score) {
+		if (move < 0) {
+			throw new IllegalArgumentException("Move should not be negative: " + move);
+		}
+		if (games <= 0) {
+			throw new IllegalArgumentException("Number of games should be positive: " + games);
+		}
+		if (score < 0.0 || score > 1.0) {
+			throw new IllegalArgumentException("Score should be between 0 and 1: " + score);
+		}
+		this.key = key;
+		this.move = move;
+		this.games = games;
+		this.score = score;
+	}
+
+	public long getKey() {
+		return key;
+	}
+
+	public int getMove() {
+		return move;
+	}
+
+	public int getGames() {
+		return games;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	@Override
+	public String toString() {
+		return "key = " + Long.toHexString(key) + ", move = " + move + ", games = " + games + ", score = "
+				+ String.format("%.3f", score);
+	}
+}
@@ -0,0 +1,181 @@
+package com.darsavelidze.renju.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import com.darsavelidze.renju.GameConfiguration;
+
+/**
+ * Read-only opening book mapped into memory. The file is a 24 byte header (magic, version, board size, win count,
+ * entry count) followed by 16 byte entries (position key, move index, score in 1/10000, games) sorted by key, so a
+ * lookup is a binary search over the mapping without reading the whole file.
+ */
+public class OpeningBook {
+	static final int MAGIC = 0x52424F4B;
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 24;
+	static final int ENTRY_BYTES = 16;
+	private static final int SCORE_SCALE = 10000;
+	private static final int MAX_MOVE = 0xFFFF;
+	private static final int WRITE_BUFFER_ENTRIES = 4096;
+	private static final Comparator<BookEntry> ENTRY_ORDER = new Comparator<BookEntry>() {
+		@Override
+		public int compare(BookEntry first, BookEntry second) {
+			int result = Long.compare(first.getKey(), second.getKey());
+			if (result == 0) {
+				result = Integer.compare(second.getGames(), first.getGames());
+			}
+			if (result == 0) {
+				result = Double.compare(second.getScore(), first.getScore());
+			}
+			return result;
+		}
+	};
+	private final ByteBuffer buffer;
+	private final GameConfiguration configuration;
+	private final int entryCount;
+
+	private OpeningBook(ByteBuffer buffer) throws IOException {
+		if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not an opening book file");
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException("Unsupported opening book version: " + buffer.getInt(4));
+		}
+		try {
+			configuration = new GameConfiguration(buffer.getInt(8), buffer.getInt(12));
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid opening book configuration", e);
+		}
+		long count = buffer.getLong(16);
+		if (count < 0 || HEADER_BYTES + count * ENTRY_BYTES != buffer.limit()) {
+			throw new IOException("Opening book file is truncated: " + count + " entries expected");
+		}
+		this.buffer = buffer;
+		this.entryCount = (int) count;
+	}
+
+	public static OpeningBook open(Path path) throws IOException {
+		Objects.requireNonNull(path, "Path can't be null");
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Opening book file is too big: " + channel.size() + " bytes");
+			}
+			// the mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			buffer.order(ByteOrder.BIG_ENDIAN);
+			return new OpeningBook(buffer);
+		}
+	}
+
+	public static void write(Path path, GameConfiguration configuration, List<BookEntry> entries) throws IOException {
+		Objects.requireNonNull(path, "Path can't be null");
+		Objects.requireNonNull(configuration, "Configuration can't be null");
+		int cellCount = configuration.getSize() * configuration.getSize();
+		if (cellCount - 1 > MAX_MOVE) {
+			throw new IllegalArgumentException("Board is too big for an opening book: " + configuration);
+		}
+		List<BookEntry> sorted = new ArrayList<>(entries);
+		Collections.sort(sorted, ENTRY_ORDER);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_ENTRIES * ENTRY_BYTES);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(configuration.getSize()).putInt(configuration.getWinCount())
+					.putLong(sorted.size());
+			for (BookEntry entry : sorted) {
+				if (entry.getMove() >= cellCount) {
+					throw new IllegalArgumentException("Move is outside of the board: " + entry);
+				}
+				if (buffer.remaining() < ENTRY_BYTES) {
+					flush(channel, buffer);
+				}
+				buffer.putLong(entry.getKey()).putShort((short) entry.getMove())
+						.putShort((short) Math.round(entry.getScore() * SCORE_SCALE)).putInt(entry.getGames());
+			}
+			flush(channel, buffer);
+		}
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	public GameConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	public int getEntryCount() {
+		return entryCount;
+	}
+
+	public List<BookEntry> findMoves(long key) {
+		List<BookEntry> moves = new ArrayList<>();
+		for (int i = lowerBound(key); i < entryCount && getKey(i) == key; i++) {
+			moves.add(getEntry(i));
+		}
+		return moves;
+	}
+
+	public BookEntry findBestMove(long key, int minGames) {
+		int best = -1;
+		for (int i = lowerBound(key); i < entryCount && getKey(i) == key; i++) {
+			if (getGames(i) >= minGames && (best < 0 || getScoreValue(i) > getScoreValue(best))) {
+				best = i;
+			}
+		}
+		return best < 0 ? null : getEntry(best);
+	}
+
+	private int lowerBound(long key) {
+		int low = 0;
+		int high = entryCount;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (getKey(middle) < key) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private long getKey(int i) {
+		return buffer.getLong(HEADER_BYTES + i * ENTRY_BYTES);
+	}
+
+	private int getMove(int i) {
+		return buffer.getShort(HEADER_BYTES + i * ENTRY_BYTES + 8) & MAX_MOVE;
+	}
+
+	private int getScoreValue(int i) {
+		return buffer.getShort(HEADER_BYTES + i * ENTRY_BYTES + 10) & 0xFFFF;
+	}
+
+	private int getGames(int i) {
+		return buffer.getInt(HEADER_BYTES + i * ENTRY_BYTES + 12);
+	}
+
+	private BookEntry getEntry(int i) {
+		return new BookEntry(getKey(i), getMove(i), getGames(i), (double) getScoreValue(i) / SCORE_SCALE);
+	}
+
+	@Override
+	public String toString() {
+		return configuration + ", entries = " + entryCount;
+	}
+}
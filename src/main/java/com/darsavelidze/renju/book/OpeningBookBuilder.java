@@ -0,0 +1,222 @@
+package com.darsavelidze.renju.book;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.ComputerTurnFactory;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.GameState;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.AlphaBetaComputerTurn;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+import com.darsavelidze.renju.impl.SwappedPlayingField;
+import com.darsavelidze.renju.record.GameRecord;
+import com.darsavelidze.renju.record.GameRecordReader;
+import com.darsavelidze.renju.tournament.GameResult;
+import com.darsavelidze.renju.tournament.SelfPlayGame;
+import com.darsavelidze.renju.tournament.TournamentRunner;
+
+public class OpeningBookBuilder {
+	private static final Logger LOGGER = LoggerFactory.getLogger(OpeningBookBuilder.class);
+	private static final int DEFAULT_GAMES = 1000;
+	private static final int DEFAULT_MAX_PLY = 12;
+	private static final int DEFAULT_MIN_GAMES = 2;
+	private static final long DEFAULT_TIME_BUDGET_MILLIS = 20;
+	private static final int DEFAULT_OPENING_MOVES = 2;
+	private static final int PROGRESS_INTERVAL = 100;
+	private final ComputerTurnFactory engineFactory;
+	private final int maxPly;
+	private final int minGames;
+	private final int threads;
+	private final int openingMoves;
+	private final Map<Long, Map<Integer, MoveStatistics>> statistics = new HashMap<>();
+	private int playedGames;
+
+	public OpeningBookBuilder(ComputerTurnFactory engineFactory, int maxPly, int minGames, int threads,
+			int openingMoves) {
+		Objects.requireNonNull(engineFactory, "Engine factory can't be null");
+		if (maxPly <= 0) {
+			throw new IllegalArgumentException("Max ply should be positive: " + maxPly);
+		}
+		if (minGames <= 0) {
+			throw new IllegalArgumentException("Minimum number of games should be positive: " + minGames);
+		}
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads should be positive: " + threads);
+		}
+		if (openingMoves < 0 || openingMoves > SelfPlayGame.MAX_OPENING_MOVES) {
+			throw new IllegalArgumentException(
+					"Opening moves should be between 0 and " + SelfPlayGame.MAX_OPENING_MOVES + ": " + openingMoves);
+		}
+		this.engineFactory = engineFactory;
+		this.maxPly = maxPly;
+		this.minGames = minGames;
+		this.threads = threads;
+		this.openingMoves = openingMoves;
+	}
+
+	public void playGames(int games, long seed) throws InterruptedException {
+		if (games <= 0) {
+			throw new IllegalArgumentException("Number of games should be positive: " + games);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<SelfPlayGame> selfPlayGames = new ArrayList<>(games);
+			List<Future<GameResult>> results = new ArrayList<>(games);
+			for (int i = 0; i < games; i++) {
+				SelfPlayGame game = new SelfPlayGame(engineFactory, engineFactory, i % 2 == 0, openingMoves,
+						seed + i / 2);
+				selfPlayGames.add(game);
+				results.add(executor.submit(game));
+			}
+			for (int i = 0; i < games; i++) {
+				GameResult result = getResult(results.get(i));
+				SelfPlayGame game = selfPlayGames.get(i);
+				addGame(game.getMoves(), game.isFirstEngineStarts() ? CellValue.COMPUTER : CellValue.HUMAN,
+						getWinner(result));
+				if (playedGames % PROGRESS_INTERVAL == 0) {
+					LOGGER.info("{} games played, {} positions", playedGames, statistics.size());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static GameResult getResult(Future<GameResult> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Game failed", e.getCause());
+		}
+	}
+
+	private static CellValue getWinner(GameResult result) {
+		// the first engine of a self-play game always plays computer stones
+		if (result == GameResult.FIRST_ENGINE_WIN) {
+			return CellValue.COMPUTER;
+		} else if (result == GameResult.SECOND_ENGINE_WIN) {
+			return CellValue.HUMAN;
+		}
+		return CellValue.EMPTY;
+	}
+
+	public void addGame(List<Cell> moves, CellValue firstMover, CellValue winner) {
+		PlayingField playingField = new BitboardPlayingField();
+		SwappedPlayingField swappedPlayingField = new SwappedPlayingField(playingField);
+		CellValue mover = firstMover;
+		for (int ply = 0; ply < Math.min(maxPly, moves.size()); ply++) {
+			Cell cell = moves.get(ply);
+			// positions are stored as seen by the side to move playing computer stones
+			long key = mover == CellValue.COMPUTER ? playingField.getHashKey() : swappedPlayingField.getHashKey();
+			int move = cell.getRowIndex() * playingField.getSize() + cell.getColumnIndex();
+			Map<Integer, MoveStatistics> moveStatistics = statistics.get(key);
+			if (moveStatistics == null) {
+				moveStatistics = new HashMap<>();
+				statistics.put(key, moveStatistics);
+			}
+			MoveStatistics stats = moveStatistics.get(move);
+			if (stats == null) {
+				stats = new MoveStatistics();
+				moveStatistics.put(move, stats);
+			}
+			stats.games++;
+			stats.halfPoints += winner == mover ? 2 : winner == CellValue.EMPTY ? 1 : 0;
+			playingField.makeMove(cell.getRowIndex(), cell.getColumnIndex(), mover);
+			mover = SwappedPlayingField.swap(mover);
+		}
+		playedGames++;
+	}
+
+	public void addGame(GameRecord record) {
+		if (!GameConfiguration.DEFAULT.equals(record.getConfiguration())) {
+			throw new IllegalArgumentException("Opening book is built for " + GameConfiguration.DEFAULT
+					+ ", game record: " + record.getConfiguration());
+		}
+		CellValue winner = record.getResult() == GameState.HUMAN_WINS ? CellValue.HUMAN
+				: record.getResult() == GameState.COMPUTER_WINS ? CellValue.COMPUTER : CellValue.EMPTY;
+		addGame(record.getMoves(), record.getFirstMover(), winner);
+	}
+
+	public int addRecords(Path path) throws IOException {
+		int added = 0;
+		try (GameRecordReader reader = new GameRecordReader(path)) {
+			GameRecord record;
+			while ((record = reader.read()) != null) {
+				// unfinished games have no result to learn from
+				if (record.getResult().isOver() && GameConfiguration.DEFAULT.equals(record.getConfiguration())) {
+					addGame(record);
+					added++;
+				}
+			}
+		}
+		return added;
+	}
+
+	public List<BookEntry> getEntries() {
+		List<BookEntry> entries = new ArrayList<>();
+		for (Map.Entry<Long, Map<Integer, MoveStatistics>> position : statistics.entrySet()) {
+			for (Map.Entry<Integer, MoveStatistics> move : position.getValue().entrySet()) {
+				MoveStatistics stats = move.getValue();
+				if (stats.games >= minGames) {
+					entries.add(new BookEntry(position.getKey(), move.getKey(), stats.games,
+							stats.halfPoints / (2.0 * stats.games)));
+				}
+			}
+		}
+		return entries;
+	}
+
+	public int getPlayedGames() {
+		return playedGames;
+	}
+
+	public void write(Path path) throws IOException {
+		OpeningBook.write(path, GameConfiguration.DEFAULT, getEntries());
+	}
+
+	private static class MoveStatistics {
+		private int games;
+		private int halfPoints;
+	}
+
+	public static void main(String[] args) throws InterruptedException, IOException {
+		if (args.length < 1) {
+			System.err.println("Usage: OpeningBookBuilder <book file> [games] [max ply] [min games] [threads] "
+					+ "[time budget millis] [opening moves] [seed]");
+			System.exit(1);
+		}
+		int games = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+		int maxPly = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLY;
+		int minGames = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MIN_GAMES;
+		int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+		final long timeBudgetMillis = args.length > 5 ? Long.parseLong(args[5]) : DEFAULT_TIME_BUDGET_MILLIS;
+		int openingMoves = args.length > 6 ? Integer.parseInt(args[6]) : DEFAULT_OPENING_MOVES;
+		long seed = args.length > 7 ? Long.parseLong(args[7]) : System.nanoTime();
+		TournamentRunner.quietEngineLogging();
+		OpeningBookBuilder builder = new OpeningBookBuilder(() -> new AlphaBetaComputerTurn(timeBudgetMillis),
+				maxPly, minGames, threads, openingMoves);
+		long start = System.currentTimeMillis();
+		builder.playGames(games, seed);
+		Path path = Paths.get(args[0]);
+		builder.write(path);
+		OpeningBook book = OpeningBook.open(path);
+		System.out.println("Opening book " + path + ": " + book + ", " + builder.getPlayedGames() + " games in "
+				+ (System.currentTimeMillis() - start) + "ms, seed " + seed);
+	}
+}
@@ -0,0 +1,150 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.PlayingFieldListener;
+
+public abstract class AbstractPlayingField implements PlayingField {
+	private static final int INITIAL_MOVES_CAPACITY = 64;
+	private final GameConfiguration configuration;
+	private final ZobristKeys zobristKeys;
+	private long hashKey;
+	private PlayingFieldListener[] listeners = new PlayingFieldListener[0];
+	// index << 1 | 1 for computer stones; entries above moveCount are kept for redo
+	private int[] moves = new int[INITIAL_MOVES_CAPACITY];
+	private int moveCount;
+	private int redoCount;
+
+	protected AbstractPlayingField(GameConfiguration configuration) {
+		Objects.requireNonNull(configuration, "Game configuration can't be null");
+		this.configuration = configuration;
+		zobristKeys = ZobristKeys.forSize(configuration.getSize());
+	}
+
+	@Override
+	public int getSize() {
+		return configuration.getSize();
+	}
+
+	@Override
+	public GameConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	@Override
+	public long getHashKey() {
+		return hashKey;
+	}
+
+	@Override
+	public void makeMove(int rowIndex, int columnIndex, CellValue cellValue) {
+		if (cellValue != CellValue.HUMAN && cellValue != CellValue.COMPUTER) {
+			throw new IllegalArgumentException("Stone value expected: " + cellValue);
+		}
+		if (!isCellFree(rowIndex, columnIndex)) {
+			throw new IllegalArgumentException("Cell " + rowIndex + ":" + columnIndex + " is not empty");
+		}
+		setValue(rowIndex, columnIndex, cellValue);
+		if (moveCount == moves.length) {
+			moves = Arrays.copyOf(moves, moves.length * 2);
+		}
+		moves[moveCount++] = (rowIndex * getSize() + columnIndex) << 1 | (cellValue == CellValue.COMPUTER ? 1 : 0);
+		redoCount = 0;
+	}
+
+	@Override
+	public void unmakeMove() {
+		if (moveCount == 0) {
+			throw new IllegalStateException("No move to take back");
+		}
+		int index = moves[--moveCount] >>> 1;
+		setValue(index / getSize(), index % getSize(), CellValue.EMPTY);
+		redoCount++;
+	}
+
+	@Override
+	public void redoMove() {
+		if (redoCount == 0) {
+			throw new IllegalStateException("No move to redo");
+		}
+		int move = moves[moveCount];
+		int index = move >>> 1;
+		if (!isCellFree(index / getSize(), index % getSize())) {
+			// the cell was set directly after the move was taken back, the rest of the redo history doesn't fit either
+			redoCount = 0;
+			throw new IllegalStateException("Cell " + index / getSize() + ":" + index % getSize()
+					+ " of the move to redo is not empty");
+		}
+		setValue(index / getSize(), index % getSize(), (move & 1) != 0 ? CellValue.COMPUTER : CellValue.HUMAN);
+		moveCount++;
+		redoCount--;
+	}
+
+	@Override
+	public int getMoveCount() {
+		return moveCount;
+	}
+
+	@Override
+	public int getRedoCount() {
+		return redoCount;
+	}
+
+	@Override
+	public Cell getLastMove() {
+		if (moveCount == 0) {
+			return null;
+		}
+		int index = moves[moveCount - 1] >>> 1;
+		return new Cell(index / getSize(), index % getSize());
+	}
+
+	@Override
+	public void addPlayingFieldListener(PlayingFieldListener listener) {
+		Objects.requireNonNull(listener, "Listener can't be null");
+		listeners = Arrays.copyOf(listeners, listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+	}
+
+	@Override
+	public void removePlayingFieldListener(PlayingFieldListener listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				PlayingFieldListener[] newListeners = new PlayingFieldListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, newListeners, 0, i);
+				System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+				listeners = newListeners;
+				return;
+			}
+		}
+	}
+
+	protected void valueChanged(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue) {
+		int index = rowIndex * getSize() + columnIndex;
+		hashKey ^= zobristKeys.getKey(index, oldValue) ^ zobristKeys.getKey(index, newValue);
+		for (PlayingFieldListener listener : listeners) {
+			listener.valueChanged(rowIndex, columnIndex, oldValue, newValue);
+		}
+	}
+
+	protected void reInitialized() {
+		hashKey = 0L;
+		moveCount = 0;
+		redoCount = 0;
+		for (PlayingFieldListener listener : listeners) {
+			listener.reInitialized();
+		}
+	}
+
+	protected void checkIndexes(int rowIndex, int columnIndex) {
+		if (rowIndex < 0 || rowIndex >= getSize() || columnIndex < 0 || columnIndex >= getSize()) {
+			throw new IndexOutOfBoundsException("Invalid row or column indexes: rowIndex = " + rowIndex
+					+ ", columnIndex = " + columnIndex + ", size = " + getSize());
+		}
+	}
+}
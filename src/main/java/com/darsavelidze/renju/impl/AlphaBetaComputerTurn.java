@@ -0,0 +1,207 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.PlayingField;
+
+public class AlphaBetaComputerTurn implements ComputerTurn, Traceable, SearchResultProvider, Ponderable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AlphaBetaComputerTurn.class);
+	private static final long DEFAULT_TIME_BUDGET_MILLIS = 200;
+	public static final int DEFAULT_MAX_DEPTH = 16;
+	static final int DEFAULT_TRANSPOSITION_TABLE_MEGABYTES = 16;
+	private static final int PREDICTION_BUDGET_DIVISOR = 10;
+	private final long timeBudgetMillis;
+	private final int maxDepth;
+	private final int transpositionTableMegabytes;
+	private TranspositionTable transpositionTable;
+	private PlayingField playingField;
+	private MoveSearch search;
+	private EngineTracer tracer;
+	private SearchResult lastSearchResult;
+	private SearchResult ponderResult;
+	private long ponderHashKey;
+	private boolean renjuRules;
+
+	public AlphaBetaComputerTurn() {
+		this(DEFAULT_TIME_BUDGET_MILLIS);
+	}
+
+	public AlphaBetaComputerTurn(long timeBudgetMillis) {
+		this(timeBudgetMillis, DEFAULT_MAX_DEPTH);
+	}
+
+	public AlphaBetaComputerTurn(long timeBudgetMillis, int maxDepth) {
+		this(timeBudgetMillis, maxDepth, DEFAULT_TRANSPOSITION_TABLE_MEGABYTES);
+	}
+
+	public AlphaBetaComputerTurn(long timeBudgetMillis, int maxDepth, int transpositionTableMegabytes) {
+		if (timeBudgetMillis <= 0) {
+			throw new IllegalArgumentException("Time budget should be positive: " + timeBudgetMillis);
+		}
+		if (maxDepth <= 0 || maxDepth >= AlphaBetaSearch.MAX_PLY) {
+			throw new IllegalArgumentException(
+					"Max depth should be between 1 and " + (AlphaBetaSearch.MAX_PLY - 1) + ": " + maxDepth);
+		}
+		this.timeBudgetMillis = timeBudgetMillis;
+		this.maxDepth = maxDepth;
+		if (transpositionTableMegabytes <= 0) {
+			throw new IllegalArgumentException(
+					"Transposition table size should be positive: " + transpositionTableMegabytes);
+		}
+		this.transpositionTableMegabytes = transpositionTableMegabytes;
+	}
+
+	public AlphaBetaComputerTurn(long timeBudgetMillis, int maxDepth, TranspositionTable transpositionTable) {
+		this(timeBudgetMillis, maxDepth,
+				Objects.requireNonNull(transpositionTable, "Transposition table can't be null").getSizeInMegabytes());
+		this.transpositionTable = transpositionTable;
+	}
+
+	@Override
+	public void setPlayingField(PlayingField playingField) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		int winCount = playingField.getConfiguration().getWinCount();
+		if (winCount > LinePatterns.MAX_WIN_COUNT) {
+			throw new IllegalArgumentException(
+					"Win count is big: winCount = " + winCount + ". Maximum: " + LinePatterns.MAX_WIN_COUNT);
+		}
+		if (search != null) {
+			search.detach();
+		}
+		this.playingField = playingField;
+		this.search = createSearch(playingField);
+		ponderResult = null;
+		search.setRenjuRules(renjuRules);
+	}
+
+	public boolean isRenjuRules() {
+		return renjuRules;
+	}
+
+	/**
+	 * Keeps the engine off the forbidden moves of black, whichever side black is in the current game.
+	 */
+	public void setRenjuRules(boolean renjuRules) {
+		this.renjuRules = renjuRules;
+		if (search != null) {
+			search.setRenjuRules(renjuRules);
+		}
+	}
+
+	@Override
+	public void setTracer(EngineTracer tracer) {
+		this.tracer = tracer;
+	}
+
+	protected MoveSearch createSearch(PlayingField playingField) {
+		return new AlphaBetaSearch(playingField, getTranspositionTable());
+	}
+
+	@Override
+	public Cell makeTurn() {
+		if (!playingField.isEmptyCellExists()) {
+			throw new ComputerTurnException("All cells are filled! Please check draw state");
+		}
+		SearchResult result;
+		if (ponderResult != null && ponderHashKey == playingField.getHashKey()) {
+			result = ponderResult;
+			LOGGER.debug("Ponder hit, the search result is reused");
+		} else {
+			result = search.search(CellValue.COMPUTER, timeBudgetMillis, maxDepth);
+		}
+		ponderResult = null;
+		lastSearchResult = result;
+		Cell cell = result.getBestMove();
+		playingField.makeMove(cell.getRowIndex(), cell.getColumnIndex(), CellValue.COMPUTER);
+		if (tracer != null) {
+			tracer.recordSearchMove(cell.getRowIndex() * playingField.getSize() + cell.getColumnIndex(),
+					result.getScore(), result.getDepth());
+		}
+		LOGGER.info("Computer turn is {}", cell);
+		LOGGER.debug("Search result: {}, transposition table: {}", result, transpositionTable);
+		return cell;
+	}
+
+	@Override
+	public Cell makeFirstTurn() {
+		Cell cell = new Cell(playingField.getSize() / 2, playingField.getSize() / 2);
+		lastSearchResult = null;
+		ponderResult = null;
+		playingField.makeMove(cell.getRowIndex(), cell.getColumnIndex(), CellValue.COMPUTER);
+		if (tracer != null) {
+			tracer.recordSearchMove(cell.getRowIndex() * playingField.getSize() + cell.getColumnIndex(), 0, 0);
+		}
+		LOGGER.info("Computer first turn: {}", cell);
+		return cell;
+	}
+
+	@Override
+	public Cell predictReply() {
+		if (!playingField.isEmptyCellExists()) {
+			return null;
+		}
+		// the human is to move, so the search key of the position is the plain hash key of the playing field;
+		// a search with tables of its own leaves the field null, and the prediction falls back to a short search
+		long entry = transpositionTable != null ? transpositionTable.probe(playingField.getHashKey())
+				: TranspositionTable.NO_ENTRY;
+		if (entry != TranspositionTable.NO_ENTRY) {
+			int move = TranspositionTable.getMove(entry);
+			int size = playingField.getSize();
+			if (move != TranspositionTable.NO_MOVE && playingField.isCellFree(move / size, move % size)) {
+				return new Cell(move / size, move % size);
+			}
+		}
+		SearchResult result = search.search(CellValue.HUMAN, Math.max(1, timeBudgetMillis / PREDICTION_BUDGET_DIVISOR),
+				maxDepth);
+		return Thread.currentThread().isInterrupted() ? null : result.getBestMove();
+	}
+
+	@Override
+	public void ponder(Cell reply) {
+		ponderResult = null;
+		playingField.makeMove(reply.getRowIndex(), reply.getColumnIndex(), CellValue.HUMAN);
+		try {
+			if (!playingField.isEmptyCellExists()) {
+				return;
+			}
+			// the search gets the usual time budget, so a ponder hit answers no later than a normal turn would
+			SearchResult result = search.search(CellValue.COMPUTER, timeBudgetMillis, maxDepth);
+			if (!Thread.currentThread().isInterrupted()) {
+				ponderResult = result;
+				ponderHashKey = playingField.getHashKey();
+			}
+		} finally {
+			playingField.unmakeMove();
+		}
+	}
+
+	@Override
+	public SearchResult getLastSearchResult() {
+		return lastSearchResult;
+	}
+
+	public long getTimeBudgetMillis() {
+		return timeBudgetMillis;
+	}
+
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	public int getTranspositionTableMegabytes() {
+		return transpositionTableMegabytes;
+	}
+
+	public TranspositionTable getTranspositionTable() {
+		if (transpositionTable == null) {
+			transpositionTable = new TranspositionTable(transpositionTableMegabytes);
+		}
+		return transpositionTable;
+	}
+}
@@ -0,0 +1,410 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+
+public class AlphaBetaSearch implements MoveSearch {
+	public static final int WIN_SCORE = 1000000;
+	static final int MAX_PLY = 64;
+	static final int INFINITY = WIN_SCORE + 1;
+	private static final int MAX_BRANCHING = 24;
+	private static final int MAX_EVALUATION = WIN_SCORE / 2;
+	private static final int INITIAL_MOVES_CAPACITY = 64;
+	private static final int DEFENCE_NODE_BUDGET = 2 * ThreatSearch.DEFAULT_NODE_LIMIT;
+	private final PlayingField playingField;
+	private final TranspositionTable transpositionTable;
+	private final int size;
+	private final int[][] moves;
+	private final int[][] moveScores;
+	private final MoveGenerator moveGenerator;
+	private final PatternEvaluator patternEvaluator;
+	private final ThreatSearch threatSearch;
+	private RenjuRules renjuRules;
+	private long nodes;
+	private long deadline;
+	private boolean abortable;
+	private boolean aborted;
+
+	public AlphaBetaSearch(PlayingField playingField) {
+		this(playingField, null);
+	}
+
+	public AlphaBetaSearch(PlayingField playingField, TranspositionTable transpositionTable) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		this.playingField = playingField;
+		this.transpositionTable = transpositionTable;
+		this.size = playingField.getSize();
+		moves = new int[MAX_PLY][];
+		moveScores = new int[MAX_PLY][];
+		moveGenerator = new MoveGenerator(playingField);
+		patternEvaluator = new PatternEvaluator(playingField);
+		threatSearch = new ThreatSearch(playingField, moveGenerator, patternEvaluator);
+	}
+
+	@Override
+	public SearchResult search(CellValue cellValue, long timeBudgetMillis, int maxDepth) {
+		long start = System.currentTimeMillis();
+		startSearch(start + timeBudgetMillis);
+		if (transpositionTable != null) {
+			transpositionTable.newSearch();
+		}
+		// the root moves are filtered by the forbidden moves of this position's black
+		updateBlack(cellValue);
+		int count = generateMoves(0, cellValue);
+		if (count == 0) {
+			throw new ComputerTurnException("All cells are filled! Please check draw state");
+		}
+		long threatNodes = getThreatNodes();
+		setThreatDeadline(start + timeBudgetMillis / 2);
+		int threatMove = findThreatWin(cellValue);
+		if (threatMove != ThreatSearch.NO_MOVE) {
+			return new SearchResult(new Cell(threatMove / size, threatMove % size), WIN_SCORE - MAX_PLY, 0,
+					getThreatNodes() - threatNodes, System.currentTimeMillis() - start);
+		}
+		count = filterThreatDefences(cellValue, moves[0], count);
+		threatNodes = getThreatNodes() - threatNodes;
+		int[] rootMoves = moves[0];
+		int bestMove = rootMoves[0];
+		int bestScore = 0;
+		int completedDepth = 0;
+		for (int depth = 1; depth <= maxDepth; depth++) {
+			int alpha = -INFINITY;
+			int iterationBest = -1;
+			for (int i = 0; i < count; i++) {
+				int score = searchMove(rootMoves[i], cellValue, depth, alpha, INFINITY);
+				if (aborted) {
+					break;
+				}
+				if (score > alpha) {
+					alpha = score;
+					iterationBest = i;
+				}
+			}
+			if (aborted) {
+				break;
+			}
+			bestMove = rootMoves[iterationBest];
+			bestScore = alpha;
+			completedDepth = depth;
+			abortable = true;
+			System.arraycopy(rootMoves, 0, rootMoves, 1, iterationBest);
+			rootMoves[0] = bestMove;
+			if (isWinScore(bestScore)) {
+				break;
+			}
+		}
+		return new SearchResult(new Cell(bestMove / size, bestMove % size), bestScore, completedDepth,
+				nodes + threatNodes, System.currentTimeMillis() - start,
+				getPrincipalVariation(bestMove, cellValue, completedDepth));
+	}
+
+	@Override
+	public void setRenjuRules(boolean enabled) {
+		if (enabled && renjuRules == null) {
+			renjuRules = new RenjuRules(playingField);
+		} else if (!enabled && renjuRules != null) {
+			renjuRules.detach();
+			renjuRules = null;
+		}
+		threatSearch.setRenjuRules(renjuRules);
+	}
+
+	@Override
+	public void detach() {
+		threatSearch.detach();
+		if (renjuRules != null) {
+			renjuRules.detach();
+		}
+	}
+
+	boolean isRenjuRules() {
+		return renjuRules != null;
+	}
+
+	/**
+	 * Black is fixed for the whole search by the stone counts of the root position.
+	 */
+	void updateBlack(CellValue sideToMove) {
+		if (renjuRules != null) {
+			renjuRules.setBlack(renjuRules.findBlack(sideToMove));
+		}
+	}
+
+	void startSearch(long deadline) {
+		this.deadline = deadline;
+		nodes = 0;
+		abortable = false;
+		aborted = false;
+	}
+
+	void setAbortable(boolean abortable) {
+		this.abortable = abortable;
+	}
+
+	boolean isAborted() {
+		return aborted;
+	}
+
+	long getNodes() {
+		return nodes;
+	}
+
+	long getThreatNodes() {
+		return threatSearch.getNodes();
+	}
+
+	int[] getRootMoves(CellValue cellValue) {
+		int count = generateMoves(0, cellValue);
+		return Arrays.copyOf(moves[0], count);
+	}
+
+	void setThreatDeadline(long deadline) {
+		threatSearch.setDeadline(deadline);
+	}
+
+	int findThreatWin(CellValue cellValue) {
+		return threatSearch.findVct(cellValue);
+	}
+
+	/**
+	 * When the opponent threatens a forced win, keeps only the moves after which the threat search can't prove it any
+	 * more. Moves left unchecked once the node budget is spent are kept, and so are all moves if none of them defends.
+	 */
+	int filterThreatDefences(CellValue cellValue, int[] rootMoves, int count) {
+		CellValue opponent = opponent(cellValue);
+		boolean vcf = threatSearch.findVcf(opponent) != ThreatSearch.NO_MOVE;
+		if (!vcf && threatSearch.findVct(opponent) == ThreatSearch.NO_MOVE) {
+			return count;
+		}
+		long budget = threatSearch.getNodes() + DEFENCE_NODE_BUDGET;
+		int defences = 0;
+		for (int i = 0; i < count; i++) {
+			int move = rootMoves[i];
+			boolean refuted = false;
+			if (threatSearch.getNodes() < budget) {
+				makeMove(move, cellValue);
+				refuted = vcf ? threatSearch.findVcf(opponent) != ThreatSearch.NO_MOVE
+						: threatSearch.findVct(opponent) != ThreatSearch.NO_MOVE;
+				playingField.unmakeMove();
+			}
+			if (!refuted) {
+				rootMoves[defences++] = move;
+			}
+		}
+		return defences > 0 ? defences : count;
+	}
+
+	/**
+	 * Follows the best moves stored in the transposition table from the root. The variation stops at a five, at a
+	 * missing entry and at a move that can't be played any more.
+	 */
+	List<Cell> getPrincipalVariation(int bestMove, CellValue cellValue, int maxLength) {
+		List<Cell> variation = new ArrayList<>();
+		int move = bestMove;
+		CellValue mover = cellValue;
+		while (true) {
+			variation.add(new Cell(move / size, move % size));
+			makeMove(move, mover);
+			if (variation.size() >= maxLength || transpositionTable == null || isFive(move, mover)) {
+				break;
+			}
+			mover = opponent(mover);
+			long entry = transpositionTable.probe(sideHashKey(mover));
+			if (entry == TranspositionTable.NO_ENTRY) {
+				break;
+			}
+			move = TranspositionTable.getMove(entry);
+			if (move == TranspositionTable.NO_MOVE || !playingField.isCellFree(move / size, move % size)) {
+				break;
+			}
+		}
+		for (int i = 0; i < variation.size(); i++) {
+			playingField.unmakeMove();
+		}
+		return variation;
+	}
+
+	int searchMove(int move, CellValue cellValue, int depth, int alpha, int beta) {
+		int score;
+		makeMove(move, cellValue);
+		if (isFive(move, cellValue)) {
+			score = WIN_SCORE - 1;
+		} else {
+			score = -negamax(depth - 1, -beta, -alpha, opponent(cellValue), 1);
+		}
+		playingField.unmakeMove();
+		return score;
+	}
+
+	static boolean isWinScore(int score) {
+		return Math.abs(score) >= WIN_SCORE - MAX_PLY;
+	}
+
+	protected int negamax(int depth, int alpha, int beta, CellValue cellValue, int ply) {
+		if ((++nodes & 1023) == 0) {
+			checkTime();
+		}
+		if (aborted) {
+			return 0;
+		}
+		if (depth == 0 || ply >= MAX_PLY - 1) {
+			return evaluate(cellValue);
+		}
+		long hashKey = sideHashKey(cellValue);
+		int hashMove = TranspositionTable.NO_MOVE;
+		if (transpositionTable != null) {
+			long entry = transpositionTable.probe(hashKey);
+			if (entry != TranspositionTable.NO_ENTRY) {
+				hashMove = TranspositionTable.getMove(entry);
+				if (TranspositionTable.getDepth(entry) >= depth) {
+					int score = fromTableScore(TranspositionTable.getScore(entry), ply);
+					int bound = TranspositionTable.getBound(entry);
+					if (bound == TranspositionTable.EXACT
+							|| bound == TranspositionTable.LOWER_BOUND && score >= beta
+							|| bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+						return score;
+					}
+				}
+			}
+		}
+		int count = generateMoves(ply, cellValue);
+		if (count == 0) {
+			return 0;
+		}
+		if (hashMove != TranspositionTable.NO_MOVE) {
+			moveToFront(ply, count, hashMove);
+		}
+		count = Math.min(count, MAX_BRANCHING);
+		CellValue opponent = opponent(cellValue);
+		int originalAlpha = alpha;
+		int best = -INFINITY;
+		int bestMove = TranspositionTable.NO_MOVE;
+		for (int i = 0; i < count; i++) {
+			int move = moves[ply][i];
+			int score;
+			makeMove(move, cellValue);
+			if (isFive(move, cellValue)) {
+				score = WIN_SCORE - ply - 1;
+			} else {
+				score = -negamax(depth - 1, -beta, -alpha, opponent, ply + 1);
+			}
+			playingField.unmakeMove();
+			if (aborted) {
+				return 0;
+			}
+			if (score > best) {
+				best = score;
+				bestMove = move;
+				if (score > alpha) {
+					alpha = score;
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+		if (transpositionTable != null) {
+			int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+					: best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+			transpositionTable.store(hashKey, toTableScore(best, ply), depth, bound, bestMove);
+		}
+		return best;
+	}
+
+	private void moveToFront(int ply, int count, int move) {
+		int[] plyMoves = moves[ply];
+		for (int i = 0; i < count; i++) {
+			if (plyMoves[i] == move) {
+				System.arraycopy(plyMoves, 0, plyMoves, 1, i);
+				plyMoves[0] = move;
+				return;
+			}
+		}
+	}
+
+	private long sideHashKey(CellValue cellValue) {
+		long hashKey = playingField.getHashKey();
+		return cellValue == CellValue.COMPUTER ? ~hashKey : hashKey;
+	}
+
+	private static int toTableScore(int score, int ply) {
+		if (score >= WIN_SCORE - MAX_PLY) {
+			return score + ply;
+		} else if (score <= -WIN_SCORE + MAX_PLY) {
+			return score - ply;
+		}
+		return score;
+	}
+
+	private static int fromTableScore(int score, int ply) {
+		if (score >= WIN_SCORE - MAX_PLY) {
+			return score - ply;
+		} else if (score <= -WIN_SCORE + MAX_PLY) {
+			return score + ply;
+		}
+		return score;
+	}
+
+	protected int evaluate(CellValue cellValue) {
+		return Math.max(-MAX_EVALUATION, Math.min(MAX_EVALUATION, patternEvaluator.evaluate(cellValue)));
+	}
+
+	protected int generateMoves(int ply, CellValue cellValue) {
+		if (moves[ply] == null) {
+			moves[ply] = new int[Math.max(INITIAL_MOVES_CAPACITY, moveGenerator.getCandidateCount())];
+			moveScores[ply] = new int[moves[ply].length];
+		} else if (moves[ply].length < moveGenerator.getCandidateCount()) {
+			int capacity = Math.max(moves[ply].length * 2, moveGenerator.getCandidateCount());
+			moves[ply] = new int[capacity];
+			moveScores[ply] = new int[capacity];
+		}
+		int[] plyMoves = moves[ply];
+		int[] plyScores = moveScores[ply];
+		if (moveGenerator.getStoneCount() == 0) {
+			plyMoves[0] = (size / 2) * size + size / 2;
+			return 1;
+		}
+		int candidateCount = moveGenerator.fillCandidates(plyMoves);
+		int count = 0;
+		for (int i = 0; i < candidateCount; i++) {
+			int move = plyMoves[i];
+			if (renjuRules != null && renjuRules.isForbidden(move, cellValue)) {
+				continue;
+			}
+			int score = patternEvaluator.getMoveScore(move, cellValue);
+			int k = count++;
+			while (k > 0 && plyScores[k - 1] < score) {
+				plyMoves[k] = plyMoves[k - 1];
+				plyScores[k] = plyScores[k - 1];
+				k--;
+			}
+			plyMoves[k] = move;
+			plyScores[k] = score;
+		}
+		return count;
+	}
+
+	protected boolean isFive(int move, CellValue cellValue) {
+		return patternEvaluator.isFive(move, cellValue);
+	}
+
+	private void makeMove(int move, CellValue cellValue) {
+		playingField.makeMove(move / size, move % size, cellValue);
+	}
+
+	private void checkTime() {
+		if (abortable && System.currentTimeMillis() >= deadline || Thread.currentThread().isInterrupted()) {
+			aborted = true;
+		}
+	}
+
+	static CellValue opponent(CellValue cellValue) {
+		return cellValue == CellValue.HUMAN ? CellValue.COMPUTER : CellValue.HUMAN;
+	}
+}
@@ -0,0 +1,102 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+
+public class BitboardPlayingField extends AbstractPlayingField {
+	private static final int HUMAN_INDEX = 0;
+	private static final int COMPUTER_INDEX = 1;
+	private final int size;
+	private final long[][] bits;
+	private int stoneCount;
+
+	public BitboardPlayingField() {
+		this(GameConfiguration.DEFAULT);
+	}
+
+	public BitboardPlayingField(GameConfiguration configuration) {
+		super(configuration);
+		size = configuration.getSize();
+		bits = new long[2][(size * size + 63) >>> 6];
+		reInitialize();
+	}
+
+	@Override
+	public CellValue getValue(int rowIndex, int columnIndex) {
+		checkIndexes(rowIndex, columnIndex);
+		int index = rowIndex * size + columnIndex;
+		long mask = 1L << index;
+		if ((bits[HUMAN_INDEX][index >>> 6] & mask) != 0) {
+			return CellValue.HUMAN;
+		} else if ((bits[COMPUTER_INDEX][index >>> 6] & mask) != 0) {
+			return CellValue.COMPUTER;
+		} else {
+			return CellValue.EMPTY;
+		}
+	}
+
+	@Override
+	public void setValue(int rowIndex, int columnIndex, CellValue cellValue) {
+		Objects.requireNonNull(cellValue, "Cell value can't be null");
+		CellValue oldValue = getValue(rowIndex, columnIndex);
+		if (oldValue == cellValue) {
+			return;
+		}
+		if (oldValue != CellValue.EMPTY) {
+			updateStone(rowIndex, columnIndex, sideIndex(oldValue), -1);
+		}
+		if (cellValue != CellValue.EMPTY) {
+			updateStone(rowIndex, columnIndex, sideIndex(cellValue), 1);
+		}
+		valueChanged(rowIndex, columnIndex, oldValue, cellValue);
+	}
+
+	@Override
+	public void reInitialize() {
+		for (int i = 0; i < 2; i++) {
+			Arrays.fill(bits[i], 0L);
+		}
+		stoneCount = 0;
+		reInitialized();
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public boolean isCellFree(int rowIndex, int columnIndex) {
+		checkIndexes(rowIndex, columnIndex);
+		int index = rowIndex * size + columnIndex;
+		return ((bits[HUMAN_INDEX][index >>> 6] | bits[COMPUTER_INDEX][index >>> 6]) & (1L << index)) == 0;
+	}
+
+	@Override
+	public boolean isEmptyCellExists() {
+		return stoneCount < size * size;
+	}
+
+	public int getStoneCount() {
+		return stoneCount;
+	}
+
+	private void updateStone(int rowIndex, int columnIndex, int side, int delta) {
+		int index = rowIndex * size + columnIndex;
+		bits[side][index >>> 6] ^= 1L << index;
+		stoneCount += delta;
+	}
+
+	private static int sideIndex(CellValue cellValue) {
+		if (cellValue == CellValue.HUMAN) {
+			return HUMAN_INDEX;
+		} else if (cellValue == CellValue.COMPUTER) {
+			return COMPUTER_INDEX;
+		} else {
+			throw new IllegalArgumentException("Stone value expected: " + cellValue);
+		}
+	}
+}
@@ -1,9 +1,5 @@
 package com.darsavelidze.renju.impl;
 
-import static com.darsavelidze.renju.impl.DefaultConstants.WIN_COUNT;
-
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 import java.util.Random;
 
@@ -15,25 +11,43 @@ import com.darsavelidze.renju.CellValue;
 import com.darsavelidze.renju.ComputerTurn;
 import com.darsavelidze.renju.PlayingField;
 
-public class DefaultComputerTurn implements ComputerTurn {
+public class DefaultComputerTurn implements ComputerTurn, Traceable {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultComputerTurn.class);
+	private static final int NO_WINDOW = -1;
 	private PlayingField playingField;
+	private MoveGenerator moveGenerator;
+	private OccupiedCells occupiedCells;
+	private ThreatSearch threatSearch;
+	private int winCount;
 	private Random random = new Random();
+	private EngineTracer tracer;
 
 	@Override
 	public void setPlayingField(PlayingField playingField) {
 		Objects.requireNonNull(playingField, "Playing field can't be null");
-		if (playingField.getSize() < WIN_COUNT) {
-			throw new IllegalArgumentException("Size of playing field is small: size = " + playingField.getSize()
-					+ ". Minimum requirement: " + WIN_COUNT);
+		if (moveGenerator != null) {
+			moveGenerator.detach();
+			occupiedCells.detach();
+		}
+		if (threatSearch != null) {
+			threatSearch.detach();
 		}
 		this.playingField = playingField;
+		this.winCount = playingField.getConfiguration().getWinCount();
+		this.moveGenerator = new MoveGenerator(playingField);
+		this.occupiedCells = new OccupiedCells(playingField);
+		this.threatSearch = winCount <= LinePatterns.MAX_WIN_COUNT ? new ThreatSearch(playingField) : null;
+	}
+
+	@Override
+	public void setTracer(EngineTracer tracer) {
+		this.tracer = tracer;
 	}
 
 	@Override
 	public Cell makeTurn() {
 		CellValue[] figures = { CellValue.COMPUTER, CellValue.HUMAN };
-		for (int i = WIN_COUNT - 1; i > 0; i--) {
+		for (int i = winCount - 1; i > 0; i--) {
 			for (CellValue cellValue : figures) {
 				Cell cell = tryMakeTurn(cellValue, i);
 				if (cell != null) {
@@ -41,23 +55,51 @@ public class DefaultComputerTurn implements ComputerTurn {
 					return cell;
 				}
 			}
+			if (i == winCount - 1 && threatSearch != null) {
+				Cell cell = tryMakeThreatTurn();
+				if (cell != null) {
+					return cell;
+				}
+			}
 		}
 		return makeRandomTurn();
 	}
 
+	protected Cell tryMakeThreatTurn() {
+		int move = threatSearch.findVct(CellValue.COMPUTER);
+		if (move == ThreatSearch.NO_MOVE) {
+			// take the first cell of the human's continuous-four win
+			move = threatSearch.findVcf(CellValue.HUMAN);
+		}
+		if (move == ThreatSearch.NO_MOVE) {
+			return null;
+		}
+		int size = playingField.getSize();
+		Cell cell = new Cell(move / size, move % size);
+		playingField.makeMove(cell.getRowIndex(), cell.getColumnIndex(), CellValue.COMPUTER);
+		if (tracer != null) {
+			tracer.recordThreatMove(move);
+		}
+		LOGGER.info("Computer threat turn is {}", cell);
+		return cell;
+	}
+
 	@Override
 	public Cell makeFirstTurn() {
 		Cell cell = new Cell(playingField.getSize() / 2, playingField.getSize() / 2);
-		playingField.setValue(cell.getRowIndex(), cell.getColumnIndex(), CellValue.COMPUTER);
+		playingField.makeMove(cell.getRowIndex(), cell.getColumnIndex(), CellValue.COMPUTER);
 		LOGGER.info("Computer first turn: {}", cell);
 		return cell;
 	}
 
 	protected Cell makeRandomTurn() {
-		List<Cell> emptyCells = getAllEmptyCells();
-		if (emptyCells.size() > 0) {
-			Cell randomCell = emptyCells.get(random.nextInt(emptyCells.size()));
-			playingField.setValue(randomCell.getRowIndex(), randomCell.getColumnIndex(), CellValue.COMPUTER);
+		Cell randomCell = getRandomCandidateCell();
+		if (randomCell != null) {
+			playingField.makeMove(randomCell.getRowIndex(), randomCell.getColumnIndex(), CellValue.COMPUTER);
+			if (tracer != null) {
+				int size = playingField.getSize();
+				tracer.recordRandomMove(randomCell.getRowIndex() * size + randomCell.getColumnIndex());
+			}
 			LOGGER.info("Computer random turn: {}", randomCell);
 			return randomCell;
 		} else {
@@ -65,39 +107,46 @@ public class DefaultComputerTurn implements ComputerTurn {
 		}
 	}
 
-	protected List<Cell> getAllEmptyCells() {
-		List<Cell> emptyCells = new ArrayList<>();
-		for (int i = 0; i < playingField.getSize(); i++) {
-			for (int j = 0; j < playingField.getSize(); j++) {
-				if (playingField.isCellFree(i, j)) {
-					emptyCells.add(new Cell(i, j));
-				}
-			}
+	protected Cell getRandomCandidateCell() {
+		int size = playingField.getSize();
+		if (moveGenerator.getCandidateCount() > 0) {
+			int index = moveGenerator.getCandidate(random.nextInt(moveGenerator.getCandidateCount()));
+			return new Cell(index / size, index % size);
+		} else if (moveGenerator.getStoneCount() == 0) {
+			return new Cell(size / 2, size / 2);
 		}
-		return emptyCells;
+		return null;
 	}
 
 	protected Cell tryMakeTurn(CellValue cellValue, int notBlankCount) {
-		LOGGER.trace("AI trying to make turn by row pattern: {} empty and {} not empty cells for {}",
-				WIN_COUNT - notBlankCount, notBlankCount, cellValue);
+		if (LOGGER.isTraceEnabled()) {
+			LOGGER.trace("AI trying to make turn by row pattern: {} empty and {} not empty cells for {}",
+					winCount - notBlankCount, notBlankCount, cellValue);
+		}
 		Cell cell = tryMakeTurnInRows(cellValue, notBlankCount);
 		if (cell != null) {
 			return cell;
 		}
-		LOGGER.trace("AI trying to make turn by column pattern: {} empty and {} not empty cells for {}",
-				WIN_COUNT - notBlankCount, notBlankCount, cellValue);
+		if (LOGGER.isTraceEnabled()) {
+			LOGGER.trace("AI trying to make turn by column pattern: {} empty and {} not empty cells for {}",
+					winCount - notBlankCount, notBlankCount, cellValue);
+		}
 		cell = tryMakeTurnInColumns(cellValue, notBlankCount);
 		if (cell != null) {
 			return cell;
 		}
-		LOGGER.trace("AI trying to make turn by main diagonal pattern: {} empty and {} not empty cells for {}",
-				WIN_COUNT - notBlankCount, notBlankCount, cellValue);
+		if (LOGGER.isTraceEnabled()) {
+			LOGGER.trace("AI trying to make turn by main diagonal pattern: {} empty and {} not empty cells for {}",
+					winCount - notBlankCount, notBlankCount, cellValue);
+		}
 		cell = tryMakeTurnInMainDiagonals(cellValue, notBlankCount);
 		if (cell != null) {
 			return cell;
 		}
-		LOGGER.trace("AI trying to make turn by not main diagonal pattern: {} empty and {} not empty cells for {}",
-				WIN_COUNT - notBlankCount, notBlankCount, cellValue);
+		if (LOGGER.isTraceEnabled()) {
+			LOGGER.trace("AI trying to make turn by not main diagonal pattern: {} empty and {} not empty cells for {}",
+					winCount - notBlankCount, notBlankCount, cellValue);
+		}
 		cell = tryMakeTurnInNotMainDiagonals(cellValue, notBlankCount);
 		if (cell != null) {
 			return cell;
@@ -106,170 +155,150 @@ public class DefaultComputerTurn implements ComputerTurn {
 	}
 
 	protected Cell tryMakeTurnInRows(CellValue cellValue, int notBlankCount) {
-		for (int i = 0; i < playingField.getSize(); i++) {
-			for (int j = 0; j <= playingField.getSize() - WIN_COUNT; j++) {
-				boolean hasEmptyCells = false;
-				int count = 0;
-				List<Cell> inspectedCells = new ArrayList<>(WIN_COUNT);
-				for (int k = 0; k < WIN_COUNT; k++) {
-					inspectedCells.add(new Cell(i, j + k));
-					if (playingField.getValue(i, j + k) == cellValue) {
-						count++;
-					} else if (playingField.getValue(i, j + k) == CellValue.EMPTY) {
-						hasEmptyCells = true;
-					} else {
-						hasEmptyCells = false;
-						break;
-					}
-				}
-				if (count == notBlankCount && hasEmptyCells) {
-					LOGGER.debug("Found {} empty and {} not empty cells by row: {} {}", WIN_COUNT - count, count,
-							inspectedCells, new LoggerPattern(inspectedCells));
-					return makeTurnToOneCellFromDataSet(inspectedCells);
-				}
-			}
-		}
-		return null;
+		return tryMakeTurnInLines(cellValue, notBlankCount, 0, 1, "row");
 	}
 
 	protected Cell tryMakeTurnInColumns(CellValue cellValue, int notBlankCount) {
-		for (int i = 0; i < playingField.getSize(); i++) {
-			for (int j = 0; j <= playingField.getSize() - WIN_COUNT; j++) {
-				boolean hasEmptyCells = false;
-				int count = 0;
-				List<Cell> inspectedCells = new ArrayList<>(WIN_COUNT);
-				for (int k = 0; k < WIN_COUNT; k++) {
-					inspectedCells.add(new Cell(j + k, i));
-					if (playingField.getValue(j + k, i) == cellValue) {
-						count++;
-					} else if (playingField.getValue(j + k, i) == CellValue.EMPTY) {
-						hasEmptyCells = true;
-					} else {
-						hasEmptyCells = false;
-						break;
-					}
-				}
-				if (count == notBlankCount && hasEmptyCells) {
-					LOGGER.debug("Found {} empty and {} not empty cells by col: {} {}", WIN_COUNT - count, count,
-							inspectedCells, new LoggerPattern(inspectedCells));
-					return makeTurnToOneCellFromDataSet(inspectedCells);
-				}
-			}
-		}
-		return null;
+		return tryMakeTurnInLines(cellValue, notBlankCount, 1, 0, "col");
 	}
 
 	protected Cell tryMakeTurnInMainDiagonals(CellValue cellValue, int notBlankCount) {
-		for (int i = 0; i <= playingField.getSize() - WIN_COUNT; i++) {
-			for (int j = 0; j <= playingField.getSize() - WIN_COUNT; j++) {
-				boolean hasEmptyCells = false;
-				int count = 0;
-				List<Cell> inspectedCells = new ArrayList<Cell>(WIN_COUNT);
-				for (int k = 0; k < WIN_COUNT; k++) {
-					inspectedCells.add(new Cell(i + k, j + k));
-					if (playingField.getValue(i + k, j + k) == cellValue) {
-						count++;
-					} else if (playingField.getValue(i + k, j + k) == CellValue.EMPTY) {
-						hasEmptyCells = true;
-					} else {
-						hasEmptyCells = false;
-						break;
-					}
-				}
-				if (count == notBlankCount && hasEmptyCells) {
-					LOGGER.debug("Found {} empty and {} not empty cells by main diagonal: {} {}", WIN_COUNT - count,
-							count, inspectedCells, new LoggerPattern(inspectedCells));
-					return makeTurnToOneCellFromDataSet(inspectedCells);
+		return tryMakeTurnInLines(cellValue, notBlankCount, 1, 1, "main diagonal");
+	}
+
+	protected Cell tryMakeTurnInNotMainDiagonals(CellValue cellValue, int notBlankCount) {
+		return tryMakeTurnInLines(cellValue, notBlankCount, 1, -1, "not main diagonal");
+	}
+
+	protected Cell tryMakeTurnInLines(CellValue cellValue, int notBlankCount, int rowStep, int columnStep,
+			String lineName) {
+		int size = playingField.getSize();
+		int bestOrder = Integer.MAX_VALUE;
+		int bestWindow = NO_WINDOW;
+		for (int n = 0; n < occupiedCells.getCount(cellValue); n++) {
+			int stone = occupiedCells.getStone(cellValue, n);
+			for (int k = 0; k < winCount; k++) {
+				int row = stone / size - k * rowStep;
+				int column = stone % size - k * columnStep;
+				int order = rowStep == 1 && columnStep == 0 ? column * size + row : row * size + column;
+				if (order < bestOrder && isWindowInside(row, column, rowStep, columnStep)
+						&& countInWindow(cellValue, row, column, rowStep, columnStep) == notBlankCount) {
+					bestOrder = order;
+					bestWindow = row * size + column;
 				}
 			}
 		}
-		return null;
+		if (bestWindow == NO_WINDOW) {
+			return null;
+		}
+		if (tracer != null) {
+			tracer.recordWindow(bestWindow, rowStep, columnStep, notBlankCount);
+		}
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Found {} empty and {} not empty cells by {}: {}", winCount - notBlankCount, notBlankCount,
+					lineName, new LoggerPattern(bestWindow, rowStep, columnStep));
+		}
+		return makeTurnInWindow(bestWindow, rowStep, columnStep);
 	}
 
-	protected Cell tryMakeTurnInNotMainDiagonals(CellValue cellValue, int notBlankCount) {
-		for (int i = 0; i <= playingField.getSize() - WIN_COUNT; i++) {
-			for (int j = WIN_COUNT - 1; j < playingField.getSize(); j++) {
-				boolean hasEmptyCells = false;
-				int count = 0;
-				List<Cell> inspectedCells = new ArrayList<>(WIN_COUNT);
-				for (int k = 0; k < WIN_COUNT; k++) {
-					inspectedCells.add(new Cell(i + k, j - k));
-					if (playingField.getValue(i + k, j - k) == cellValue) {
-						count++;
-					} else if (playingField.getValue(i + k, j - k) == CellValue.EMPTY) {
-						hasEmptyCells = true;
-					} else {
-						hasEmptyCells = false;
-						break;
-					}
-				}
-				if (count == notBlankCount && hasEmptyCells) {
-					LOGGER.debug("Found {} empty and {} not empty cells by not main diagonal: {} {}", WIN_COUNT - count,
-							count, inspectedCells, new LoggerPattern(inspectedCells));
-					return makeTurnToOneCellFromDataSet(inspectedCells);
-				}
+	private boolean isWindowInside(int rowIndex, int columnIndex, int rowStep, int columnStep) {
+		int size = playingField.getSize();
+		int lastRow = rowIndex + (winCount - 1) * rowStep;
+		int lastColumn = columnIndex + (winCount - 1) * columnStep;
+		return rowIndex >= 0 && columnIndex >= 0 && columnIndex < size && lastRow < size && lastColumn >= 0
+				&& lastColumn < size;
+	}
 
+	private int countInWindow(CellValue cellValue, int rowIndex, int columnIndex, int rowStep, int columnStep) {
+		int count = 0;
+		for (int k = 0; k < winCount; k++) {
+			CellValue value = playingField.getValue(rowIndex + k * rowStep, columnIndex + k * columnStep);
+			if (value == cellValue) {
+				count++;
+			} else if (value != CellValue.EMPTY) {
+				return -1;
 			}
 		}
-		return null;
+		return count;
 	}
 
-	protected Cell makeTurnToOneCellFromDataSet(List<Cell> inspectedCells) {
-		Cell cell = findEmptyCellForComputerTurn(inspectedCells);
-		playingField.setValue(cell.getRowIndex(), cell.getColumnIndex(), CellValue.COMPUTER);
-		LOGGER.trace("The best cell is {} for pattern {} {}", cell, inspectedCells, new LoggerPattern(inspectedCells));
+	protected Cell makeTurnInWindow(int window, int rowStep, int columnStep) {
+		int emptyCell = findEmptyCellInWindow(window, rowStep, columnStep);
+		int size = playingField.getSize();
+		Cell cell = new Cell(emptyCell / size, emptyCell % size);
+		playingField.makeMove(cell.getRowIndex(), cell.getColumnIndex(), CellValue.COMPUTER);
+		if (tracer != null) {
+			tracer.recordPatternMove(emptyCell);
+		}
+		if (LOGGER.isTraceEnabled()) {
+			LOGGER.trace("The best cell is {} for pattern {}", cell, new LoggerPattern(window, rowStep, columnStep));
+		}
 		return cell;
 	}
 
-	protected Cell findEmptyCellForComputerTurn(List<Cell> cells) {
-		LOGGER.trace("Try to find the best turn by pattern {} {}", cells, new LoggerPattern(cells));
-		for (int i = 0; i < cells.size(); i++) {
-			Cell currentCell = cells.get(i);
-			if (!isCellEmpty(currentCell)) {
+	protected int findEmptyCellInWindow(int window, int rowStep, int columnStep) {
+		if (LOGGER.isTraceEnabled()) {
+			LOGGER.trace("Try to find the best turn by pattern {}", new LoggerPattern(window, rowStep, columnStep));
+		}
+		for (int i = 0; i < winCount; i++) {
+			if (!isCellEmpty(window, i * rowStep, i * columnStep)) {
 				if (i == 0) {
-					if (isCellEmpty(cells.get(i + 1))) {
-						return cells.get(i + 1);
+					if (isCellEmpty(window, rowStep, columnStep)) {
+						return offset(window, rowStep, columnStep);
 					}
-				} else if (i == cells.size() - 1) {
-					if (isCellEmpty(cells.get(i - 1))) {
-						return cells.get(i - 1);
+				} else if (i == winCount - 1) {
+					if (isCellEmpty(window, (i - 1) * rowStep, (i - 1) * columnStep)) {
+						return offset(window, (i - 1) * rowStep, (i - 1) * columnStep);
 					}
 				} else {
 					boolean searchDirectionAsc = random.nextBoolean();
 					int first = searchDirectionAsc ? i + 1 : i - 1;
 					int second = searchDirectionAsc ? i - 1 : i + 1;
-					if (isCellEmpty(cells.get(first))) {
-						return cells.get(first);
-					} else if (isCellEmpty(cells.get(second))) {
-						return cells.get(second);
+					if (isCellEmpty(window, first * rowStep, first * columnStep)) {
+						return offset(window, first * rowStep, first * columnStep);
+					} else if (isCellEmpty(window, second * rowStep, second * columnStep)) {
+						return offset(window, second * rowStep, second * columnStep);
 					}
 				}
 			}
 		}
-		throw new ComputerTurnException("All cells are filled: " + cells);
+		throw new ComputerTurnException("All cells are filled: " + new LoggerPattern(window, rowStep, columnStep));
+	}
+
+	private boolean isCellEmpty(int window, int rowOffset, int columnOffset) {
+		int cell = offset(window, rowOffset, columnOffset);
+		return playingField.getValue(cell / playingField.getSize(), cell % playingField.getSize()) == CellValue.EMPTY;
 	}
 
-	protected boolean isCellEmpty(Cell cell) {
-		return playingField.getValue(cell.getRowIndex(), cell.getColumnIndex()) == CellValue.EMPTY;
+	private int offset(int window, int rowOffset, int columnOffset) {
+		// windows lie inside the board, so the offset never wraps to another row
+		return window + rowOffset * playingField.getSize() + columnOffset;
 	}
 
 	private class LoggerPattern {
-		private final List<Cell> cells;
+		private final int window;
+		private final int rowStep;
+		private final int columnStep;
 
-		LoggerPattern(List<Cell> cells) {
+		LoggerPattern(int window, int rowStep, int columnStep) {
 			super();
-			this.cells = cells;
+			this.window = window;
+			this.rowStep = rowStep;
+			this.columnStep = columnStep;
 		}
 
 		@Override
 		public String toString() {
+			StringBuilder cells = new StringBuilder("[");
 			StringBuilder pattern = new StringBuilder("[");
-			for (Cell cell : cells) {
-				CellValue cellValue = playingField.getValue(cell.getRowIndex(), cell.getColumnIndex());
+			for (int k = 0; k < winCount; k++) {
+				int cell = offset(window, k * rowStep, k * columnStep);
+				int size = playingField.getSize();
+				CellValue cellValue = playingField.getValue(cell / size, cell % size);
+				cells.append(k == 0 ? "" : ", ").append(cell / size).append(':').append(cell % size);
 				pattern.append(cellValue == CellValue.EMPTY ? "*" : cellValue.getValue());
 			}
-			pattern.append("]");
-			return pattern.toString();
+			return cells.append("] ").append(pattern).append("]").toString();
 		}
 	}
 
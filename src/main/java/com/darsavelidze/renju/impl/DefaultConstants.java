@@ -1,7 +0,0 @@
-package com.darsavelidze.renju.impl;
-
-public class DefaultConstants {
-	static final int SIZE = 15;
-	
-	static final int WIN_COUNT = 5;
-}
\ No newline at end of file
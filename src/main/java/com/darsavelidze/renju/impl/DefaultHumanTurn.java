@@ -22,7 +22,7 @@ public class DefaultHumanTurn implements HumanTurn{
 
 	@Override
 	public Cell makeTurn(int rowIndex, int columnIndex) {
-		playingField.setValue(rowIndex, columnIndex, CellValue.HUMAN);
+		playingField.makeMove(rowIndex, columnIndex, CellValue.HUMAN);
 		Cell cell = new Cell(rowIndex, columnIndex);
 		LOGGER.info("Human turn is {}", cell);
 		return cell;
@@ -1,13 +1,21 @@
 package com.darsavelidze.renju.impl;
 
+import java.util.Arrays;
+
 import com.darsavelidze.renju.CellValue;
-import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.GameConfiguration;
 
-public class DefaultPlayingField implements PlayingField {
+public class DefaultPlayingField extends AbstractPlayingField {
 	private final CellValue[][] playingField;
+	private int stoneCount;
 
 	public DefaultPlayingField() {
-		playingField = new CellValue[DefaultConstants.SIZE][DefaultConstants.SIZE];
+		this(GameConfiguration.DEFAULT);
+	}
+
+	public DefaultPlayingField(GameConfiguration configuration) {
+		super(configuration);
+		playingField = new CellValue[configuration.getSize()][configuration.getSize()];
 		reInitialize();
 	}
 
@@ -24,7 +32,16 @@ public class DefaultPlayingField implements PlayingField {
 	@Override
 	public void setValue(int rowIndex, int columnIndex, CellValue cellValue) {
 		if (rowIndex >= 0 && rowIndex < getSize() && columnIndex >= 0 && columnIndex < getSize()) {
-			playingField[rowIndex][columnIndex] = cellValue;
+			CellValue oldValue = playingField[rowIndex][columnIndex];
+			if (oldValue != cellValue) {
+				playingField[rowIndex][columnIndex] = cellValue;
+				if (oldValue == CellValue.EMPTY) {
+					stoneCount++;
+				} else if (cellValue == CellValue.EMPTY) {
+					stoneCount--;
+				}
+				valueChanged(rowIndex, columnIndex, oldValue, cellValue);
+			}
 		} else {
 			throw new IndexOutOfBoundsException("Invalid row or column indexes: rowIndex = " + rowIndex
 					+ ", columnIndex = " + columnIndex + ", size = " + getSize());
@@ -34,15 +51,10 @@ public class DefaultPlayingField implements PlayingField {
 	@Override
 	public void reInitialize() {
 		for (int i = 0; i < getSize(); i++) {
-			for (int j = 0; j < getSize(); j++) {
-				setValue(i, j, CellValue.EMPTY);
-			}
+			Arrays.fill(playingField[i], CellValue.EMPTY);
 		}
-	}
-
-	@Override
-	public int getSize() {
-		return playingField.length;
+		stoneCount = 0;
+		reInitialized();
 	}
 
 	@Override
@@ -52,14 +64,7 @@ public class DefaultPlayingField implements PlayingField {
 
 	@Override
 	public boolean isEmptyCellExists() {
-		for (int i = 0; i < getSize(); i++) {
-			for (int j = 0; j < getSize(); j++) {
-				if (getValue(i, j) == CellValue.EMPTY) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return stoneCount < getSize() * getSize();
 	}
 
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package com.darsavelidze.renju.impl;
 
-import static com.darsavelidze.renju.impl.DefaultConstants.WIN_COUNT;
-
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -18,126 +16,112 @@ import com.darsavelidze.renju.WinnerFinder;
 
 public class DefaultWinnerFinder implements WinnerFinder {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultWinnerFinder.class);
+	private static final int[][] DIRECTIONS = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+	private static final String[] DIRECTION_NAMES = { "row", "column", "main diagonal", "not main diagonal" };
+	private static final GameStatus NO_WINNER = new DefaultGameStatus(null);
+	private static final int NO_STONE = -1;
 	private PlayingField playingField;
+	private OccupiedCells occupiedCells;
+	private int winCount;
 
 	@Override
 	public void setPlayingField(PlayingField playingField) {
 		Objects.requireNonNull(playingField, "Playing field can't be null");
-		if (playingField.getSize() < WIN_COUNT) {
-			throw new IllegalArgumentException("Size of playing field is small: size = " + playingField.getSize()
-					+ ". Minimum requirement: " + WIN_COUNT);
+		if (occupiedCells != null) {
+			occupiedCells.detach();
 		}
 		this.playingField = playingField;
+		this.winCount = playingField.getConfiguration().getWinCount();
+		this.occupiedCells = new OccupiedCells(playingField);
 	}
 
 	@Override
 	public GameStatus isWinnerFound(CellValue cellValue) {
 		Objects.requireNonNull(cellValue, "Cell value can't be null");
-		LOGGER.trace("Try to find winner in rows: is {} winner?", cellValue);
-		List<Cell> resultCells;
-		resultCells = findWinnerInRows(cellValue);
-		if (resultCells != null) {
-			LOGGER.debug("Winner is {}. By row {}", cellValue, resultCells);
-			return new DefaultGameStatus(resultCells);
-		}
-		LOGGER.trace("Try to find winner in columns: is {} winner?", cellValue, resultCells);
-		resultCells = findWinnerInColumns(cellValue);
-		if (resultCells != null) {
-			LOGGER.debug("Winner is {}. By column {}", cellValue, resultCells);
-			return new DefaultGameStatus(resultCells);
-		}
-		LOGGER.trace("Try to find winner in main diagonals: is {} winner?", cellValue, resultCells);
-		resultCells = findWinnerInMainDiagonals(cellValue);
-		if (resultCells != null) {
-			LOGGER.debug("Winner is {}. By main diagonal {}", cellValue, resultCells);
-			return new DefaultGameStatus(resultCells);
-		}
-		LOGGER.trace("Try to find winner in not main diagonals: is {} winner?", cellValue, resultCells);
-		resultCells = findWinnerInNotMainDiagonals(cellValue);
-		if (resultCells != null) {
-			LOGGER.debug("Winner is {}. By not main diagonal {}", cellValue, resultCells);
-			return new DefaultGameStatus(resultCells);
+		for (int i = 0; i < DIRECTIONS.length; i++) {
+			LOGGER.trace("Try to find winner in {}s: is {} winner?", DIRECTION_NAMES[i], cellValue);
+			int start = findWinnerInLines(cellValue, DIRECTIONS[i][0], DIRECTIONS[i][1]);
+			if (start != NO_STONE) {
+				return createWinnerStatus(cellValue, start, winCount, i);
+			}
 		}
 		LOGGER.trace("Winner not found");
-		return new DefaultGameStatus(null);
+		return NO_WINNER;
 	}
 
-	protected List<Cell> findWinnerInRows(CellValue cellValue) {
-		for (int i = 0; i < playingField.getSize(); i++) {
-			List<Cell> checkedCells = new ArrayList<Cell>(WIN_COUNT);
-			for (int j = 0; j < playingField.getSize(); j++) {
-				if (playingField.getValue(i, j) == cellValue) {
-					checkedCells.add(new Cell(i, j));
-					if (checkedCells.size() == WIN_COUNT) {
-						return checkedCells;
-					}
-				} else {
-					checkedCells.clear();
-					if (j > playingField.getSize() - WIN_COUNT) {
-						break;
-					}
+	@Override
+	public GameStatus isWinnerFound(Cell lastTurn) {
+		Objects.requireNonNull(lastTurn, "Last turn can't be null");
+		int rowIndex = lastTurn.getRowIndex();
+		int columnIndex = lastTurn.getColumnIndex();
+		CellValue cellValue = playingField.getValue(rowIndex, columnIndex);
+		if (cellValue != CellValue.EMPTY) {
+			for (int i = 0; i < DIRECTIONS.length; i++) {
+				int rowStep = DIRECTIONS[i][0];
+				int columnStep = DIRECTIONS[i][1];
+				int backward = countInDirection(cellValue, rowIndex, columnIndex, -rowStep, -columnStep);
+				int forward = countInDirection(cellValue, rowIndex, columnIndex, rowStep, columnStep);
+				if (isWinningLength(cellValue, backward + forward + 1)) {
+					int start = (rowIndex - backward * rowStep) * playingField.getSize()
+							+ columnIndex - backward * columnStep;
+					return createWinnerStatus(cellValue, start, backward + forward + 1, i);
 				}
 			}
 		}
-		return null;
+		LOGGER.trace("Winner not found after turn {}", lastTurn);
+		return NO_WINNER;
 	}
 
-	protected List<Cell> findWinnerInColumns(CellValue cellValue) {
-		for (int i = 0; i < playingField.getSize(); i++) {
-			List<Cell> checkedCells = new ArrayList<Cell>(WIN_COUNT);
-			for (int j = 0; j < playingField.getSize(); j++) {
-				if (playingField.getValue(j, i) == cellValue) {
-					checkedCells.add(new Cell(j, i));
-					if (checkedCells.size() == WIN_COUNT) {
-						return checkedCells;
-					}
-				} else {
-					checkedCells.clear();
-					if (j > playingField.getSize() - WIN_COUNT) {
-						break;
-					}
-				}
-			}
+	protected boolean isWinningLength(CellValue cellValue, int length) {
+		return length >= winCount;
+	}
+
+	protected int getWinCount() {
+		return winCount;
+	}
+
+	private GameStatus createWinnerStatus(CellValue cellValue, int start, int length, int direction) {
+		int size = playingField.getSize();
+		List<Cell> winnerCells = new ArrayList<>(length);
+		for (int k = 0; k < length; k++) {
+			winnerCells.add(new Cell(start / size + k * DIRECTIONS[direction][0],
+					start % size + k * DIRECTIONS[direction][1]));
 		}
-		return null;
+		LOGGER.debug("Winner is {}. By {} {}", cellValue, DIRECTION_NAMES[direction], winnerCells);
+		return new DefaultGameStatus(winnerCells);
 	}
 
-	protected List<Cell> findWinnerInMainDiagonals(CellValue cellValue) {
-		for (int i = 0; i <= playingField.getSize() - WIN_COUNT; i++) {
-			for (int j = 0; j <= playingField.getSize() - WIN_COUNT; j++) {
-				List<Cell> checkedCells = new ArrayList<Cell>(WIN_COUNT);
-				for (int k = 0; k < WIN_COUNT; k++) {
-					if (playingField.getValue(i + k, j + k) == cellValue) {
-						checkedCells.add(new Cell(i + k, j + k));
-						if (checkedCells.size() == WIN_COUNT) {
-							return checkedCells;
-						}
-					} else {
-						break;
-					}
-				}
-			}
+	private int countInDirection(CellValue cellValue, int rowIndex, int columnIndex, int rowStep, int columnStep) {
+		int size = playingField.getSize();
+		int count = 0;
+		int row = rowIndex + rowStep;
+		int column = columnIndex + columnStep;
+		while (row >= 0 && row < size && column >= 0 && column < size
+				&& playingField.getValue(row, column) == cellValue) {
+			count++;
+			row += rowStep;
+			column += columnStep;
 		}
-		return null;
+		return count;
 	}
 
-	protected List<Cell> findWinnerInNotMainDiagonals(CellValue cellValue) {
-		for (int i = 0; i <= playingField.getSize() - WIN_COUNT; i++) {
-			for (int j = WIN_COUNT - 1; j < playingField.getSize(); j++) {
-				List<Cell> checkedCells = new ArrayList<Cell>(WIN_COUNT);
-				for (int k = 0; k < WIN_COUNT; k++) {
-					if (playingField.getValue(i + k, j - k) == cellValue) {
-						checkedCells.add(new Cell(i + k, j - k));
-						if (checkedCells.size() == WIN_COUNT) {
-							return checkedCells;
-						}
-					} else {
-						break;
-					}
-				}
+	protected int findWinnerInLines(CellValue cellValue, int rowStep, int columnStep) {
+		int size = playingField.getSize();
+		int bestOrder = Integer.MAX_VALUE;
+		int bestStone = NO_STONE;
+		for (int n = 0; n < occupiedCells.getCount(cellValue); n++) {
+			int stone = occupiedCells.getStone(cellValue, n);
+			int rowIndex = stone / size;
+			int columnIndex = stone % size;
+			int order = rowStep == 1 && columnStep == 0 ? columnIndex * size + rowIndex : stone;
+			if (order < bestOrder && countInDirection(cellValue, rowIndex, columnIndex, -rowStep, -columnStep) == 0
+					&& isWinningLength(cellValue,
+							countInDirection(cellValue, rowIndex, columnIndex, rowStep, columnStep) + 1)) {
+				bestOrder = order;
+				bestStone = stone;
 			}
 		}
-		return null;
+		return bestStone;
 	}
 
 	private static class DefaultGameStatus implements GameStatus {
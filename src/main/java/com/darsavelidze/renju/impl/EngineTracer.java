@@ -0,0 +1,124 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed size ring buffer of engine decisions for one game. Engines hold a {@code null} tracer unless tracing is
+ * enabled for their game, so a disabled tracer costs a single field check. Nothing is allocated when an event is
+ * recorded; events are formatted only when the buffer is dumped. Cells are board indexes, {@code row * size + column}.
+ */
+public class EngineTracer {
+	public static final int DEFAULT_CAPACITY = 1024;
+	private static final String[] DIRECTION_NAMES = { "row", "column", "main diagonal", "not main diagonal" };
+
+	public enum Event {
+		WINDOW, PATTERN_MOVE, THREAT_MOVE, RANDOM_MOVE, SEARCH_MOVE, BOOK_MOVE
+	}
+
+	private final Event[] events;
+	private final int[] cells;
+	private final int[] firstValues;
+	private final int[] secondValues;
+	private final long[] times;
+	private final int boardSize;
+	private final int mask;
+	private long count;
+
+	public EngineTracer(int boardSize) {
+		this(boardSize, DEFAULT_CAPACITY);
+	}
+
+	public EngineTracer(int boardSize, int capacity) {
+		if (boardSize <= 0) {
+			throw new IllegalArgumentException("Board size should be positive: " + boardSize);
+		}
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Capacity should be a positive power of two: " + capacity);
+		}
+		events = new Event[capacity];
+		cells = new int[capacity];
+		firstValues = new int[capacity];
+		secondValues = new int[capacity];
+		times = new long[capacity];
+		this.boardSize = boardSize;
+		mask = capacity - 1;
+	}
+
+	public void recordWindow(int window, int rowStep, int columnStep, int notBlankCount) {
+		int direction = rowStep == 0 ? 0 : columnStep == 0 ? 1 : columnStep == 1 ? 2 : 3;
+		record(Event.WINDOW, window, direction, notBlankCount);
+	}
+
+	public void recordPatternMove(int cell) {
+		record(Event.PATTERN_MOVE, cell, 0, 0);
+	}
+
+	public void recordThreatMove(int cell) {
+		record(Event.THREAT_MOVE, cell, 0, 0);
+	}
+
+	public void recordRandomMove(int cell) {
+		record(Event.RANDOM_MOVE, cell, 0, 0);
+	}
+
+	public void recordSearchMove(int cell, int score, int depth) {
+		record(Event.SEARCH_MOVE, cell, score, depth);
+	}
+
+	public void recordBookMove(int cell, int games) {
+		record(Event.BOOK_MOVE, cell, games, 0);
+	}
+
+	private synchronized void record(Event event, int cell, int firstValue, int secondValue) {
+		int index = (int) count & mask;
+		events[index] = event;
+		cells[index] = cell;
+		firstValues[index] = firstValue;
+		secondValues[index] = secondValue;
+		times[index] = System.currentTimeMillis();
+		count++;
+	}
+
+	public synchronized List<String> dump() {
+		int size = (int) Math.min(count, events.length);
+		List<String> lines = new ArrayList<>(size);
+		for (long n = count - size; n < count; n++) {
+			lines.add(format((int) n & mask));
+		}
+		return lines;
+	}
+
+	public synchronized void clear() {
+		count = 0;
+	}
+
+	public synchronized long getCount() {
+		return count;
+	}
+
+	public int getCapacity() {
+		return events.length;
+	}
+
+	private String format(int index) {
+		StringBuilder line = new StringBuilder();
+		line.append(times[index]).append(' ').append(events[index]).append(' ').append(cells[index] / boardSize)
+				.append(':').append(cells[index] % boardSize);
+		switch (events[index]) {
+		case WINDOW:
+			line.append(" in ").append(DIRECTION_NAMES[firstValues[index]]).append(", stones = ")
+					.append(secondValues[index]);
+			break;
+		case SEARCH_MOVE:
+			line.append(", score = ").append(firstValues[index]).append(", depth = ").append(secondValues[index]);
+			break;
+		case BOOK_MOVE:
+			line.append(", games = ").append(firstValues[index]);
+			break;
+		default:
+			break;
+		}
+		return line.toString();
+	}
+}
@@ -0,0 +1,253 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.darsavelidze.renju.AsyncComputerTurn;
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.PlayingField;
+
+public class ExecutorAsyncComputerTurn implements AsyncComputerTurn {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorAsyncComputerTurn.class);
+	private final ComputerTurn computerTurn;
+	private final Executor resultExecutor;
+	private final ExecutorService executor;
+	private PlayingField playingField;
+	private OccupiedCells occupiedCells;
+	private PlayingField enginePlayingField;
+	private OccupiedCells engineOccupiedCells;
+	private CompletableFuture<Cell> pendingTurn;
+	private boolean pondering;
+	private Future<?> ponderTask;
+	private volatile Cell ponderReply;
+
+	public ExecutorAsyncComputerTurn(ComputerTurn computerTurn, Executor resultExecutor) {
+		this(computerTurn, resultExecutor, Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "computer-turn");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+
+	public ExecutorAsyncComputerTurn(ComputerTurn computerTurn, Executor resultExecutor, ExecutorService executor) {
+		Objects.requireNonNull(computerTurn, "Computer turn can't be null");
+		Objects.requireNonNull(resultExecutor, "Result executor can't be null");
+		Objects.requireNonNull(executor, "Executor can't be null");
+		this.computerTurn = computerTurn;
+		this.resultExecutor = resultExecutor;
+		this.executor = executor;
+	}
+
+	@Override
+	public void setPlayingField(PlayingField playingField) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		cancel();
+		if (occupiedCells != null) {
+			occupiedCells.detach();
+		}
+		this.playingField = playingField;
+		this.occupiedCells = new OccupiedCells(playingField);
+		PlayingField newEnginePlayingField = new BitboardPlayingField(playingField.getConfiguration());
+		OccupiedCells newEngineOccupiedCells = new OccupiedCells(newEnginePlayingField);
+		// the engine field is confined to the executor thread, so it is handed over there
+		executor.execute(() -> {
+			enginePlayingField = newEnginePlayingField;
+			engineOccupiedCells = newEngineOccupiedCells;
+			computerTurn.setPlayingField(newEnginePlayingField);
+		});
+	}
+
+	public boolean isPondering() {
+		return pondering;
+	}
+
+	/**
+	 * Lets a {@link Ponderable} computer turn think on the human's time after each of its turns.
+	 */
+	public void setPondering(boolean pondering) {
+		this.pondering = pondering;
+		if (!pondering) {
+			stopPondering();
+		}
+	}
+
+	@Override
+	public CompletableFuture<Cell> makeTurn() {
+		return submit(false);
+	}
+
+	@Override
+	public CompletableFuture<Cell> makeFirstTurn() {
+		return submit(true);
+	}
+
+	@Override
+	public void cancel() {
+		stopPondering();
+		if (pendingTurn != null) {
+			pendingTurn.cancel(true);
+			pendingTurn = null;
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		cancel();
+		executor.shutdownNow();
+	}
+
+	@Override
+	public boolean isThinking() {
+		return pendingTurn != null && !pendingTurn.isDone();
+	}
+
+	private CompletableFuture<Cell> submit(boolean firstTurn) {
+		if (isThinking()) {
+			throw new ComputerTurnException("Computer is already thinking");
+		}
+		checkPonderHit();
+		Snapshot snapshot = new Snapshot(playingField, occupiedCells);
+		CompletableFuture<Cell> result = new CompletableFuture<>();
+		Future<?> task = executor.submit(() -> {
+			try {
+				snapshot.applyTo(enginePlayingField, engineOccupiedCells);
+				Cell cell = firstTurn ? computerTurn.makeFirstTurn() : computerTurn.makeTurn();
+				resultExecutor.execute(() -> applyTurn(result, cell));
+			} catch (RuntimeException e) {
+				resultExecutor.execute(() -> result.completeExceptionally(e));
+			}
+		});
+		result.whenComplete((cell, e) -> {
+			if (result.isCancelled()) {
+				task.cancel(true);
+			}
+		});
+		pendingTurn = result;
+		return result;
+	}
+
+	private void applyTurn(CompletableFuture<Cell> result, Cell cell) {
+		if (result.isDone()) {
+			LOGGER.debug("Computer turn {} is discarded", cell);
+			return;
+		}
+		playingField.makeMove(cell.getRowIndex(), cell.getColumnIndex(), CellValue.COMPUTER);
+		// pondering is queued before the result is handed over, so a new game started from it cancels pondering
+		startPondering();
+		result.complete(cell);
+	}
+
+	private void startPondering() {
+		if (!pondering || !(computerTurn instanceof Ponderable) || !playingField.isEmptyCellExists()) {
+			return;
+		}
+		Ponderable ponderable = (Ponderable) computerTurn;
+		ponderReply = null;
+		ponderTask = executor.submit(() -> {
+			try {
+				Cell reply = ponderable.predictReply();
+				if (reply != null && !Thread.currentThread().isInterrupted()) {
+					LOGGER.debug("Pondering on human turn {}", reply);
+					ponderReply = reply;
+					ponderable.ponder(reply);
+				}
+			} catch (RuntimeException e) {
+				LOGGER.warn("Pondering failed: {}", e.toString());
+			}
+		});
+	}
+
+	private void checkPonderHit() {
+		if (ponderTask == null) {
+			return;
+		}
+		Cell reply = ponderReply;
+		Cell lastMove = playingField.getLastMove();
+		if (reply != null && lastMove != null && reply.getRowIndex() == lastMove.getRowIndex()
+				&& reply.getColumnIndex() == lastMove.getColumnIndex()) {
+			// the turn is queued behind the ponder search, which finishes within the usual time budget
+			LOGGER.debug("Ponder hit on human turn {}", lastMove);
+			ponderTask = null;
+		} else {
+			LOGGER.debug("Ponder miss, predicted {}, played {}", reply, lastMove);
+			stopPondering();
+		}
+	}
+
+	private void stopPondering() {
+		if (ponderTask != null) {
+			ponderTask.cancel(true);
+			ponderTask = null;
+		}
+	}
+
+	/**
+	 * The stones of the playing field when a turn is submitted. The engine field takes them with makeMove, so its move
+	 * history matches the stones and the last move is the last move of the game.
+	 */
+	private static class Snapshot {
+		private static final int NO_MOVE = -1;
+		private final int[] humanStones;
+		private final int[] computerStones;
+		private final int lastMove;
+
+		Snapshot(PlayingField playingField, OccupiedCells occupiedCells) {
+			humanStones = getSortedStones(occupiedCells, CellValue.HUMAN);
+			computerStones = getSortedStones(occupiedCells, CellValue.COMPUTER);
+			Cell cell = playingField.getLastMove();
+			lastMove = cell == null ? NO_MOVE : cell.getRowIndex() * playingField.getSize() + cell.getColumnIndex();
+		}
+
+		void applyTo(PlayingField target, OccupiedCells targetCells) {
+			if (!containsAll(targetCells, CellValue.HUMAN, humanStones)
+					|| !containsAll(targetCells, CellValue.COMPUTER, computerStones)) {
+				// moves were taken back or a new game was started
+				target.reInitialize();
+			}
+			addMissingStones(target, CellValue.HUMAN, humanStones);
+			addMissingStones(target, CellValue.COMPUTER, computerStones);
+			if (lastMove != NO_MOVE && target.isCellFree(lastMove / target.getSize(), lastMove % target.getSize())) {
+				CellValue cellValue = Arrays.binarySearch(humanStones, lastMove) >= 0 ? CellValue.HUMAN
+						: CellValue.COMPUTER;
+				target.makeMove(lastMove / target.getSize(), lastMove % target.getSize(), cellValue);
+			}
+		}
+
+		private static boolean containsAll(OccupiedCells targetCells, CellValue cellValue, int[] stones) {
+			for (int n = 0; n < targetCells.getCount(cellValue); n++) {
+				if (Arrays.binarySearch(stones, targetCells.getStone(cellValue, n)) < 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void addMissingStones(PlayingField target, CellValue cellValue, int[] stones) {
+			int size = target.getSize();
+			for (int stone : stones) {
+				if (stone != lastMove && target.isCellFree(stone / size, stone % size)) {
+					target.makeMove(stone / size, stone % size, cellValue);
+				}
+			}
+		}
+
+		private static int[] getSortedStones(OccupiedCells occupiedCells, CellValue cellValue) {
+			int[] stones = new int[occupiedCells.getCount(cellValue)];
+			for (int n = 0; n < stones.length; n++) {
+				stones[n] = occupiedCells.getStone(cellValue, n);
+			}
+			Arrays.sort(stones);
+			return stones;
+		}
+	}
+}
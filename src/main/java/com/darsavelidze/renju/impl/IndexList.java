@@ -0,0 +1,42 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Arrays;
+
+/**
+ * Unordered list of cell indexes. The listeners keep their stones in it to undo them on reinitialization instead of
+ * clearing the whole board.
+ */
+final class IndexList {
+	private static final int INITIAL_CAPACITY = 32;
+	private int[] indexes = new int[INITIAL_CAPACITY];
+	private int count;
+
+	void add(int index) {
+		if (count == indexes.length) {
+			indexes = Arrays.copyOf(indexes, count * 2);
+		}
+		indexes[count++] = index;
+	}
+
+	void remove(int index) {
+		// the last placed stone is usually the first one to be removed
+		for (int i = count - 1; i >= 0; i--) {
+			if (indexes[i] == index) {
+				indexes[i] = indexes[--count];
+				return;
+			}
+		}
+	}
+
+	int get(int number) {
+		return indexes[number];
+	}
+
+	int size() {
+		return count;
+	}
+
+	void clear() {
+		count = 0;
+	}
+}
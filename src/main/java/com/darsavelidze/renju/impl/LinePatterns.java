@@ -0,0 +1,174 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.darsavelidze.renju.GameConfiguration;
+
+public class LinePatterns {
+	public static final int EMPTY = 0;
+	public static final int OWN = 1;
+	public static final int BLOCKED = 2;
+	public static final int MAX_WIN_COUNT = 7;
+	private static final LineShape[] SHAPE_VALUES = LineShape.values();
+	private static final Map<Integer, LinePatterns> PATTERNS_BY_WIN_COUNT = new HashMap<>();
+	private final int winCount;
+	private final int radius;
+	private final int length;
+	private final int[] powers;
+	private final byte[] shapes;
+	private final int[] scores;
+
+	private LinePatterns(int winCount) {
+		this.winCount = winCount;
+		radius = winCount - 1;
+		length = 2 * radius;
+		powers = new int[length + 1];
+		powers[0] = 1;
+		for (int i = 1; i <= length; i++) {
+			powers[i] = powers[i - 1] * 3;
+		}
+		shapes = new byte[powers[length]];
+		Arrays.fill(shapes, (byte) -1);
+		scores = new int[shapes.length];
+		for (int code = 0; code < shapes.length; code++) {
+			scores[code] = SHAPE_VALUES[classify(code)].getScore();
+		}
+	}
+
+	public static synchronized LinePatterns forWinCount(int winCount) {
+		if (winCount < GameConfiguration.MIN_WIN_COUNT || winCount > MAX_WIN_COUNT) {
+			throw new IllegalArgumentException("Win count should be between " + GameConfiguration.MIN_WIN_COUNT
+					+ " and " + MAX_WIN_COUNT + ": " + winCount);
+		}
+		LinePatterns patterns = PATTERNS_BY_WIN_COUNT.get(winCount);
+		if (patterns == null) {
+			patterns = new LinePatterns(winCount);
+			PATTERNS_BY_WIN_COUNT.put(winCount, patterns);
+		}
+		return patterns;
+	}
+
+	public LineShape getShape(int code) {
+		return SHAPE_VALUES[shapes[code]];
+	}
+
+	public int getScore(int code) {
+		return scores[code];
+	}
+
+	public int getWinCount() {
+		return winCount;
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+
+	public int getPosition(int offset) {
+		return offset < 0 ? offset + radius : offset + radius - 1;
+	}
+
+	public int getWeight(int offset) {
+		return powers[getPosition(offset)];
+	}
+
+	public int getCodeCount() {
+		return shapes.length;
+	}
+
+	private int classify(int code) {
+		if (shapes[code] >= 0) {
+			return shapes[code];
+		}
+		int[] line = decode(code);
+		LineShape shape;
+		if (isFive(line)) {
+			shape = LineShape.FIVE;
+		} else {
+			int fivePoints = 0;
+			boolean openFour = false;
+			boolean four = false;
+			boolean three = false;
+			for (int i = 0; i < line.length; i++) {
+				if (i != radius && line[i] == EMPTY) {
+					line[i] = OWN;
+					if (isFive(line)) {
+						fivePoints++;
+					}
+					line[i] = EMPTY;
+				}
+			}
+			if (fivePoints == 0) {
+				for (int i = 0; i < line.length; i++) {
+					if (i != radius && line[i] == EMPTY) {
+						LineShape next = SHAPE_VALUES[classify(code + powers[i < radius ? i : i - 1])];
+						openFour |= next == LineShape.OPEN_FOUR;
+						four |= next == LineShape.FOUR;
+						three |= next.isThree();
+					}
+				}
+			}
+			if (fivePoints > 1) {
+				shape = LineShape.OPEN_FOUR;
+			} else if (fivePoints == 1) {
+				shape = LineShape.FOUR;
+			} else if (openFour) {
+				shape = runLength(line) >= winCount - 2 ? LineShape.OPEN_THREE : LineShape.BROKEN_THREE;
+			} else if (four) {
+				shape = LineShape.CLOSED_THREE;
+			} else if (three) {
+				shape = LineShape.TWO;
+			} else if (hasRoomForFive(line)) {
+				shape = LineShape.ONE;
+			} else {
+				shape = LineShape.NONE;
+			}
+		}
+		shapes[code] = (byte) shape.ordinal();
+		return shapes[code];
+	}
+
+	private int[] decode(int code) {
+		int[] line = new int[length + 1];
+		for (int i = 0; i <= length; i++) {
+			if (i == radius) {
+				line[i] = OWN;
+			} else {
+				line[i] = code % 3;
+				code /= 3;
+			}
+		}
+		return line;
+	}
+
+	private boolean isFive(int[] line) {
+		return runLength(line) >= winCount;
+	}
+
+	private int runLength(int[] line) {
+		int from = radius;
+		int to = radius;
+		while (from > 0 && line[from - 1] == OWN) {
+			from--;
+		}
+		while (to < length && line[to + 1] == OWN) {
+			to++;
+		}
+		return to - from + 1;
+	}
+
+	private boolean hasRoomForFive(int[] line) {
+		for (int start = 0; start <= radius; start++) {
+			boolean free = true;
+			for (int i = start; i < start + winCount && free; i++) {
+				free = line[i] != BLOCKED;
+			}
+			if (free) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
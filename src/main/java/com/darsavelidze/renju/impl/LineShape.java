@@ -0,0 +1,24 @@
+package com.darsavelidze.renju.impl;
+
+public enum LineShape {
+	NONE(0), ONE(1), TWO(10), CLOSED_THREE(30), BROKEN_THREE(90), OPEN_THREE(100), FOUR(120), OPEN_FOUR(2000),
+	FIVE(20000);
+
+	private final int score;
+
+	private LineShape(int score) {
+		this.score = score;
+	}
+
+	public int getScore() {
+		return score;
+	}
+
+	public boolean isThree() {
+		return this == OPEN_THREE || this == BROKEN_THREE;
+	}
+
+	public boolean isFour() {
+		return this == FOUR || this == OPEN_FOUR;
+	}
+}
@@ -0,0 +1,180 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.PlayingFieldListener;
+
+/**
+ * Keeps the empty cells near the stones as move candidates. The candidates are a bitset with one summary bit per
+ * nonzero word, so listing them and resetting the generator cost what the stones do, not the board area.
+ */
+public class MoveGenerator implements PlayingFieldListener {
+	public static final int DEFAULT_DISTANCE = 2;
+	private final PlayingField playingField;
+	private final int size;
+	private final int distance;
+	private final int[] neighbourCounts;
+	private final long[] candidates;
+	private final long[] candidateWords;
+	private final IndexList stones = new IndexList();
+	private int candidateCount;
+
+	public MoveGenerator(PlayingField playingField) {
+		this(playingField, DEFAULT_DISTANCE);
+	}
+
+	public MoveGenerator(PlayingField playingField, int distance) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		if (distance <= 0) {
+			throw new IllegalArgumentException("Distance should be positive: " + distance);
+		}
+		this.playingField = playingField;
+		this.size = playingField.getSize();
+		this.distance = distance;
+		neighbourCounts = new int[size * size];
+		candidates = new long[(size * size + 63) >>> 6];
+		candidateWords = new long[(candidates.length + 63) >>> 6];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				if (!playingField.isCellFree(i, j)) {
+					stonePlaced(i, j);
+				}
+			}
+		}
+		playingField.addPlayingFieldListener(this);
+	}
+
+	public void detach() {
+		playingField.removePlayingFieldListener(this);
+	}
+
+	@Override
+	public void valueChanged(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue) {
+		if (oldValue == CellValue.EMPTY) {
+			stonePlaced(rowIndex, columnIndex);
+		} else if (newValue == CellValue.EMPTY) {
+			stoneRemoved(rowIndex, columnIndex);
+		}
+	}
+
+	@Override
+	public void reInitialized() {
+		for (int n = 0; n < stones.size(); n++) {
+			int index = stones.get(n);
+			int lastRow = Math.min(size - 1, index / size + distance);
+			int lastColumn = Math.min(size - 1, index % size + distance);
+			for (int i = Math.max(0, index / size - distance); i <= lastRow; i++) {
+				for (int j = Math.max(0, index % size - distance); j <= lastColumn; j++) {
+					neighbourCounts[i * size + j] = 0;
+				}
+			}
+		}
+		for (int w = 0; w < candidateWords.length; w++) {
+			for (long word = candidateWords[w]; word != 0; word &= word - 1) {
+				candidates[(w << 6) + Long.numberOfTrailingZeros(word)] = 0L;
+			}
+			candidateWords[w] = 0L;
+		}
+		stones.clear();
+		candidateCount = 0;
+	}
+
+	public int getCandidateCount() {
+		return candidateCount;
+	}
+
+	public int getStoneCount() {
+		return stones.size();
+	}
+
+	public int getDistance() {
+		return distance;
+	}
+
+	public boolean isCandidate(int index) {
+		return (candidates[index >>> 6] & (1L << index)) != 0;
+	}
+
+	public int fillCandidates(int[] buffer) {
+		int count = 0;
+		for (int w = 0; w < candidateWords.length; w++) {
+			for (long words = candidateWords[w]; words != 0; words &= words - 1) {
+				int i = (w << 6) + Long.numberOfTrailingZeros(words);
+				for (long word = candidates[i]; word != 0; word &= word - 1) {
+					buffer[count++] = (i << 6) + Long.numberOfTrailingZeros(word);
+				}
+			}
+		}
+		return count;
+	}
+
+	public int getCandidate(int number) {
+		if (number < 0 || number >= candidateCount) {
+			throw new IndexOutOfBoundsException("Invalid candidate number: " + number + ", count = " + candidateCount);
+		}
+		int w = 0;
+		int i = 0;
+		for (long words = candidateWords[0];; words &= words - 1) {
+			while (words == 0) {
+				words = candidateWords[++w];
+			}
+			i = (w << 6) + Long.numberOfTrailingZeros(words);
+			if (number < Long.bitCount(candidates[i])) {
+				break;
+			}
+			number -= Long.bitCount(candidates[i]);
+		}
+		long word = candidates[i];
+		for (int k = 0; k < number; k++) {
+			word &= word - 1;
+		}
+		return (i << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	private void stonePlaced(int rowIndex, int columnIndex) {
+		int index = rowIndex * size + columnIndex;
+		stones.add(index);
+		if (isCandidate(index)) {
+			clearCandidate(index);
+		}
+		for (int i = Math.max(0, rowIndex - distance); i <= Math.min(size - 1, rowIndex + distance); i++) {
+			for (int j = Math.max(0, columnIndex - distance); j <= Math.min(size - 1, columnIndex + distance); j++) {
+				int neighbour = i * size + j;
+				if (neighbour != index && neighbourCounts[neighbour]++ == 0 && playingField.isCellFree(i, j)) {
+					setCandidate(neighbour);
+				}
+			}
+		}
+	}
+
+	private void stoneRemoved(int rowIndex, int columnIndex) {
+		int index = rowIndex * size + columnIndex;
+		stones.remove(index);
+		for (int i = Math.max(0, rowIndex - distance); i <= Math.min(size - 1, rowIndex + distance); i++) {
+			for (int j = Math.max(0, columnIndex - distance); j <= Math.min(size - 1, columnIndex + distance); j++) {
+				int neighbour = i * size + j;
+				if (neighbour != index && --neighbourCounts[neighbour] == 0 && isCandidate(neighbour)) {
+					clearCandidate(neighbour);
+				}
+			}
+		}
+		if (neighbourCounts[index] > 0) {
+			setCandidate(index);
+		}
+	}
+
+	private void setCandidate(int index) {
+		candidates[index >>> 6] |= 1L << index;
+		candidateWords[index >>> 12] |= 1L << (index >>> 6);
+		candidateCount++;
+	}
+
+	private void clearCandidate(int index) {
+		if ((candidates[index >>> 6] &= ~(1L << index)) == 0) {
+			candidateWords[index >>> 12] &= ~(1L << (index >>> 6));
+		}
+		candidateCount--;
+	}
+}
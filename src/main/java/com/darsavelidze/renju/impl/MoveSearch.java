@@ -0,0 +1,14 @@
+package com.darsavelidze.renju.impl;
+
+import com.darsavelidze.renju.CellValue;
+
+public interface MoveSearch {
+	SearchResult search(CellValue cellValue, long timeBudgetMillis, int maxDepth);
+
+	void setRenjuRules(boolean enabled);
+
+	/**
+	 * Stops listening to the playing field, so the search can be dropped when the engine moves to another field.
+	 */
+	void detach();
+}
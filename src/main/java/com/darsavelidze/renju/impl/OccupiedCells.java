@@ -0,0 +1,93 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.PlayingFieldListener;
+
+public class OccupiedCells implements PlayingFieldListener {
+	private static final int HUMAN_INDEX = 0;
+	private static final int COMPUTER_INDEX = 1;
+	private static final int INITIAL_CAPACITY = 32;
+	private final PlayingField playingField;
+	private final int size;
+	private final int[][] stones = new int[2][INITIAL_CAPACITY];
+	private final int[] counts = new int[2];
+
+	public OccupiedCells(PlayingField playingField) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		this.playingField = playingField;
+		this.size = playingField.getSize();
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				CellValue cellValue = playingField.getValue(i, j);
+				if (cellValue != CellValue.EMPTY) {
+					add(sideIndex(cellValue), i * size + j);
+				}
+			}
+		}
+		playingField.addPlayingFieldListener(this);
+	}
+
+	public void detach() {
+		playingField.removePlayingFieldListener(this);
+	}
+
+	@Override
+	public void valueChanged(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue) {
+		int index = rowIndex * size + columnIndex;
+		if (oldValue != CellValue.EMPTY) {
+			remove(sideIndex(oldValue), index);
+		}
+		if (newValue != CellValue.EMPTY) {
+			add(sideIndex(newValue), index);
+		}
+	}
+
+	@Override
+	public void reInitialized() {
+		counts[HUMAN_INDEX] = 0;
+		counts[COMPUTER_INDEX] = 0;
+	}
+
+	public int getCount(CellValue cellValue) {
+		return counts[sideIndex(cellValue)];
+	}
+
+	public int getStone(CellValue cellValue, int number) {
+		int side = sideIndex(cellValue);
+		if (number < 0 || number >= counts[side]) {
+			throw new IndexOutOfBoundsException("Invalid stone number: " + number + ", count = " + counts[side]);
+		}
+		return stones[side][number];
+	}
+
+	private void add(int side, int index) {
+		if (counts[side] == stones[side].length) {
+			stones[side] = Arrays.copyOf(stones[side], counts[side] * 2);
+		}
+		stones[side][counts[side]++] = index;
+	}
+
+	private void remove(int side, int index) {
+		int[] sideStones = stones[side];
+		for (int i = counts[side] - 1; i >= 0; i--) {
+			if (sideStones[i] == index) {
+				sideStones[i] = sideStones[--counts[side]];
+				return;
+			}
+		}
+	}
+
+	private static int sideIndex(CellValue cellValue) {
+		if (cellValue == CellValue.HUMAN) {
+			return HUMAN_INDEX;
+		} else if (cellValue == CellValue.COMPUTER) {
+			return COMPUTER_INDEX;
+		} else {
+			throw new IllegalArgumentException("Stone value expected: " + cellValue);
+		}
+	}
+}
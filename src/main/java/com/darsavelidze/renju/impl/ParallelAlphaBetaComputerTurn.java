@@ -0,0 +1,37 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import com.darsavelidze.renju.PlayingField;
+
+public class ParallelAlphaBetaComputerTurn extends AlphaBetaComputerTurn {
+	private final ForkJoinPool forkJoinPool;
+	private final boolean sharedTranspositionTable;
+
+	public ParallelAlphaBetaComputerTurn(long timeBudgetMillis, ForkJoinPool forkJoinPool) {
+		this(timeBudgetMillis, DEFAULT_MAX_DEPTH, DEFAULT_TRANSPOSITION_TABLE_MEGABYTES, forkJoinPool, true);
+	}
+
+	public ParallelAlphaBetaComputerTurn(long timeBudgetMillis, int maxDepth, int transpositionTableMegabytes,
+			ForkJoinPool forkJoinPool, boolean sharedTranspositionTable) {
+		super(timeBudgetMillis, maxDepth, transpositionTableMegabytes);
+		Objects.requireNonNull(forkJoinPool, "Fork join pool can't be null");
+		this.forkJoinPool = forkJoinPool;
+		this.sharedTranspositionTable = sharedTranspositionTable;
+	}
+
+	@Override
+	protected MoveSearch createSearch(PlayingField playingField) {
+		return new ParallelAlphaBetaSearch(playingField, forkJoinPool,
+				sharedTranspositionTable ? getTranspositionTable() : null, getTranspositionTableMegabytes());
+	}
+
+	public ForkJoinPool getForkJoinPool() {
+		return forkJoinPool;
+	}
+
+	public boolean isSharedTranspositionTable() {
+		return sharedTranspositionTable;
+	}
+}
@@ -0,0 +1,224 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+
+public class ParallelAlphaBetaSearch implements MoveSearch {
+	private final PlayingField playingField;
+	private final OccupiedCells occupiedCells;
+	private final ForkJoinPool forkJoinPool;
+	private final TranspositionTable sharedTranspositionTable;
+	private final int transpositionTableMegabytes;
+	private final Queue<Worker> workers = new ConcurrentLinkedQueue<>();
+	private volatile boolean renjuRules;
+
+	public ParallelAlphaBetaSearch(PlayingField playingField, ForkJoinPool forkJoinPool,
+			TranspositionTable sharedTranspositionTable, int transpositionTableMegabytes) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		Objects.requireNonNull(forkJoinPool, "Fork join pool can't be null");
+		this.playingField = playingField;
+		this.occupiedCells = new OccupiedCells(playingField);
+		this.forkJoinPool = forkJoinPool;
+		this.sharedTranspositionTable = sharedTranspositionTable;
+		this.transpositionTableMegabytes = transpositionTableMegabytes;
+	}
+
+	@Override
+	public SearchResult search(CellValue cellValue, long timeBudgetMillis, int maxDepth) {
+		long start = System.currentTimeMillis();
+		long deadline = start + timeBudgetMillis;
+		if (sharedTranspositionTable != null) {
+			sharedTranspositionTable.newSearch();
+		} else {
+			// no worker is busy between searches, so all of them are in the queue
+			for (Worker idleWorker : workers) {
+				if (idleWorker.transpositionTable != null) {
+					idleWorker.transpositionTable.newSearch();
+				}
+			}
+		}
+		int size = playingField.getSize();
+		Worker worker = acquireWorker();
+		int[] rootMoves;
+		int threatMove;
+		long nodes;
+		try {
+			worker.search.updateBlack(cellValue);
+			rootMoves = worker.search.getRootMoves(cellValue);
+			if (rootMoves.length == 0) {
+				throw new ComputerTurnException("All cells are filled! Please check draw state");
+			}
+			nodes = worker.search.getThreatNodes();
+			worker.search.setThreatDeadline(start + timeBudgetMillis / 2);
+			threatMove = worker.search.findThreatWin(cellValue);
+			if (threatMove == ThreatSearch.NO_MOVE) {
+				rootMoves = Arrays.copyOf(rootMoves,
+						worker.search.filterThreatDefences(cellValue, rootMoves, rootMoves.length));
+			}
+			nodes = worker.search.getThreatNodes() - nodes;
+		} finally {
+			workers.add(worker);
+		}
+		if (threatMove != ThreatSearch.NO_MOVE) {
+			return new SearchResult(new Cell(threatMove / size, threatMove % size),
+					AlphaBetaSearch.WIN_SCORE - AlphaBetaSearch.MAX_PLY, 0, nodes, System.currentTimeMillis() - start);
+		}
+		int bestMove = rootMoves[0];
+		int bestScore = 0;
+		int completedDepth = 0;
+		for (int depth = 1; depth <= maxDepth; depth++) {
+			RootSearch rootSearch = new RootSearch(cellValue, depth, deadline, completedDepth > 0, rootMoves);
+			forkJoinPool.invoke(new RootTask(rootSearch, 0, 1));
+			if (!rootSearch.aborted && rootMoves.length > 1) {
+				forkJoinPool.invoke(new RootTask(rootSearch, 1, rootMoves.length));
+			}
+			nodes += rootSearch.nodes.get();
+			if (rootSearch.aborted) {
+				break;
+			}
+			bestMove = rootMoves[rootSearch.bestIndex];
+			bestScore = rootSearch.alpha;
+			completedDepth = depth;
+			System.arraycopy(rootMoves, 0, rootMoves, 1, rootSearch.bestIndex);
+			rootMoves[0] = bestMove;
+			if (AlphaBetaSearch.isWinScore(bestScore)) {
+				break;
+			}
+		}
+		List<Cell> principalVariation;
+		worker = acquireWorker();
+		try {
+			principalVariation = worker.search.getPrincipalVariation(bestMove, cellValue, completedDepth);
+		} finally {
+			workers.add(worker);
+		}
+		return new SearchResult(new Cell(bestMove / size, bestMove % size), bestScore, completedDepth, nodes,
+				System.currentTimeMillis() - start, principalVariation);
+	}
+
+	@Override
+	public void setRenjuRules(boolean enabled) {
+		renjuRules = enabled;
+	}
+
+	@Override
+	public void detach() {
+		// the workers search on their own playing fields, only the occupied cells listen to the shared one
+		occupiedCells.detach();
+	}
+
+	public int getParallelism() {
+		return forkJoinPool.getParallelism();
+	}
+
+	private Worker acquireWorker() {
+		Worker worker = workers.poll();
+		if (worker == null) {
+			worker = new Worker();
+		}
+		if (worker.playingField.getHashKey() != playingField.getHashKey()) {
+			PlayingFields.synchronize(playingField, occupiedCells, worker.playingField, worker.occupiedCells);
+		}
+		if (worker.search.isRenjuRules() != renjuRules) {
+			worker.search.setRenjuRules(renjuRules);
+		}
+		return worker;
+	}
+
+	private class Worker {
+		private final PlayingField playingField;
+		private final OccupiedCells occupiedCells;
+		private final TranspositionTable transpositionTable;
+		private final AlphaBetaSearch search;
+
+		Worker() {
+			playingField = new BitboardPlayingField(ParallelAlphaBetaSearch.this.playingField.getConfiguration());
+			occupiedCells = new OccupiedCells(playingField);
+			if (sharedTranspositionTable == null && transpositionTableMegabytes > 0) {
+				transpositionTable = new TranspositionTable(transpositionTableMegabytes);
+			} else {
+				transpositionTable = sharedTranspositionTable;
+			}
+			search = new AlphaBetaSearch(playingField, transpositionTable);
+		}
+	}
+
+	private static class RootSearch {
+		private final CellValue cellValue;
+		private final int depth;
+		private final long deadline;
+		private final boolean abortable;
+		private final int[] rootMoves;
+		private final Thread owner = Thread.currentThread();
+		private final AtomicLong nodes = new AtomicLong();
+		private volatile int alpha = -AlphaBetaSearch.INFINITY;
+		private volatile int bestIndex = -1;
+		private volatile boolean aborted;
+
+		RootSearch(CellValue cellValue, int depth, long deadline, boolean abortable, int[] rootMoves) {
+			this.cellValue = cellValue;
+			this.depth = depth;
+			this.deadline = deadline;
+			this.abortable = abortable;
+			this.rootMoves = rootMoves;
+		}
+
+		synchronized void update(int index, int score) {
+			if (score > alpha) {
+				alpha = score;
+				bestIndex = index;
+			}
+		}
+	}
+
+	private class RootTask extends RecursiveAction {
+		private static final long serialVersionUID = 4466307402357291516L;
+		private final RootSearch rootSearch;
+		private final int from;
+		private final int to;
+
+		RootTask(RootSearch rootSearch, int from, int to) {
+			this.rootSearch = rootSearch;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RootTask(rootSearch, from, middle), new RootTask(rootSearch, middle, to));
+			} else if (rootSearch.owner.isInterrupted()) {
+				// the workers don't see the interrupt of the searching thread, so an interrupted search stops here
+				rootSearch.aborted = true;
+			} else if (!rootSearch.aborted) {
+				Worker worker = acquireWorker();
+				try {
+					worker.search.startSearch(rootSearch.deadline);
+					worker.search.updateBlack(rootSearch.cellValue);
+					worker.search.setAbortable(rootSearch.abortable);
+					int score = worker.search.searchMove(rootSearch.rootMoves[from], rootSearch.cellValue,
+							rootSearch.depth, rootSearch.alpha, AlphaBetaSearch.INFINITY);
+					rootSearch.nodes.addAndGet(worker.search.getNodes());
+					if (worker.search.isAborted()) {
+						rootSearch.aborted = true;
+					} else {
+						rootSearch.update(from, score);
+					}
+				} finally {
+					workers.add(worker);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package com.darsavelidze.renju.impl;
+
+import static com.darsavelidze.renju.impl.LinePatterns.BLOCKED;
+import static com.darsavelidze.renju.impl.LinePatterns.OWN;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.PlayingFieldListener;
+
+public class PatternEvaluator implements PlayingFieldListener {
+	public static final int DIRECTION_COUNT = 4;
+	private static final int HUMAN_INDEX = 0;
+	private static final int COMPUTER_INDEX = 1;
+	private static final int[][] DIRECTIONS = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+	private static final int[][] DIGITS = { { 0, OWN, BLOCKED }, { 0, BLOCKED, OWN } };
+	private static final int NO_SIDE = -1;
+	private final PlayingField playingField;
+	private final LinePatterns linePatterns;
+	private final int size;
+	private final int radius;
+	private final int[] weights;
+	private final int[][][] codes;
+	private final int[] sides;
+	private final IndexList stones = new IndexList();
+	private final int[] scores = new int[2];
+
+	public PatternEvaluator(PlayingField playingField) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		this.playingField = playingField;
+		this.linePatterns = LinePatterns.forWinCount(playingField.getConfiguration().getWinCount());
+		this.size = playingField.getSize();
+		this.radius = linePatterns.getRadius();
+		weights = new int[2 * radius + 1];
+		for (int offset = -radius; offset <= radius; offset++) {
+			weights[offset + radius] = offset == 0 ? 0 : linePatterns.getWeight(offset);
+		}
+		codes = new int[2][DIRECTION_COUNT][size * size];
+		sides = new int[size * size];
+		initializeCodes();
+		Arrays.fill(sides, NO_SIDE);
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				CellValue cellValue = playingField.getValue(i, j);
+				if (cellValue != CellValue.EMPTY) {
+					updateCodes(i, j, CellValue.EMPTY, cellValue, false);
+					sides[i * size + j] = sideIndex(cellValue);
+					stones.add(i * size + j);
+				}
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				CellValue cellValue = playingField.getValue(i, j);
+				if (cellValue != CellValue.EMPTY) {
+					scores[sideIndex(cellValue)] += getStoneScore(sideIndex(cellValue), i * size + j);
+				}
+			}
+		}
+		playingField.addPlayingFieldListener(this);
+	}
+
+	public void detach() {
+		playingField.removePlayingFieldListener(this);
+	}
+
+	@Override
+	public void valueChanged(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue) {
+		int index = rowIndex * size + columnIndex;
+		if (oldValue != CellValue.EMPTY) {
+			scores[sides[index]] -= getStoneScore(sides[index], index);
+		}
+		updateCodes(rowIndex, columnIndex, oldValue, newValue, true);
+		sides[index] = newValue == CellValue.EMPTY ? NO_SIDE : sideIndex(newValue);
+		if (oldValue == CellValue.EMPTY) {
+			stones.add(index);
+		} else if (newValue == CellValue.EMPTY) {
+			stones.remove(index);
+		}
+		if (newValue != CellValue.EMPTY) {
+			scores[sides[index]] += getStoneScore(sides[index], index);
+		}
+	}
+
+	private void updateCodes(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue,
+			boolean updateScores) {
+		int humanDelta = DIGITS[HUMAN_INDEX][newValue.ordinal()] - DIGITS[HUMAN_INDEX][oldValue.ordinal()];
+		int computerDelta = DIGITS[COMPUTER_INDEX][newValue.ordinal()] - DIGITS[COMPUTER_INDEX][oldValue.ordinal()];
+		for (int d = 0; d < DIRECTION_COUNT; d++) {
+			int[] humanCodes = codes[HUMAN_INDEX][d];
+			int[] computerCodes = codes[COMPUTER_INDEX][d];
+			for (int offset = -radius; offset <= radius; offset++) {
+				int row = rowIndex - offset * DIRECTIONS[d][0];
+				int column = columnIndex - offset * DIRECTIONS[d][1];
+				if (offset == 0 || row < 0 || row >= size || column < 0 || column >= size) {
+					continue;
+				}
+				int neighbour = row * size + column;
+				int weight = weights[offset + radius];
+				int oldHumanCode = humanCodes[neighbour];
+				int oldComputerCode = computerCodes[neighbour];
+				humanCodes[neighbour] = oldHumanCode + humanDelta * weight;
+				computerCodes[neighbour] = oldComputerCode + computerDelta * weight;
+				if (updateScores && sides[neighbour] == HUMAN_INDEX) {
+					scores[HUMAN_INDEX] += linePatterns.getScore(humanCodes[neighbour]) - linePatterns.getScore(oldHumanCode);
+				} else if (updateScores && sides[neighbour] == COMPUTER_INDEX) {
+					scores[COMPUTER_INDEX] += linePatterns.getScore(computerCodes[neighbour])
+							- linePatterns.getScore(oldComputerCode);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void reInitialized() {
+		// taking the stones back leaves only the board edges in the codes
+		for (int n = 0; n < stones.size(); n++) {
+			int index = stones.get(n);
+			CellValue cellValue = sides[index] == HUMAN_INDEX ? CellValue.HUMAN : CellValue.COMPUTER;
+			updateCodes(index / size, index % size, cellValue, CellValue.EMPTY, false);
+			sides[index] = NO_SIDE;
+		}
+		stones.clear();
+		scores[HUMAN_INDEX] = 0;
+		scores[COMPUTER_INDEX] = 0;
+	}
+
+	private void initializeCodes() {
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				for (int d = 0; d < DIRECTION_COUNT; d++) {
+					int code = 0;
+					for (int offset = -radius; offset <= radius; offset++) {
+						int row = i + offset * DIRECTIONS[d][0];
+						int column = j + offset * DIRECTIONS[d][1];
+						if (offset != 0 && (row < 0 || row >= size || column < 0 || column >= size)) {
+							code += BLOCKED * weights[offset + radius];
+						}
+					}
+					codes[HUMAN_INDEX][d][i * size + j] = code;
+					codes[COMPUTER_INDEX][d][i * size + j] = code;
+				}
+			}
+		}
+	}
+
+	public int evaluate(CellValue cellValue) {
+		int side = sideIndex(cellValue);
+		return scores[side] - scores[1 - side];
+	}
+
+	public int getScore(CellValue cellValue) {
+		return scores[sideIndex(cellValue)];
+	}
+
+	public int getMoveScore(int index, CellValue cellValue) {
+		int side = sideIndex(cellValue);
+		return getStoneScore(side, index) + getStoneScore(1 - side, index);
+	}
+
+	public LineShape getShape(int index, int direction, CellValue cellValue) {
+		return linePatterns.getShape(codes[sideIndex(cellValue)][direction][index]);
+	}
+
+	public boolean isFive(int index, CellValue cellValue) {
+		int side = sideIndex(cellValue);
+		for (int d = 0; d < DIRECTION_COUNT; d++) {
+			if (linePatterns.getShape(codes[side][d][index]) == LineShape.FIVE) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int getStoneScore(int side, int index) {
+		int score = 0;
+		for (int d = 0; d < DIRECTION_COUNT; d++) {
+			score += linePatterns.getScore(codes[side][d][index]);
+		}
+		return score;
+	}
+
+	private static int sideIndex(CellValue cellValue) {
+		if (cellValue == CellValue.HUMAN) {
+			return HUMAN_INDEX;
+		} else if (cellValue == CellValue.COMPUTER) {
+			return COMPUTER_INDEX;
+		} else {
+			throw new IllegalArgumentException("Stone value expected: " + cellValue);
+		}
+	}
+}
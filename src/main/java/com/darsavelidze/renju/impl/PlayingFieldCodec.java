@@ -0,0 +1,201 @@
+package com.darsavelidze.renju.impl;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+
+/**
+ * Binary and text forms of a position. The binary form packs the cells row by row into 2 bits each, four cells per
+ * byte starting from the low bits: 0 is empty, 1 is a human stone and 2 is a computer stone. The text form lists the
+ * rows from the top separated by '/', with X and O for the stones and a number for a run of empty cells, so the
+ * empty 15x15 board is "15/15/.../15". The canonical forms are taken under the symmetry with the smallest Zobrist key,
+ * which all 8 rotations and reflections of a position share.
+ */
+public class PlayingFieldCodec {
+	private static final Symmetry[] SYMMETRIES = Symmetry.values();
+	private static final CellValue[] CELL_VALUES = { CellValue.EMPTY, CellValue.HUMAN, CellValue.COMPUTER };
+	private static final char ROW_SEPARATOR = '/';
+
+	public static int getEncodedLength(int size) {
+		return (size * size + 3) / 4;
+	}
+
+	public static byte[] encode(PlayingField playingField) {
+		return encode(playingField, Symmetry.IDENTITY);
+	}
+
+	/**
+	 * Encodes the position as seen after the symmetry is applied to it.
+	 */
+	public static byte[] encode(PlayingField playingField, Symmetry symmetry) {
+		int size = playingField.getSize();
+		byte[] encoded = new byte[getEncodedLength(size)];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				CellValue cellValue = playingField.getValue(i, j);
+				if (cellValue != CellValue.EMPTY) {
+					int index = symmetry.apply(i, j, size);
+					encoded[index >>> 2] |= getCode(cellValue) << ((index & 3) << 1);
+				}
+			}
+		}
+		return encoded;
+	}
+
+	public static byte[] encodeCanonical(PlayingField playingField) {
+		return encode(playingField, findCanonicalSymmetry(playingField));
+	}
+
+	/**
+	 * Replaces the position of the target with the encoded one. The move history of the target is cleared.
+	 */
+	public static void decode(byte[] encoded, PlayingField target) {
+		int size = target.getSize();
+		int cells = size * size;
+		if (encoded.length != getEncodedLength(size)) {
+			throw new IllegalArgumentException("Encoded position has " + encoded.length + " bytes, expected "
+					+ getEncodedLength(size) + " for size " + size);
+		}
+		for (int n = 0; n < encoded.length; n++) {
+			int b = encoded[n] & 0xFF;
+			// a cell code of 3 has both bits set
+			if ((b & b >>> 1 & 0x55) != 0) {
+				throw new IllegalArgumentException("Invalid cell code in byte " + n + " of encoded position");
+			}
+		}
+		if ((cells & 3) != 0 && (encoded[encoded.length - 1] & 0xFF) >>> ((cells & 3) << 1) != 0) {
+			throw new IllegalArgumentException("Encoded position has stones outside of the board");
+		}
+		target.reInitialize();
+		for (int n = 0; n < encoded.length; n++) {
+			int b = encoded[n] & 0xFF;
+			for (int index = n << 2; b != 0; index++, b >>>= 2) {
+				int code = b & 3;
+				if (code != 0) {
+					target.setValue(index / size, index % size, CELL_VALUES[code]);
+				}
+			}
+		}
+	}
+
+	public static String toText(PlayingField playingField) {
+		int size = playingField.getSize();
+		StringBuilder text = new StringBuilder(size * 3);
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				text.append(ROW_SEPARATOR);
+			}
+			int emptyCells = 0;
+			for (int j = 0; j < size; j++) {
+				CellValue cellValue = playingField.getValue(i, j);
+				if (cellValue == CellValue.EMPTY) {
+					emptyCells++;
+				} else {
+					if (emptyCells > 0) {
+						text.append(emptyCells);
+						emptyCells = 0;
+					}
+					text.append(cellValue.getSymbol());
+				}
+			}
+			if (emptyCells > 0) {
+				text.append(emptyCells);
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Replaces the position of the target with the one in the text form. The move history of the target is cleared.
+	 */
+	public static void fromText(String text, PlayingField target) {
+		int size = target.getSize();
+		byte[] codes = new byte[size * size];
+		int row = 0;
+		int column = 0;
+		for (int n = 0; n < text.length(); n++) {
+			char c = text.charAt(n);
+			if (c == ROW_SEPARATOR) {
+				if (column != size || ++row >= size) {
+					throw new IllegalArgumentException("Invalid row " + (row + 1) + " in position: " + text);
+				}
+				column = 0;
+			} else if (c >= '0' && c <= '9') {
+				int emptyCells = 0;
+				for (; n < text.length() && text.charAt(n) >= '0' && text.charAt(n) <= '9'; n++) {
+					emptyCells = Math.min(emptyCells * 10 + text.charAt(n) - '0', size + 1);
+				}
+				n--;
+				column += emptyCells;
+				if (emptyCells == 0 || column > size) {
+					throw new IllegalArgumentException("Invalid row " + (row + 1) + " in position: " + text);
+				}
+			} else if (c == CellValue.HUMAN.getSymbol() || c == CellValue.COMPUTER.getSymbol()) {
+				if (column >= size) {
+					throw new IllegalArgumentException("Invalid row " + (row + 1) + " in position: " + text);
+				}
+				codes[row * size + column++] = (byte) (c == CellValue.HUMAN.getSymbol() ? 1 : 2);
+			} else {
+				throw new IllegalArgumentException("Invalid character '" + c + "' in position: " + text);
+			}
+		}
+		if (row != size - 1 || column != size) {
+			throw new IllegalArgumentException("Position should have " + size + " rows of " + size + " cells: " + text);
+		}
+		target.reInitialize();
+		for (int index = 0; index < codes.length; index++) {
+			if (codes[index] != 0) {
+				target.setValue(index / size, index % size, CELL_VALUES[codes[index]]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the symmetry that takes the position to its canonical form. A symmetric position has several of them,
+	 * and the first one in the declaration order is returned.
+	 */
+	public static Symmetry findCanonicalSymmetry(PlayingField playingField) {
+		long[] keys = getSymmetryKeys(playingField);
+		int canonical = 0;
+		for (int s = 1; s < keys.length; s++) {
+			if (keys[s] < keys[canonical]) {
+				canonical = s;
+			}
+		}
+		return SYMMETRIES[canonical];
+	}
+
+	/**
+	 * Returns the smallest Zobrist key of the 8 rotations and reflections of the position, the same key a playing
+	 * field holding the canonical form would have.
+	 */
+	public static long getCanonicalHashKey(PlayingField playingField) {
+		long[] keys = getSymmetryKeys(playingField);
+		long canonicalKey = keys[0];
+		for (int s = 1; s < keys.length; s++) {
+			canonicalKey = Math.min(canonicalKey, keys[s]);
+		}
+		return canonicalKey;
+	}
+
+	private static long[] getSymmetryKeys(PlayingField playingField) {
+		int size = playingField.getSize();
+		ZobristKeys zobristKeys = ZobristKeys.forSize(size);
+		long[] keys = new long[SYMMETRIES.length];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				CellValue cellValue = playingField.getValue(i, j);
+				if (cellValue == CellValue.EMPTY) {
+					continue;
+				}
+				for (int s = 0; s < SYMMETRIES.length; s++) {
+					keys[s] ^= zobristKeys.getKey(SYMMETRIES[s].apply(i, j, size), cellValue);
+				}
+			}
+		}
+		return keys;
+	}
+
+	private static int getCode(CellValue cellValue) {
+		return cellValue == CellValue.HUMAN ? 1 : 2;
+	}
+}
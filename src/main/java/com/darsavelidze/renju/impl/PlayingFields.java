@@ -0,0 +1,47 @@
+package com.darsavelidze.renju.impl;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+
+public class PlayingFields {
+	private static final CellValue[] STONES = { CellValue.HUMAN, CellValue.COMPUTER };
+
+	public static void copy(PlayingField source, PlayingField target) {
+		if (!source.getConfiguration().equals(target.getConfiguration())) {
+			throw new IllegalArgumentException("Configurations of playing fields are different: "
+					+ source.getConfiguration() + " and " + target.getConfiguration());
+		}
+		target.reInitialize();
+		for (int i = 0; i < source.getSize(); i++) {
+			for (int j = 0; j < source.getSize(); j++) {
+				CellValue cellValue = source.getValue(i, j);
+				if (cellValue != CellValue.EMPTY) {
+					target.setValue(i, j, cellValue);
+				}
+			}
+		}
+	}
+
+	public static void synchronize(PlayingField source, OccupiedCells sourceCells, PlayingField target,
+			OccupiedCells targetCells) {
+		if (!source.getConfiguration().equals(target.getConfiguration())) {
+			throw new IllegalArgumentException("Configurations of playing fields are different: "
+					+ source.getConfiguration() + " and " + target.getConfiguration());
+		}
+		int size = source.getSize();
+		for (CellValue cellValue : STONES) {
+			for (int n = targetCells.getCount(cellValue) - 1; n >= 0; n--) {
+				int stone = targetCells.getStone(cellValue, n);
+				if (source.getValue(stone / size, stone % size) != cellValue) {
+					target.setValue(stone / size, stone % size, CellValue.EMPTY);
+				}
+			}
+		}
+		for (CellValue cellValue : STONES) {
+			for (int n = 0; n < sourceCells.getCount(cellValue); n++) {
+				int stone = sourceCells.getStone(cellValue, n);
+				target.setValue(stone / size, stone % size, cellValue);
+			}
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.darsavelidze.renju.impl;
+
+import com.darsavelidze.renju.Cell;
+
+/**
+ * An engine that can think on the opponent's time: it searches its answer to the predicted human reply and reuses
+ * the result when the human plays that reply.
+ */
+public interface Ponderable {
+	/**
+	 * Returns the predicted human reply, or null if there is nothing to ponder.
+	 */
+	Cell predictReply();
+
+	/**
+	 * Searches the answer to the reply. The search stops when the thread is interrupted.
+	 */
+	void ponder(Cell reply);
+}
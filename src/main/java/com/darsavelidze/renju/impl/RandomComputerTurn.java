@@ -1,7 +1,5 @@
 package com.darsavelidze.renju.impl;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 import java.util.Random;
 
@@ -12,19 +10,24 @@ import com.darsavelidze.renju.PlayingField;
 
 public class RandomComputerTurn implements ComputerTurn {
 	private PlayingField playingField;
+	private MoveGenerator moveGenerator;
+	private Random random = new Random();
 
 	@Override
 	public void setPlayingField(PlayingField playingField) {
 		Objects.requireNonNull(playingField, "Playing field can't be null");
+		if (moveGenerator != null) {
+			moveGenerator.detach();
+		}
 		this.playingField = playingField;
+		this.moveGenerator = new MoveGenerator(playingField);
 	}
 
 	@Override
 	public Cell makeTurn() {
-		List<Cell> emptyCells = getAllEmptyCells();
-		if (emptyCells.size() > 0) {
-			Cell randomCell = emptyCells.get(new Random().nextInt(emptyCells.size()));
-			playingField.setValue(randomCell.getRowIndex(), randomCell.getColumnIndex(), CellValue.COMPUTER);
+		Cell randomCell = getRandomCandidateCell();
+		if (randomCell != null) {
+			playingField.makeMove(randomCell.getRowIndex(), randomCell.getColumnIndex(), CellValue.COMPUTER);
 			return randomCell;
 		} else {
 			throw new ComputerTurnException("All cells are filled! Please check draw state");
@@ -36,16 +39,15 @@ public class RandomComputerTurn implements ComputerTurn {
 		return makeTurn();
 	}
 
-	protected List<Cell> getAllEmptyCells() {
-		List<Cell> emptyCells = new ArrayList<>();
-		for (int i = 0; i < playingField.getSize(); i++) {
-			for (int j = 0; j < playingField.getSize(); j++) {
-				if (playingField.isCellFree(i, j)) {
-					emptyCells.add(new Cell(i, j));
-				}
-			}
+	protected Cell getRandomCandidateCell() {
+		int size = playingField.getSize();
+		if (moveGenerator.getCandidateCount() > 0) {
+			int index = moveGenerator.getCandidate(random.nextInt(moveGenerator.getCandidateCount()));
+			return new Cell(index / size, index % size);
+		} else if (moveGenerator.getStoneCount() == 0) {
+			return new Cell(random.nextInt(size), random.nextInt(size));
 		}
-		return emptyCells;
+		return null;
 	}
 
 }
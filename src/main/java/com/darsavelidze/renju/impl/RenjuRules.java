@@ -0,0 +1,382 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.PlayingFieldListener;
+
+/**
+ * Forbidden moves of the first player (black) under Renju rules: double-three, double-four and overline. Line codes
+ * around every cell are kept up to date incrementally, so a move with fewer than two threats is cleared by four table
+ * lookups; only a possible double-three places stones to check that its four points are not forbidden themselves.
+ * Those stones are placed in the line codes only, the playing field, its move history and its listeners don't see
+ * them.
+ */
+public class RenjuRules implements PlayingFieldListener {
+	private static final int HUMAN_INDEX = 0;
+	private static final int COMPUTER_INDEX = 1;
+	private static final int[][] DIRECTIONS = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+	private static final int[][] DIGITS = { { 0, LinePatterns.OWN, LinePatterns.BLOCKED },
+			{ 0, LinePatterns.BLOCKED, LinePatterns.OWN } };
+	private static final int WIN_COUNT = GameConfiguration.DEFAULT_WIN_COUNT;
+	// one cell more than the win count on each side, to tell a five from an overline
+	private static final int RADIUS = WIN_COUNT;
+	private static final int LENGTH = 2 * RADIUS;
+	private static final int MAX_RECURSION = 6;
+	private static final byte NONE = 0;
+	private static final byte THREE = 1;
+	private static final byte FOUR = 2;
+	private static final byte DOUBLE_FOUR = 3;
+	private static final byte FIVE = 4;
+	private static final byte OVERLINE = 5;
+	private static final int[] POWERS = new int[LENGTH + 1];
+	private static final byte[] LINE_TYPES;
+	private static final short[] FOUR_POINTS;
+
+	public enum Foul {
+		NONE, DOUBLE_THREE, DOUBLE_FOUR, OVERLINE
+	}
+
+	static {
+		POWERS[0] = 1;
+		for (int i = 1; i <= LENGTH; i++) {
+			POWERS[i] = POWERS[i - 1] * 3;
+		}
+		LINE_TYPES = new byte[POWERS[LENGTH]];
+		FOUR_POINTS = new short[POWERS[LENGTH]];
+		int[] line = new int[LENGTH + 1];
+		for (int code = 0; code < LINE_TYPES.length; code++) {
+			decode(code, line);
+			classify(code, line);
+		}
+	}
+
+	private final PlayingField playingField;
+	private final int size;
+	private final int[][][] codes;
+	private final IndexList[] stones = { new IndexList(), new IndexList() };
+	private CellValue black;
+
+	public RenjuRules(PlayingField playingField) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		int winCount = playingField.getConfiguration().getWinCount();
+		if (winCount != WIN_COUNT) {
+			throw new IllegalArgumentException(
+					"Renju rules are defined for win count " + WIN_COUNT + ": winCount = " + winCount);
+		}
+		this.playingField = playingField;
+		this.size = playingField.getSize();
+		codes = new int[2][DIRECTIONS.length][size * size];
+		initializeCodes();
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				CellValue cellValue = playingField.getValue(i, j);
+				if (cellValue != CellValue.EMPTY) {
+					valueChanged(i, j, CellValue.EMPTY, cellValue);
+				}
+			}
+		}
+		playingField.addPlayingFieldListener(this);
+	}
+
+	public void detach() {
+		playingField.removePlayingFieldListener(this);
+	}
+
+	@Override
+	public void valueChanged(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue) {
+		if (oldValue != CellValue.EMPTY) {
+			stones[sideIndex(oldValue)].remove(rowIndex * size + columnIndex);
+		}
+		if (newValue != CellValue.EMPTY) {
+			stones[sideIndex(newValue)].add(rowIndex * size + columnIndex);
+		}
+		updateCodes(rowIndex, columnIndex, oldValue, newValue);
+	}
+
+	private void updateCodes(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue) {
+		int humanDelta = DIGITS[HUMAN_INDEX][newValue.ordinal()] - DIGITS[HUMAN_INDEX][oldValue.ordinal()];
+		int computerDelta = DIGITS[COMPUTER_INDEX][newValue.ordinal()] - DIGITS[COMPUTER_INDEX][oldValue.ordinal()];
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			for (int offset = -RADIUS; offset <= RADIUS; offset++) {
+				int row = rowIndex - offset * DIRECTIONS[d][0];
+				int column = columnIndex - offset * DIRECTIONS[d][1];
+				if (offset == 0 || row < 0 || row >= size || column < 0 || column >= size) {
+					continue;
+				}
+				int weight = POWERS[position(offset)];
+				codes[HUMAN_INDEX][d][row * size + column] += humanDelta * weight;
+				codes[COMPUTER_INDEX][d][row * size + column] += computerDelta * weight;
+			}
+		}
+	}
+
+	@Override
+	public void reInitialized() {
+		// taking the stones back leaves only the board edges in the codes
+		for (CellValue cellValue : new CellValue[] { CellValue.HUMAN, CellValue.COMPUTER }) {
+			IndexList sideStones = stones[sideIndex(cellValue)];
+			for (int n = 0; n < sideStones.size(); n++) {
+				updateCodes(sideStones.get(n) / size, sideStones.get(n) % size, cellValue, CellValue.EMPTY);
+			}
+			sideStones.clear();
+		}
+	}
+
+	private void initializeCodes() {
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				for (int d = 0; d < DIRECTIONS.length; d++) {
+					int code = 0;
+					for (int offset = -RADIUS; offset <= RADIUS; offset++) {
+						int row = i + offset * DIRECTIONS[d][0];
+						int column = j + offset * DIRECTIONS[d][1];
+						if (offset != 0 && (row < 0 || row >= size || column < 0 || column >= size)) {
+							code += LinePatterns.BLOCKED * POWERS[position(offset)];
+						}
+					}
+					codes[HUMAN_INDEX][d][i * size + j] = code;
+					codes[COMPUTER_INDEX][d][i * size + j] = code;
+				}
+			}
+		}
+	}
+
+	public CellValue getBlack() {
+		return black;
+	}
+
+	/**
+	 * Sets the player whose moves are restricted, {@code null} lifts all restrictions.
+	 */
+	public void setBlack(CellValue black) {
+		if (black == CellValue.EMPTY) {
+			throw new IllegalArgumentException("Stone value expected: " + black);
+		}
+		this.black = black;
+	}
+
+	/**
+	 * Returns black for a game played from the empty board: the side to move if both sides have the same number of
+	 * stones and its opponent otherwise.
+	 */
+	public CellValue findBlack(CellValue sideToMove) {
+		int side = sideIndex(sideToMove);
+		return stones[side].size() == stones[1 - side].size() ? sideToMove : AlphaBetaSearch.opponent(sideToMove);
+	}
+
+	public Foul getFoul(int rowIndex, int columnIndex, CellValue cellValue) {
+		if (cellValue != black || !playingField.isCellFree(rowIndex, columnIndex)) {
+			return Foul.NONE;
+		}
+		return getFoul(rowIndex * size + columnIndex, 0);
+	}
+
+	public boolean isForbidden(int index, CellValue cellValue) {
+		return cellValue == black && getFoul(index, 0) != Foul.NONE;
+	}
+
+	/**
+	 * Returns a bit mask of the directions in which a black stone at the given cell makes a true three, one that can
+	 * become a straight four by a move that is not forbidden. The cell may be empty or hold a black stone.
+	 */
+	public int getThreeDirections(int index, CellValue cellValue) {
+		if (cellValue != black) {
+			return 0;
+		}
+		int[][] blackCodes = codes[sideIndex(black)];
+		int candidates = 0;
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			if (LINE_TYPES[blackCodes[d][index]] == THREE) {
+				candidates |= 1 << d;
+			}
+		}
+		if (candidates == 0) {
+			return 0;
+		}
+		boolean placed = playingField.isCellFree(index / size, index % size);
+		if (placed) {
+			updateCodes(index / size, index % size, CellValue.EMPTY, black);
+		}
+		int threes = 0;
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			if ((candidates & 1 << d) != 0 && isTrueThree(index, d, blackCodes[d][index], 0)) {
+				threes |= 1 << d;
+			}
+		}
+		if (placed) {
+			updateCodes(index / size, index % size, black, CellValue.EMPTY);
+		}
+		return threes;
+	}
+
+	private Foul getFoul(int index, int recursion) {
+		int[][] blackCodes = codes[sideIndex(black)];
+		int fours = 0;
+		int threes = 0;
+		boolean overline = false;
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			switch (LINE_TYPES[blackCodes[d][index]]) {
+			case FIVE:
+				return Foul.NONE;
+			case OVERLINE:
+				overline = true;
+				break;
+			case DOUBLE_FOUR:
+				fours += 2;
+				break;
+			case FOUR:
+				fours++;
+				break;
+			case THREE:
+				threes++;
+				break;
+			default:
+				break;
+			}
+		}
+		if (overline) {
+			return Foul.OVERLINE;
+		} else if (fours >= 2) {
+			return Foul.DOUBLE_FOUR;
+		} else if (threes < 2 || recursion >= MAX_RECURSION) {
+			return Foul.NONE;
+		}
+		int row = index / size;
+		int column = index % size;
+		updateCodes(row, column, CellValue.EMPTY, black);
+		int trueThrees = 0;
+		for (int d = 0; d < DIRECTIONS.length && trueThrees < 2; d++) {
+			int code = blackCodes[d][index];
+			if (LINE_TYPES[code] == THREE && isTrueThree(index, d, code, recursion)) {
+				trueThrees++;
+			}
+		}
+		updateCodes(row, column, black, CellValue.EMPTY);
+		return trueThrees >= 2 ? Foul.DOUBLE_THREE : Foul.NONE;
+	}
+
+	private boolean isTrueThree(int index, int direction, int code, int recursion) {
+		int row = index / size;
+		int column = index % size;
+		int points = FOUR_POINTS[code];
+		for (int offset = -RADIUS; offset <= RADIUS; offset++) {
+			if (offset == 0 || (points & 1 << (offset + RADIUS)) == 0) {
+				continue;
+			}
+			int point = (row + offset * DIRECTIONS[direction][0]) * size + column + offset * DIRECTIONS[direction][1];
+			if (getFoul(point, recursion + 1) == Foul.NONE) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int position(int offset) {
+		return offset < 0 ? offset + RADIUS : offset + RADIUS - 1;
+	}
+
+	private static void decode(int code, int[] line) {
+		for (int i = 0; i <= LENGTH; i++) {
+			if (i == RADIUS) {
+				line[i] = LinePatterns.OWN;
+			} else {
+				line[i] = code % 3;
+				code /= 3;
+			}
+		}
+	}
+
+	private static void classify(int code, int[] line) {
+		int run = runLength(line);
+		if (run == WIN_COUNT) {
+			LINE_TYPES[code] = FIVE;
+		} else if (run > WIN_COUNT) {
+			LINE_TYPES[code] = OVERLINE;
+		} else {
+			int fours = countFours(line);
+			if (fours > 0) {
+				LINE_TYPES[code] = fours > 1 ? DOUBLE_FOUR : FOUR;
+			} else {
+				int points = 0;
+				for (int i = 0; i <= LENGTH; i++) {
+					if (line[i] == LinePatterns.EMPTY) {
+						line[i] = LinePatterns.OWN;
+						if (isStraightFour(line)) {
+							points |= 1 << i;
+						}
+						line[i] = LinePatterns.EMPTY;
+					}
+				}
+				FOUR_POINTS[code] = (short) points;
+				LINE_TYPES[code] = points != 0 ? THREE : NONE;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of fours through the center: a straight four counts once, two five points apart from it
+	 * (like {@code X.XXX.X}) count twice.
+	 */
+	private static int countFours(int[] line) {
+		int first = -1;
+		int count = 0;
+		for (int i = 0; i <= LENGTH; i++) {
+			if (line[i] == LinePatterns.EMPTY) {
+				line[i] = LinePatterns.OWN;
+				if (runLength(line) == WIN_COUNT) {
+					if (count == 0) {
+						first = i;
+					} else if (count == 1 && i - first == WIN_COUNT) {
+						line[i] = LinePatterns.EMPTY;
+						return 1;
+					}
+					count++;
+				}
+				line[i] = LinePatterns.EMPTY;
+			}
+		}
+		return Math.min(count, 2);
+	}
+
+	private static boolean isStraightFour(int[] line) {
+		int first = -1;
+		for (int i = 0; i <= LENGTH; i++) {
+			if (line[i] == LinePatterns.EMPTY) {
+				line[i] = LinePatterns.OWN;
+				boolean five = runLength(line) == WIN_COUNT;
+				line[i] = LinePatterns.EMPTY;
+				if (five && first < 0) {
+					first = i;
+				} else if (five) {
+					return i - first == WIN_COUNT;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static int runLength(int[] line) {
+		int from = RADIUS;
+		int to = RADIUS;
+		while (from > 0 && line[from - 1] == LinePatterns.OWN) {
+			from--;
+		}
+		while (to < LENGTH && line[to + 1] == LinePatterns.OWN) {
+			to++;
+		}
+		return to - from + 1;
+	}
+
+	private static int sideIndex(CellValue cellValue) {
+		if (cellValue == CellValue.HUMAN) {
+			return HUMAN_INDEX;
+		} else if (cellValue == CellValue.COMPUTER) {
+			return COMPUTER_INDEX;
+		} else {
+			throw new IllegalArgumentException("Stone value expected: " + cellValue);
+		}
+	}
+}
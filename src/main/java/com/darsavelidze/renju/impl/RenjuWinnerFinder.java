@@ -0,0 +1,20 @@
+package com.darsavelidze.renju.impl;
+
+import com.darsavelidze.renju.CellValue;
+
+public class RenjuWinnerFinder extends DefaultWinnerFinder {
+	private CellValue black;
+
+	public CellValue getBlack() {
+		return black;
+	}
+
+	public void setBlack(CellValue black) {
+		this.black = black;
+	}
+
+	@Override
+	protected boolean isWinningLength(CellValue cellValue, int length) {
+		return cellValue == black ? length == getWinCount() : super.isWinningLength(cellValue, length);
+	}
+}
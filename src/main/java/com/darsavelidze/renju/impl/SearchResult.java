@@ -0,0 +1,63 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.darsavelidze.renju.Cell;
+
+public class SearchResult {
+	private final Cell bestMove;
+	private final int score;
+	private final int depth;
+	private final long nodes;
+	private final long elapsedMillis;
+	private final List<Cell> principalVariation;
+
+	public SearchResult(Cell bestMove, int score, int depth, long nodes, long elapsedMillis) {
+		this(bestMove, score, depth, nodes, elapsedMillis, Collections.singletonList(bestMove));
+	}
+
+	public SearchResult(Cell bestMove, int score, int depth, long nodes, long elapsedMillis,
+			List<Cell> principalVariation) {
+		super();
+		this.bestMove = bestMove;
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.elapsedMillis = elapsedMillis;
+		this.principalVariation = Collections.unmodifiableList(principalVariation);
+	}
+
+	public Cell getBestMove() {
+		return bestMove;
+	}
+
+	public int getScore() {
+		return score;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * Returns the expected line of play starting with the best move, which may be shorter than the search depth.
+	 */
+	public List<Cell> getPrincipalVariation() {
+		return principalVariation;
+	}
+
+	@Override
+	public String toString() {
+		return "bestMove = " + bestMove + ", score = " + score + ", depth = " + depth + ", nodes = " + nodes
+				+ ", time = " + elapsedMillis + "ms, pv = " + principalVariation;
+	}
+}
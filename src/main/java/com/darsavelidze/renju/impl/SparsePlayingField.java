@@ -0,0 +1,131 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+
+public class SparsePlayingField extends AbstractPlayingField {
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int NO_KEY = 0;
+	private static final CellValue[] VALUES = CellValue.values();
+	private final int size;
+	private int[] keys;
+	private byte[] values;
+	private int stoneCount;
+
+	public SparsePlayingField() {
+		this(GameConfiguration.DEFAULT);
+	}
+
+	public SparsePlayingField(GameConfiguration configuration) {
+		super(configuration);
+		size = configuration.getSize();
+		keys = new int[INITIAL_CAPACITY];
+		values = new byte[INITIAL_CAPACITY];
+	}
+
+	@Override
+	public CellValue getValue(int rowIndex, int columnIndex) {
+		checkIndexes(rowIndex, columnIndex);
+		int slot = findSlot(rowIndex * size + columnIndex + 1);
+		return keys[slot] == NO_KEY ? CellValue.EMPTY : VALUES[values[slot]];
+	}
+
+	@Override
+	public void setValue(int rowIndex, int columnIndex, CellValue cellValue) {
+		Objects.requireNonNull(cellValue, "Cell value can't be null");
+		checkIndexes(rowIndex, columnIndex);
+		int key = rowIndex * size + columnIndex + 1;
+		int slot = findSlot(key);
+		CellValue oldValue = keys[slot] == NO_KEY ? CellValue.EMPTY : VALUES[values[slot]];
+		if (oldValue == cellValue) {
+			return;
+		}
+		if (cellValue == CellValue.EMPTY) {
+			removeSlot(slot);
+			stoneCount--;
+		} else if (oldValue == CellValue.EMPTY) {
+			keys[slot] = key;
+			values[slot] = (byte) cellValue.ordinal();
+			stoneCount++;
+			if (stoneCount * 2 > keys.length) {
+				resize(keys.length * 2);
+			}
+		} else {
+			values[slot] = (byte) cellValue.ordinal();
+		}
+		valueChanged(rowIndex, columnIndex, oldValue, cellValue);
+	}
+
+	@Override
+	public void reInitialize() {
+		if (keys.length > INITIAL_CAPACITY) {
+			keys = new int[INITIAL_CAPACITY];
+			values = new byte[INITIAL_CAPACITY];
+		} else {
+			Arrays.fill(keys, NO_KEY);
+		}
+		stoneCount = 0;
+		reInitialized();
+	}
+
+	@Override
+	public boolean isCellFree(int rowIndex, int columnIndex) {
+		return getValue(rowIndex, columnIndex) == CellValue.EMPTY;
+	}
+
+	@Override
+	public boolean isEmptyCellExists() {
+		return stoneCount < size * size;
+	}
+
+	public int getStoneCount() {
+		return stoneCount;
+	}
+
+	private int findSlot(int key) {
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (keys[slot] != NO_KEY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void removeSlot(int slot) {
+		int mask = keys.length - 1;
+		int hole = slot;
+		int next = (hole + 1) & mask;
+		while (keys[next] != NO_KEY) {
+			int home = mix(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				values[hole] = values[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[hole] = NO_KEY;
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		byte[] oldValues = values;
+		keys = new int[capacity];
+		values = new byte[capacity];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != NO_KEY) {
+				int slot = findSlot(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private static int mix(int key) {
+		int hash = key * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -0,0 +1,75 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.PlayingFieldListener;
+
+public class SwappedPlayingField extends AbstractPlayingField {
+	private final PlayingField playingField;
+
+	public SwappedPlayingField(PlayingField playingField) {
+		super(Objects.requireNonNull(playingField, "Playing field can't be null").getConfiguration());
+		this.playingField = playingField;
+		for (int i = 0; i < playingField.getSize(); i++) {
+			for (int j = 0; j < playingField.getSize(); j++) {
+				CellValue cellValue = playingField.getValue(i, j);
+				if (cellValue != CellValue.EMPTY) {
+					valueChanged(i, j, CellValue.EMPTY, swap(cellValue));
+				}
+			}
+		}
+		playingField.addPlayingFieldListener(new PlayingFieldListener() {
+			@Override
+			public void valueChanged(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue) {
+				SwappedPlayingField.this.valueChanged(rowIndex, columnIndex, swap(oldValue), swap(newValue));
+			}
+
+			@Override
+			public void reInitialized() {
+				SwappedPlayingField.this.reInitialized();
+			}
+		});
+	}
+
+	@Override
+	public CellValue getValue(int rowIndex, int columnIndex) {
+		return swap(playingField.getValue(rowIndex, columnIndex));
+	}
+
+	@Override
+	public void setValue(int rowIndex, int columnIndex, CellValue cellValue) {
+		Objects.requireNonNull(cellValue, "Cell value can't be null");
+		playingField.setValue(rowIndex, columnIndex, swap(cellValue));
+	}
+
+	@Override
+	public void reInitialize() {
+		playingField.reInitialize();
+	}
+
+	@Override
+	public boolean isCellFree(int rowIndex, int columnIndex) {
+		return playingField.isCellFree(rowIndex, columnIndex);
+	}
+
+	@Override
+	public boolean isEmptyCellExists() {
+		return playingField.isEmptyCellExists();
+	}
+
+	public PlayingField getPlayingField() {
+		return playingField;
+	}
+
+	public static CellValue swap(CellValue cellValue) {
+		if (cellValue == CellValue.HUMAN) {
+			return CellValue.COMPUTER;
+		} else if (cellValue == CellValue.COMPUTER) {
+			return CellValue.HUMAN;
+		} else {
+			return cellValue;
+		}
+	}
+}
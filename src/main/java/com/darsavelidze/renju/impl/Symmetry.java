@@ -0,0 +1,78 @@
+package com.darsavelidze.renju.impl;
+
+import com.darsavelidze.renju.Cell;
+
+/**
+ * The 8 rotations and reflections of a square board. Cells are transformed as board indexes,
+ * {@code row * size + column}.
+ */
+public enum Symmetry {
+	IDENTITY {
+		@Override
+		int apply(int row, int column, int size) {
+			return row * size + column;
+		}
+	},
+	ROTATE_90 {
+		@Override
+		int apply(int row, int column, int size) {
+			return column * size + size - 1 - row;
+		}
+	},
+	ROTATE_180 {
+		@Override
+		int apply(int row, int column, int size) {
+			return (size - 1 - row) * size + size - 1 - column;
+		}
+	},
+	ROTATE_270 {
+		@Override
+		int apply(int row, int column, int size) {
+			return (size - 1 - column) * size + row;
+		}
+	},
+	FLIP_ROWS {
+		@Override
+		int apply(int row, int column, int size) {
+			return (size - 1 - row) * size + column;
+		}
+	},
+	FLIP_COLUMNS {
+		@Override
+		int apply(int row, int column, int size) {
+			return row * size + size - 1 - column;
+		}
+	},
+	TRANSPOSE {
+		@Override
+		int apply(int row, int column, int size) {
+			return column * size + row;
+		}
+	},
+	ANTI_TRANSPOSE {
+		@Override
+		int apply(int row, int column, int size) {
+			return (size - 1 - column) * size + size - 1 - row;
+		}
+	};
+
+	abstract int apply(int row, int column, int size);
+
+	public int apply(int index, int size) {
+		return apply(index / size, index % size, size);
+	}
+
+	public Cell apply(Cell cell, int size) {
+		int index = apply(cell.getRowIndex(), cell.getColumnIndex(), size);
+		return new Cell(index / size, index % size);
+	}
+
+	public Symmetry inverse() {
+		if (this == ROTATE_90) {
+			return ROTATE_270;
+		} else if (this == ROTATE_270) {
+			return ROTATE_90;
+		}
+		return this;
+	}
+}
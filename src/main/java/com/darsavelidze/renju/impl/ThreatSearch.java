@@ -0,0 +1,392 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+
+/**
+ * Depth-first threat-space solver. It proves continuous-four (VCF) and continuous-three (VCT) wins by playing only
+ * forcing moves for the attacker and only the replies that can answer them for the defender. Proven and refuted
+ * positions are remembered in a small hash table, so transpositions of the same threat sequence are solved once.
+ */
+public class ThreatSearch {
+	public static final int NO_MOVE = -1;
+	private static final int SEVERAL_MOVES = -2;
+	public static final int DEFAULT_VCF_DEPTH = 16;
+	public static final int DEFAULT_VCT_DEPTH = 3;
+	public static final int DEFAULT_NODE_LIMIT = 5000;
+	private static final int[][] DIRECTIONS = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+	private static final int MAX_PLY = 64;
+	private static final int INITIAL_BUFFER_CAPACITY = 64;
+	private static final int MAX_MEMO_CAPACITY = 1 << 16;
+	private static final long VCF_KEY = 0x5DEECE66DL;
+	private static final long VCT_KEY = 0x2545F4914F6CDD1DL;
+	private static final int WIN = 1;
+	private final PlayingField playingField;
+	private final MoveGenerator moveGenerator;
+	private final PatternEvaluator patternEvaluator;
+	private final int size;
+	private final int radius;
+	private final int vcfDepth;
+	private final int vctDepth;
+	private final int nodeLimit;
+	private final int[][] candidates = new int[MAX_PLY][];
+	private final int[][] defences = new int[MAX_PLY][];
+	private long[] memoKeys;
+	private int[] memoValues;
+	private RenjuRules renjuRules;
+	private long deadline = Long.MAX_VALUE;
+	private long nodes;
+	private long callNodes;
+	private boolean exhausted;
+	private int winningMove;
+
+	public ThreatSearch(PlayingField playingField) {
+		this(playingField, new MoveGenerator(playingField), new PatternEvaluator(playingField));
+	}
+
+	ThreatSearch(PlayingField playingField, MoveGenerator moveGenerator, PatternEvaluator patternEvaluator) {
+		this(playingField, moveGenerator, patternEvaluator, DEFAULT_VCF_DEPTH, DEFAULT_VCT_DEPTH, DEFAULT_NODE_LIMIT);
+	}
+
+	ThreatSearch(PlayingField playingField, MoveGenerator moveGenerator, PatternEvaluator patternEvaluator,
+			int vcfDepth, int vctDepth, int nodeLimit) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		if (vcfDepth <= 0 || vctDepth < 0 || vcfDepth + vctDepth >= MAX_PLY - 1) {
+			throw new IllegalArgumentException("Invalid threat depths: vcf = " + vcfDepth + ", vct = " + vctDepth);
+		}
+		if (nodeLimit <= 0) {
+			throw new IllegalArgumentException("Node limit should be positive: " + nodeLimit);
+		}
+		this.playingField = playingField;
+		this.moveGenerator = moveGenerator;
+		this.patternEvaluator = patternEvaluator;
+		this.size = playingField.getSize();
+		this.radius = LinePatterns.forWinCount(playingField.getConfiguration().getWinCount()).getRadius();
+		this.vcfDepth = vcfDepth;
+		this.vctDepth = vctDepth;
+		this.nodeLimit = nodeLimit;
+	}
+
+	public void detach() {
+		moveGenerator.detach();
+		patternEvaluator.detach();
+	}
+
+	/**
+	 * Returns the board index of the first move of a continuous-four win for the attacker to move, or
+	 * {@link #NO_MOVE}.
+	 */
+	public int findVcf(CellValue attacker) {
+		startCall();
+		return vcf(attacker, vcfDepth, 0) ? winningMove : NO_MOVE;
+	}
+
+	/**
+	 * Returns the board index of the first move of a forced win by fours and threes for the attacker to move, or
+	 * {@link #NO_MOVE}. Continuous-four wins are found as well.
+	 */
+	public int findVct(CellValue attacker) {
+		startCall();
+		return vct(attacker, vctDepth, 0) ? winningMove : NO_MOVE;
+	}
+
+	/**
+	 * Restricts the moves of black as the given rules say, {@code null} plays without restrictions.
+	 */
+	public void setRenjuRules(RenjuRules renjuRules) {
+		this.renjuRules = renjuRules;
+	}
+
+	/**
+	 * Sets the time after which searches give up as if their node limit was reached.
+	 */
+	public void setDeadline(long deadline) {
+		this.deadline = deadline;
+	}
+
+	public boolean isExhausted() {
+		return exhausted;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	private void startCall() {
+		if (memoKeys == null) {
+			// a call stores at most one entry per node, so an idle engine or a small node limit keeps the memo small
+			int capacity = Integer.highestOneBit(Math.min(nodeLimit, MAX_MEMO_CAPACITY / 2) * 2 - 1) << 1;
+			memoKeys = new long[capacity];
+			memoValues = new int[capacity];
+		}
+		callNodes = 0;
+		exhausted = false;
+		winningMove = NO_MOVE;
+	}
+
+	private boolean vcf(CellValue attacker, int depth, int ply) {
+		return solve(attacker, depth, ply, false);
+	}
+
+	private boolean vct(CellValue attacker, int depth, int ply) {
+		return solve(attacker, depth, ply, true);
+	}
+
+	private boolean solve(CellValue attacker, int depth, int ply, boolean threes) {
+		if (++callNodes > nodeLimit || (callNodes & 255) == 0 && System.currentTimeMillis() >= deadline) {
+			exhausted = true;
+			return false;
+		}
+		nodes++;
+		int count = fillCandidates(ply);
+		int[] cells = candidates[ply];
+		CellValue defender = AlphaBetaSearch.opponent(attacker);
+		for (int i = 0; i < count; i++) {
+			if (isFive(cells[i], attacker)) {
+				setWinningMove(ply, cells[i]);
+				return true;
+			}
+		}
+		int block = NO_MOVE;
+		for (int i = 0; i < count; i++) {
+			if (isFive(cells[i], defender)) {
+				if (block != NO_MOVE) {
+					return false;
+				}
+				block = cells[i];
+			}
+		}
+		if (block != NO_MOVE && isForbidden(block, attacker)) {
+			return false;
+		}
+		long key = memoKey(attacker, threes);
+		int memo = probe(key);
+		if (memo != 0 && (memo & WIN) != 0 && memo >>> 1 <= depth + 1 && ply > 0) {
+			return true;
+		} else if (memo != 0 && (memo & WIN) == 0 && memo >>> 1 >= depth + 1) {
+			return false;
+		}
+		boolean win = threes && block == NO_MOVE && vcf(attacker, vcfDepth, ply);
+		if (!win && depth > 0) {
+			if (block != NO_MOVE) {
+				win = tryMove(block, attacker, depth, ply, threes);
+			} else {
+				for (int i = 0; i < count && !win && !exhausted; i++) {
+					win = tryMove(cells[i], attacker, depth, ply, threes);
+				}
+			}
+		}
+		if (win || !exhausted) {
+			store(key, depth, win);
+		}
+		return win;
+	}
+
+	private boolean tryMove(int move, CellValue attacker, int depth, int ply, boolean threes) {
+		int threatDirections = 0;
+		boolean four = false;
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			LineShape shape = patternEvaluator.getShape(move, d, attacker);
+			if (shape.isFour()) {
+				four = true;
+			} else if (threes && shape.isThree()) {
+				threatDirections |= 1 << d;
+			}
+		}
+		if (!four && threatDirections == 0 || isForbidden(move, attacker)) {
+			return false;
+		}
+		if (!four && isBlack(attacker)) {
+			threatDirections = renjuRules.getThreeDirections(move, attacker);
+			if (threatDirections == 0) {
+				return false;
+			}
+		}
+		CellValue defender = AlphaBetaSearch.opponent(attacker);
+		boolean win;
+		makeMove(move, attacker);
+		if (four) {
+			int fivePoint = findFivePoint(move, attacker);
+			if (fivePoint == SEVERAL_MOVES || fivePoint != NO_MOVE && isForbidden(fivePoint, defender)) {
+				win = true;
+			} else if (fivePoint == NO_MOVE) {
+				// a four of black that can only become an overline
+				win = false;
+			} else {
+				makeMove(fivePoint, defender);
+				win = solve(attacker, depth - 1, ply + 1, threes);
+				playingField.unmakeMove();
+			}
+		} else {
+			win = refuteDefences(move, threatDirections, attacker, depth, ply);
+		}
+		playingField.unmakeMove();
+		if (win) {
+			setWinningMove(ply, move);
+		}
+		return win;
+	}
+
+	private boolean refuteDefences(int move, int threatDirections, CellValue attacker, int depth, int ply) {
+		CellValue defender = AlphaBetaSearch.opponent(attacker);
+		// the free cells on the threat lines and the candidates that make a four
+		int[] replies = ensureCapacity(defences, ply,
+				DIRECTIONS.length * 2 * radius + moveGenerator.getCandidateCount());
+		int count = 0;
+		int row = move / size;
+		int column = move % size;
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			if ((threatDirections & 1 << d) == 0) {
+				continue;
+			}
+			for (int offset = -radius; offset <= radius; offset++) {
+				int r = row + offset * DIRECTIONS[d][0];
+				int c = column + offset * DIRECTIONS[d][1];
+				if (offset != 0 && r >= 0 && r < size && c >= 0 && c < size && playingField.isCellFree(r, c)) {
+					count = addReply(replies, count, r * size + c);
+				}
+			}
+		}
+		int candidateCount = fillCandidates(ply + 1);
+		int[] cells = candidates[ply + 1];
+		for (int i = 0; i < candidateCount; i++) {
+			if (makesFour(cells[i], defender)) {
+				count = addReply(replies, count, cells[i]);
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			int reply = replies[i];
+			if (isForbidden(reply, defender)) {
+				continue;
+			}
+			boolean counterFour = makesFour(reply, defender);
+			makeMove(reply, defender);
+			// a reply that neither blocks the three nor makes a four loses to the open four at once
+			boolean win = !counterFour && isThreatLeft(move, threatDirections, attacker)
+					|| solve(attacker, depth - 1, ply + 1, true);
+			playingField.unmakeMove();
+			if (!win) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isThreatLeft(int move, int threatDirections, CellValue attacker) {
+		if (isBlack(attacker)) {
+			return (renjuRules.getThreeDirections(move, attacker) & threatDirections) != 0;
+		}
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			if ((threatDirections & 1 << d) != 0 && patternEvaluator.getShape(move, d, attacker).isThree()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int addReply(int[] replies, int count, int reply) {
+		for (int i = 0; i < count; i++) {
+			if (replies[i] == reply) {
+				return count;
+			}
+		}
+		replies[count] = reply;
+		return count + 1;
+	}
+
+	private boolean makesFour(int cell, CellValue cellValue) {
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			if (patternEvaluator.getShape(cell, d, cellValue).isFour()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the only cell completing a five after the attacker's four at the given move, {@link #SEVERAL_MOVES} when
+	 * the four can't be blocked or {@link #NO_MOVE} when there is none.
+	 */
+	private int findFivePoint(int move, CellValue attacker) {
+		int fivePoint = NO_MOVE;
+		int row = move / size;
+		int column = move % size;
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			for (int offset = -radius; offset <= radius; offset++) {
+				int r = row + offset * DIRECTIONS[d][0];
+				int c = column + offset * DIRECTIONS[d][1];
+				if (offset == 0 || r < 0 || r >= size || c < 0 || c >= size || !playingField.isCellFree(r, c)) {
+					continue;
+				}
+				int cell = r * size + c;
+				if (cell != fivePoint && isFive(cell, attacker)) {
+					if (fivePoint != NO_MOVE) {
+						return SEVERAL_MOVES;
+					}
+					fivePoint = cell;
+				}
+			}
+		}
+		return fivePoint;
+	}
+
+	/**
+	 * An exact five is never forbidden, so a five point that is forbidden for black is an overline.
+	 */
+	private boolean isFive(int cell, CellValue cellValue) {
+		return patternEvaluator.isFive(cell, cellValue) && !isForbidden(cell, cellValue);
+	}
+
+	private boolean isForbidden(int cell, CellValue cellValue) {
+		return renjuRules != null && renjuRules.isForbidden(cell, cellValue);
+	}
+
+	private boolean isBlack(CellValue cellValue) {
+		return renjuRules != null && renjuRules.getBlack() == cellValue;
+	}
+
+	private int fillCandidates(int ply) {
+		return moveGenerator.fillCandidates(ensureCapacity(candidates, ply, moveGenerator.getCandidateCount()));
+	}
+
+	private static int[] ensureCapacity(int[][] buffers, int ply, int capacity) {
+		int[] buffer = buffers[ply];
+		if (buffer == null || buffer.length < capacity) {
+			int length = buffer == null ? INITIAL_BUFFER_CAPACITY : buffer.length * 2;
+			buffer = buffers[ply] = new int[Math.max(length, capacity)];
+		}
+		return buffer;
+	}
+
+	private void setWinningMove(int ply, int move) {
+		if (ply == 0) {
+			winningMove = move;
+		}
+	}
+
+	private void makeMove(int move, CellValue cellValue) {
+		playingField.makeMove(move / size, move % size, cellValue);
+	}
+
+	private long memoKey(CellValue attacker, boolean threes) {
+		long key = playingField.getHashKey() ^ (threes ? VCT_KEY : VCF_KEY);
+		return attacker == CellValue.COMPUTER ? ~key : key;
+	}
+
+	/**
+	 * Entries hold the remaining depth plus one and a win flag: a win holds for any deeper search, a refutation for
+	 * any shallower one.
+	 */
+	private int probe(long key) {
+		int index = (int) key & (memoKeys.length - 1);
+		return memoKeys[index] == key ? memoValues[index] : 0;
+	}
+
+	private void store(long key, int depth, boolean win) {
+		int index = (int) key & (memoKeys.length - 1);
+		memoKeys[index] = key;
+		memoValues[index] = (depth + 1) << 1 | (win ? WIN : 0);
+	}
+}
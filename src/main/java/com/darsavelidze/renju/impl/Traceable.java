@@ -0,0 +1,5 @@
+package com.darsavelidze.renju.impl;
+
+public interface Traceable {
+	void setTracer(EngineTracer tracer);
+}
@@ -0,0 +1,127 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.Arrays;
+
+public class TranspositionTable {
+	public static final int EXACT = 1;
+	public static final int LOWER_BOUND = 2;
+	public static final int UPPER_BOUND = 3;
+	public static final long NO_ENTRY = 0L;
+	public static final int NO_MOVE = -1;
+	private static final int ENTRY_BYTES = 16;
+	private static final int SCORE_BITS = 24;
+	private static final int MOVE_BITS = 20;
+	private static final int DEPTH_BITS = 8;
+	private static final int BOUND_BITS = 2;
+	private static final int MOVE_SHIFT = SCORE_BITS;
+	private static final int DEPTH_SHIFT = MOVE_SHIFT + MOVE_BITS;
+	private static final int BOUND_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+	private static final int GENERATION_SHIFT = BOUND_SHIFT + BOUND_BITS;
+	private final long[] keys;
+	private final long[] entries;
+	private final int mask;
+	private int generation;
+	private long probes;
+	private long hits;
+
+	public TranspositionTable(int sizeInMegabytes) {
+		if (sizeInMegabytes <= 0) {
+			throw new IllegalArgumentException("Transposition table size should be positive: " + sizeInMegabytes);
+		}
+		long capacity = Long.highestOneBit((long) sizeInMegabytes * 1024 * 1024 / ENTRY_BYTES);
+		if (capacity > (1 << 30)) {
+			throw new IllegalArgumentException("Transposition table size is too big: " + sizeInMegabytes + "MB");
+		}
+		keys = new long[(int) capacity];
+		entries = new long[(int) capacity];
+		mask = (int) capacity - 1;
+	}
+
+	public long probe(long key) {
+		probes++;
+		int index = (int) key & mask;
+		long entry = entries[index];
+		if (entry != NO_ENTRY && (keys[index] ^ entry) == key) {
+			hits++;
+			return entry;
+		}
+		return NO_ENTRY;
+	}
+
+	public void store(long key, int score, int depth, int bound, int move) {
+		int index = (int) key & mask;
+		long oldEntry = entries[index];
+		if (oldEntry != NO_ENTRY && (keys[index] ^ oldEntry) != key && getGeneration(oldEntry) == generation
+				&& getDepth(oldEntry) > depth) {
+			return;
+		}
+		long entry = pack(score, depth, bound, move);
+		keys[index] = key ^ entry;
+		entries[index] = entry;
+	}
+
+	public void newSearch() {
+		generation = (generation + 1) & ((1 << (Long.SIZE - GENERATION_SHIFT)) - 1);
+	}
+
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		Arrays.fill(entries, NO_ENTRY);
+		probes = 0;
+		hits = 0;
+	}
+
+	public int getCapacity() {
+		return entries.length;
+	}
+
+	public int getSizeInMegabytes() {
+		return (int) ((long) entries.length * ENTRY_BYTES >> 20);
+	}
+
+	/**
+	 * The probe and hit counters are plain fields, so they are approximate when the table is shared between threads.
+	 */
+	public long getProbes() {
+		return probes;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public double getHitRate() {
+		return probes == 0 ? 0.0 : (double) hits / probes;
+	}
+
+	public static int getScore(long entry) {
+		return (int) (entry << (Long.SIZE - SCORE_BITS) >> (Long.SIZE - SCORE_BITS));
+	}
+
+	public static int getMove(long entry) {
+		return (int) ((entry >>> MOVE_SHIFT) & ((1 << MOVE_BITS) - 1)) - 1;
+	}
+
+	public static int getDepth(long entry) {
+		return (int) ((entry >>> DEPTH_SHIFT) & ((1 << DEPTH_BITS) - 1));
+	}
+
+	public static int getBound(long entry) {
+		return (int) ((entry >>> BOUND_SHIFT) & ((1 << BOUND_BITS) - 1));
+	}
+
+	private static int getGeneration(long entry) {
+		return (int) (entry >>> GENERATION_SHIFT);
+	}
+
+	private long pack(int score, int depth, int bound, int move) {
+		return (score & ((1L << SCORE_BITS) - 1)) | ((long) (move + 1) << MOVE_SHIFT) | ((long) depth << DEPTH_SHIFT)
+				| ((long) bound << BOUND_SHIFT) | ((long) generation << GENERATION_SHIFT);
+	}
+
+	@Override
+	public String toString() {
+		return "capacity = " + getCapacity() + ", probes = " + probes + ", hits = " + hits + ", hitRate = "
+				+ String.format("%.3f", getHitRate());
+	}
+}
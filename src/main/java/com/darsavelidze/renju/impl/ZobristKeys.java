@@ -0,0 +1,43 @@
+package com.darsavelidze.renju.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.darsavelidze.renju.CellValue;
+
+public class ZobristKeys {
+	private static final long SEED = 0x52454E4A55L;
+	private static final Map<Integer, ZobristKeys> KEYS_BY_SIZE = new HashMap<>();
+	private final long[] humanKeys;
+	private final long[] computerKeys;
+
+	private ZobristKeys(int size) {
+		Random random = new Random(SEED + size);
+		humanKeys = new long[size * size];
+		computerKeys = new long[size * size];
+		for (int i = 0; i < size * size; i++) {
+			humanKeys[i] = random.nextLong();
+			computerKeys[i] = random.nextLong();
+		}
+	}
+
+	public static synchronized ZobristKeys forSize(int size) {
+		ZobristKeys keys = KEYS_BY_SIZE.get(size);
+		if (keys == null) {
+			keys = new ZobristKeys(size);
+			KEYS_BY_SIZE.put(size, keys);
+		}
+		return keys;
+	}
+
+	public long getKey(int index, CellValue cellValue) {
+		if (cellValue == CellValue.HUMAN) {
+			return humanKeys[index];
+		} else if (cellValue == CellValue.COMPUTER) {
+			return computerKeys[index];
+		} else {
+			return 0L;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package com.darsavelidze.renju.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.darsavelidze.renju.impl.SearchResult;
+import com.darsavelidze.renju.impl.TranspositionTable;
+
+public class EngineMetrics implements EngineMetricsMXBean {
+	public static final String DOMAIN = "com.darsavelidze.renju";
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final double NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+	private final LatencyHistogram moveLatency = new LatencyHistogram();
+	private final LatencyHistogram winnerCheckLatency = new LatencyHistogram();
+	private final LongAdder failedMoves = new LongAdder();
+	private final LongAdder searches = new LongAdder();
+	private final LongAdder nodes = new LongAdder();
+	private final LongAdder searchMillis = new LongAdder();
+	private final LongAdder depths = new LongAdder();
+	private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+	private volatile TranspositionTable transpositionTable;
+
+	public void recordMove(long nanos) {
+		moveLatency.record(nanos);
+	}
+
+	public void recordFailedMove() {
+		failedMoves.increment();
+	}
+
+	public void recordSearch(SearchResult result) {
+		searches.increment();
+		nodes.add(result.getNodes());
+		searchMillis.add(result.getElapsedMillis());
+		depths.add(result.getDepth());
+		maxDepth.accumulate(result.getDepth());
+	}
+
+	public void recordWinnerCheck(long nanos) {
+		winnerCheckLatency.record(nanos);
+	}
+
+	public void setTranspositionTable(TranspositionTable transpositionTable) {
+		this.transpositionTable = transpositionTable;
+	}
+
+	public LatencyHistogram getMoveLatency() {
+		return moveLatency;
+	}
+
+	public LatencyHistogram getWinnerCheckLatency() {
+		return winnerCheckLatency;
+	}
+
+	public ObjectName register(String name) throws JMException {
+		ObjectName objectName = new ObjectName(DOMAIN + ":type=EngineMetrics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		return objectName;
+	}
+
+	public static void unregister(ObjectName objectName) throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		if (server.isRegistered(objectName)) {
+			server.unregisterMBean(objectName);
+		}
+	}
+
+	@Override
+	public long getMoves() {
+		return moveLatency.getCount();
+	}
+
+	@Override
+	public long getFailedMoves() {
+		return failedMoves.sum();
+	}
+
+	@Override
+	public double getMoveLatencyMeanMillis() {
+		return moveLatency.getMean() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMoveLatencyP50Millis() {
+		return moveLatency.getPercentile(50) / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMoveLatencyP90Millis() {
+		return moveLatency.getPercentile(90) / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMoveLatencyP99Millis() {
+		return moveLatency.getPercentile(99) / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMoveLatencyMaxMillis() {
+		return moveLatency.getMax() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public long getSearches() {
+		return searches.sum();
+	}
+
+	@Override
+	public long getNodes() {
+		return nodes.sum();
+	}
+
+	@Override
+	public double getNodesPerSecond() {
+		long millis = searchMillis.sum();
+		return millis == 0 ? 0.0 : nodes.sum() * 1000.0 / millis;
+	}
+
+	@Override
+	public double getAverageDepth() {
+		long count = searches.sum();
+		return count == 0 ? 0.0 : (double) depths.sum() / count;
+	}
+
+	@Override
+	public long getMaxDepth() {
+		return maxDepth.get();
+	}
+
+	@Override
+	public long getWinnerChecks() {
+		return winnerCheckLatency.getCount();
+	}
+
+	@Override
+	public double getWinnerCheckMeanMicros() {
+		return winnerCheckLatency.getMean() / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getWinnerCheckP99Micros() {
+		return winnerCheckLatency.getPercentile(99) / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getTranspositionTableHitRate() {
+		TranspositionTable table = transpositionTable;
+		// probe counters of a shared table are not synchronized, so the rate is approximate
+		return table == null ? 0.0 : table.getHitRate();
+	}
+
+	@Override
+	public void reset() {
+		moveLatency.reset();
+		winnerCheckLatency.reset();
+		failedMoves.reset();
+		searches.reset();
+		nodes.reset();
+		searchMillis.reset();
+		depths.reset();
+		maxDepth.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "moves = " + getMoves() + ", move latency: p50 = " + String.format("%.1f", getMoveLatencyP50Millis())
+				+ "ms, p99 = " + String.format("%.1f", getMoveLatencyP99Millis()) + "ms, nodes/s = "
+				+ String.format("%.0f", getNodesPerSecond()) + ", average depth = "
+				+ String.format("%.1f", getAverageDepth()) + ", winner checks = " + getWinnerChecks()
+				+ ", transposition table hit rate = " + String.format("%.3f", getTranspositionTableHitRate());
+	}
+}
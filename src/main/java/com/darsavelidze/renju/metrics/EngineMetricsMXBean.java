@@ -0,0 +1,37 @@
+package com.darsavelidze.renju.metrics;
+
+public interface EngineMetricsMXBean {
+	long getMoves();
+
+	long getFailedMoves();
+
+	double getMoveLatencyMeanMillis();
+
+	double getMoveLatencyP50Millis();
+
+	double getMoveLatencyP90Millis();
+
+	double getMoveLatencyP99Millis();
+
+	double getMoveLatencyMaxMillis();
+
+	long getSearches();
+
+	long getNodes();
+
+	double getNodesPerSecond();
+
+	double getAverageDepth();
+
+	long getMaxDepth();
+
+	long getWinnerChecks();
+
+	double getWinnerCheckMeanMicros();
+
+	double getWinnerCheckP99Micros();
+
+	double getTranspositionTableHitRate();
+
+	void reset();
+}
@@ -0,0 +1,96 @@
+package com.darsavelidze.renju.metrics;
+
+import java.util.Objects;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.EngineTracer;
+import com.darsavelidze.renju.impl.Ponderable;
+import com.darsavelidze.renju.impl.SearchResult;
+import com.darsavelidze.renju.impl.SearchResultProvider;
+import com.darsavelidze.renju.impl.Traceable;
+
+public class MeteredComputerTurn implements ComputerTurn, Traceable, SearchResultProvider, Ponderable {
+	private final ComputerTurn computerTurn;
+	private final EngineMetrics metrics;
+
+	public MeteredComputerTurn(ComputerTurn computerTurn, EngineMetrics metrics) {
+		Objects.requireNonNull(computerTurn, "Computer turn can't be null");
+		Objects.requireNonNull(metrics, "Metrics can't be null");
+		this.computerTurn = computerTurn;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public void setPlayingField(PlayingField playingField) {
+		computerTurn.setPlayingField(playingField);
+	}
+
+	@Override
+	public void setTracer(EngineTracer tracer) {
+		if (computerTurn instanceof Traceable) {
+			((Traceable) computerTurn).setTracer(tracer);
+		}
+	}
+
+	@Override
+	public Cell makeTurn() {
+		long start = System.nanoTime();
+		try {
+			Cell cell = computerTurn.makeTurn();
+			recordMove(start);
+			return cell;
+		} catch (RuntimeException e) {
+			metrics.recordFailedMove();
+			throw e;
+		}
+	}
+
+	@Override
+	public Cell makeFirstTurn() {
+		long start = System.nanoTime();
+		try {
+			Cell cell = computerTurn.makeFirstTurn();
+			recordMove(start);
+			return cell;
+		} catch (RuntimeException e) {
+			metrics.recordFailedMove();
+			throw e;
+		}
+	}
+
+	@Override
+	public SearchResult getLastSearchResult() {
+		return computerTurn instanceof SearchResultProvider
+				? ((SearchResultProvider) computerTurn).getLastSearchResult() : null;
+	}
+
+	@Override
+	public Cell predictReply() {
+		return computerTurn instanceof Ponderable ? ((Ponderable) computerTurn).predictReply() : null;
+	}
+
+	@Override
+	public void ponder(Cell reply) {
+		if (computerTurn instanceof Ponderable) {
+			((Ponderable) computerTurn).ponder(reply);
+		}
+	}
+
+	private void recordMove(long start) {
+		metrics.recordMove(System.nanoTime() - start);
+		SearchResult result = getLastSearchResult();
+		if (result != null) {
+			metrics.recordSearch(result);
+		}
+	}
+
+	public ComputerTurn getComputerTurn() {
+		return computerTurn;
+	}
+
+	public EngineMetrics getMetrics() {
+		return metrics;
+	}
+}
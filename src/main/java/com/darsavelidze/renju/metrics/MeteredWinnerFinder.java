@@ -0,0 +1,46 @@
+package com.darsavelidze.renju.metrics;
+
+import java.util.Objects;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameStatus;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.WinnerFinder;
+
+public class MeteredWinnerFinder implements WinnerFinder {
+	private final WinnerFinder winnerFinder;
+	private final EngineMetrics metrics;
+
+	public MeteredWinnerFinder(WinnerFinder winnerFinder, EngineMetrics metrics) {
+		Objects.requireNonNull(winnerFinder, "Winner finder can't be null");
+		Objects.requireNonNull(metrics, "Metrics can't be null");
+		this.winnerFinder = winnerFinder;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public void setPlayingField(PlayingField playingField) {
+		winnerFinder.setPlayingField(playingField);
+	}
+
+	@Override
+	public GameStatus isWinnerFound(CellValue cellValue) {
+		long start = System.nanoTime();
+		GameStatus gameStatus = winnerFinder.isWinnerFound(cellValue);
+		metrics.recordWinnerCheck(System.nanoTime() - start);
+		return gameStatus;
+	}
+
+	@Override
+	public GameStatus isWinnerFound(Cell lastTurn) {
+		long start = System.nanoTime();
+		GameStatus gameStatus = winnerFinder.isWinnerFound(lastTurn);
+		metrics.recordWinnerCheck(System.nanoTime() - start);
+		return gameStatus;
+	}
+
+	public WinnerFinder getWinnerFinder() {
+		return winnerFinder;
+	}
+}
@@ -0,0 +1,200 @@
+package com.darsavelidze.renju.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.darsavelidze.renju.GameConfiguration;
+
+public class LoadGenerator {
+	private static final int BUFFER_SIZE = 256;
+	private static final long BUSY_RETRY_DELAY_MILLIS = 20;
+	private final InetSocketAddress address;
+	private final int connections;
+	private final int size;
+	private final Random random = new Random();
+	private final Queue<Client> retries = new ArrayDeque<>();
+	private long[] latencies = new long[1 << 16];
+	private int latencyCount;
+	private long games;
+	private long busyReplies;
+	private long errors;
+
+	public LoadGenerator(InetSocketAddress address, int connections, int size) {
+		if (connections <= 0) {
+			throw new IllegalArgumentException("Number of connections should be positive: " + connections);
+		}
+		this.address = address;
+		this.connections = connections;
+		this.size = size;
+	}
+
+	public void run(long durationMillis) throws IOException {
+		try (Selector selector = Selector.open()) {
+			for (int i = 0; i < connections; i++) {
+				SocketChannel channel = SocketChannel.open();
+				channel.configureBlocking(false);
+				channel.socket().setTcpNoDelay(true);
+				channel.connect(address);
+				channel.register(selector, SelectionKey.OP_CONNECT, new Client(channel));
+			}
+			long start = System.currentTimeMillis();
+			long deadline = start + durationMillis;
+			while (System.currentTimeMillis() < deadline) {
+				selector.select(retries.isEmpty() ? Math.max(1, deadline - System.currentTimeMillis())
+						: BUSY_RETRY_DELAY_MILLIS);
+				long now = System.currentTimeMillis();
+				while (!retries.isEmpty() && retries.peek().retryMillis <= now) {
+					Client client = retries.poll();
+					try {
+						client.sendMove();
+					} catch (IOException e) {
+						errors++;
+						client.channel.close();
+					}
+				}
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					Client client = (Client) key.attachment();
+					try {
+						if (key.isConnectable()) {
+							client.channel.finishConnect();
+							key.interestOps(SelectionKey.OP_READ);
+							client.send("NEW");
+						} else if (key.isReadable()) {
+							client.read(key);
+						}
+					} catch (IOException e) {
+						errors++;
+						key.cancel();
+						client.channel.close();
+					}
+				}
+			}
+			report(System.currentTimeMillis() - start);
+			for (SelectionKey key : selector.keys()) {
+				key.channel().close();
+			}
+		}
+	}
+
+	private void report(long elapsedMillis) {
+		long[] sorted = Arrays.copyOf(latencies, latencyCount);
+		Arrays.sort(sorted);
+		System.out.println(String.format(
+				"connections = %d, moves = %d, moves/sec = %.1f, games = %d, busy = %d, errors = %d", connections,
+				latencyCount, latencyCount * 1000.0 / elapsedMillis, games, busyReplies, errors));
+		System.out.println(String.format("latency ms: p50 = %.2f, p90 = %.2f, p99 = %.2f, max = %.2f",
+				percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0)));
+	}
+
+	private static double percentile(long[] sorted, double fraction) {
+		if (sorted.length == 0) {
+			return 0.0;
+		}
+		int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+		return sorted[Math.max(0, index)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	private void recordLatency(long nanos) {
+		if (latencyCount == latencies.length) {
+			latencies = Arrays.copyOf(latencies, latencies.length * 2);
+		}
+		latencies[latencyCount++] = nanos;
+	}
+
+	private class Client {
+		private final SocketChannel channel;
+		private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+		private final boolean[] occupied = new boolean[size * size];
+		private int lastMove;
+		private long sentNanos;
+		private long retryMillis;
+
+		Client(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		void read(SelectionKey key) throws IOException {
+			if (channel.read(input) < 0) {
+				throw new IOException("Connection closed by server");
+			}
+			input.flip();
+			int start = 0;
+			for (int i = 0; i < input.limit(); i++) {
+				if (input.get(i) == '\n') {
+					handle(new String(input.array(), start, i - start, StandardCharsets.US_ASCII));
+					start = i + 1;
+				}
+			}
+			input.position(start);
+			input.compact();
+		}
+
+		void handle(String line) throws IOException {
+			String[] tokens = line.split(" ");
+			if ("OK".equals(tokens[0])) {
+				Arrays.fill(occupied, false);
+				sendMove();
+			} else if ("TURN".equals(tokens[0])) {
+				recordLatency(System.nanoTime() - sentNanos);
+				if (!"-".equals(tokens[1])) {
+					occupied[Integer.parseInt(tokens[1]) * size + Integer.parseInt(tokens[2])] = true;
+				}
+				if ("IN_PROGRESS".equals(tokens[3])) {
+					sendMove();
+				} else {
+					games++;
+					send("NEW");
+				}
+			} else if ("BUSY".equals(tokens[0])) {
+				busyReplies++;
+				occupied[lastMove] = false;
+				retryMillis = System.currentTimeMillis() + BUSY_RETRY_DELAY_MILLIS;
+				retries.add(this);
+			} else {
+				errors++;
+				send("NEW");
+			}
+		}
+
+		void sendMove() throws IOException {
+			int move;
+			do {
+				move = random.nextInt(size * size);
+			} while (occupied[move]);
+			occupied[move] = true;
+			lastMove = move;
+			sentNanos = System.nanoTime();
+			send("MOVE " + move / size + " " + move % size);
+		}
+
+		void send(String line) throws IOException {
+			ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII));
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		String host = args.length > 0 ? args[0] : "localhost";
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : NioGameServer.DEFAULT_PORT;
+		int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		long durationSeconds = args.length > 3 ? Long.parseLong(args[3]) : 30;
+		new LoadGenerator(new InetSocketAddress(host, port), connections, GameConfiguration.DEFAULT_SIZE)
+				.run(TimeUnit.SECONDS.toMillis(durationSeconds));
+	}
+}
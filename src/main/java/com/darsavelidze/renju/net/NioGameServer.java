@@ -0,0 +1,316 @@
+package com.darsavelidze.renju.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.management.JMException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.impl.AlphaBetaComputerTurn;
+import com.darsavelidze.renju.impl.TranspositionTable;
+import com.darsavelidze.renju.metrics.EngineMetrics;
+import com.darsavelidze.renju.server.GameServer;
+import com.darsavelidze.renju.server.MoveResult;
+
+/**
+ * Line based protocol, one game session per connection:
+ * 
+ * <pre>
+ * NEW [FIRST]      -> OK | TURN ...  (FIRST lets the computer make the first turn)
+ * MOVE row column  -> TURN row column state [row:column ...]
+ * TRACE ON|OFF     -> OK (records the engine decisions of this game)
+ * DUMP             -> TRACE count, followed by count event lines
+ * QUIT             -> connection is closed
+ * </pre>
+ * 
+ * {@code TURN} carries the computer reply ({@code - -} if the game ended with the
+ * human turn), the game state and the winner cells. Errors are reported as
+ * {@code ERROR message}, a full engine queue as {@code BUSY}.
+ */
+public class NioGameServer implements Runnable, Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(NioGameServer.class);
+	public static final int DEFAULT_PORT = 5555;
+	private static final int MAX_LINE_LENGTH = 128;
+	private static final int BACKLOG = 1024;
+	private static final long NO_SESSION = 0;
+	private final GameServer gameServer;
+	private final Selector selector;
+	private final ServerSocketChannel serverChannel;
+	private final Queue<Connection> writableConnections = new ConcurrentLinkedQueue<>();
+	private volatile boolean running = true;
+
+	public NioGameServer(GameServer gameServer, int port) throws IOException {
+		this.gameServer = gameServer;
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(port), BACKLOG);
+		serverChannel.configureBlocking(false);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+	}
+
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	@Override
+	public void run() {
+		LOGGER.info("Game server is listening on port {}", getPort());
+		try {
+			while (running) {
+				selector.select();
+				Connection connection;
+				while ((connection = writableConnections.poll()) != null) {
+					connection.flush();
+				}
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if (!key.isValid()) {
+						continue;
+					}
+					if (key.isAcceptable()) {
+						accept();
+					} else {
+						connection = (Connection) key.attachment();
+						if (key.isReadable()) {
+							connection.read();
+						}
+						if (key.isValid() && key.isWritable()) {
+							connection.flush();
+						}
+					}
+				}
+			}
+		} catch (IOException | ClosedSelectorException e) {
+			LOGGER.error("Game server failed: " + e.getMessage(), e);
+		} finally {
+			closeChannels();
+		}
+	}
+
+	@Override
+	public void close() {
+		running = false;
+		selector.wakeup();
+	}
+
+	private void closeChannels() {
+		for (SelectionKey key : selector.keys()) {
+			if (key.attachment() instanceof Connection) {
+				((Connection) key.attachment()).close();
+			}
+		}
+		try {
+			serverChannel.close();
+			selector.close();
+		} catch (IOException e) {
+			LOGGER.warn("Game server close failed: {}", e.toString());
+		}
+		LOGGER.info("Game server on port {} is stopped", serverChannel.socket().getLocalPort());
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel = serverChannel.accept();
+		if (channel == null) {
+			return;
+		}
+		channel.configureBlocking(false);
+		channel.socket().setTcpNoDelay(true);
+		Connection connection = new Connection(channel);
+		connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+	}
+
+	private class Connection {
+		private final SocketChannel channel;
+		private final ByteBuffer input = ByteBuffer.allocate(MAX_LINE_LENGTH);
+		private final Queue<String> responses = new ConcurrentLinkedQueue<>();
+		private final Queue<ByteBuffer> output = new ArrayDeque<>();
+		private SelectionKey key;
+		private long sessionId = NO_SESSION;
+
+		Connection(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+		void read() {
+			try {
+				if (channel.read(input) < 0) {
+					close();
+					return;
+				}
+				input.flip();
+				int start = 0;
+				for (int i = 0; i < input.limit(); i++) {
+					if (input.get(i) == '\n') {
+						handle(new String(input.array(), start, i - start, StandardCharsets.US_ASCII).trim());
+						start = i + 1;
+					}
+				}
+				input.position(start);
+				input.compact();
+				if (!input.hasRemaining()) {
+					respond("ERROR Line is too long");
+					input.clear();
+				}
+			} catch (IOException e) {
+				LOGGER.debug("Connection failed: {}", e.toString());
+				close();
+			}
+		}
+
+		void handle(String line) {
+			String[] tokens = line.split("\\s+");
+			String command = tokens[0].toUpperCase(Locale.ROOT);
+			try {
+				if ("MOVE".equals(command) && tokens.length == 3) {
+					reply(gameServer.makeTurn(getSessionId(), Integer.parseInt(tokens[1]),
+							Integer.parseInt(tokens[2])));
+				} else if ("NEW".equals(command) && tokens.length <= 2) {
+					closeSession();
+					sessionId = gameServer.openSession();
+					if (tokens.length == 2 && "FIRST".equalsIgnoreCase(tokens[1])) {
+						reply(gameServer.makeComputerFirstTurn(sessionId));
+					} else {
+						respond("OK");
+					}
+				} else if ("TRACE".equals(command) && tokens.length == 2) {
+					gameServer.setTracing(getSessionId(), "ON".equalsIgnoreCase(tokens[1]));
+					respond("OK");
+				} else if ("DUMP".equals(command) && tokens.length == 1) {
+					List<String> events = gameServer.dumpTrace(getSessionId());
+					StringBuilder response = new StringBuilder("TRACE ").append(events.size());
+					for (String event : events) {
+						response.append('\n').append(event);
+					}
+					respond(response.toString());
+				} else if ("QUIT".equals(command)) {
+					close();
+				} else {
+					respond("ERROR Unknown command: " + line);
+				}
+			} catch (NumberFormatException e) {
+				respond("ERROR Invalid number: " + e.getMessage());
+			} catch (RuntimeException e) {
+				respond("ERROR " + e.getMessage());
+			}
+		}
+
+		long getSessionId() {
+			if (sessionId == NO_SESSION) {
+				throw new IllegalStateException("No game, send NEW first");
+			}
+			return sessionId;
+		}
+
+		void reply(CompletableFuture<MoveResult> future) {
+			future.whenComplete((result, e) -> {
+				if (e == null) {
+					respond(format(result));
+				} else {
+					Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+					respond(cause instanceof RejectedExecutionException ? "BUSY" : "ERROR " + cause.getMessage());
+				}
+			});
+		}
+
+		void respond(String line) {
+			responses.add(line + "\n");
+			writableConnections.add(this);
+			selector.wakeup();
+		}
+
+		void flush() {
+			if (!key.isValid()) {
+				return;
+			}
+			String response;
+			while ((response = responses.poll()) != null) {
+				output.add(ByteBuffer.wrap(response.getBytes(StandardCharsets.US_ASCII)));
+			}
+			try {
+				while (!output.isEmpty()) {
+					ByteBuffer buffer = output.peek();
+					channel.write(buffer);
+					if (buffer.hasRemaining()) {
+						break;
+					}
+					output.poll();
+				}
+				key.interestOps(output.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+			} catch (IOException e) {
+				LOGGER.debug("Connection failed: {}", e.toString());
+				close();
+			}
+		}
+
+		void closeSession() {
+			if (sessionId != NO_SESSION) {
+				gameServer.closeSession(sessionId);
+				sessionId = NO_SESSION;
+			}
+		}
+
+		void close() {
+			closeSession();
+			key.cancel();
+			try {
+				channel.close();
+			} catch (IOException e) {
+				LOGGER.debug("Connection close failed: {}", e.toString());
+			}
+		}
+	}
+
+	static String format(MoveResult result) {
+		StringBuilder line = new StringBuilder("TURN ");
+		Cell cell = result.getComputerTurn();
+		line.append(cell == null ? "- -" : cell.getRowIndex() + " " + cell.getColumnIndex());
+		line.append(' ').append(result.getState());
+		for (Cell winnerCell : result.getWinnerCells()) {
+			line.append(' ').append(winnerCell);
+		}
+		return line.toString();
+	}
+
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		long timeBudgetMillis = args.length > 2 ? Long.parseLong(args[2]) : 50;
+		TranspositionTable transpositionTable = new TranspositionTable(256);
+		EngineMetrics metrics = new EngineMetrics();
+		metrics.setTranspositionTable(transpositionTable);
+		try {
+			metrics.register("server-" + port);
+		} catch (JMException e) {
+			LOGGER.warn("Engine metrics can't be exported over JMX: {}", e.toString());
+		}
+		GameServer gameServer = new GameServer(
+				() -> new AlphaBetaComputerTurn(timeBudgetMillis, AlphaBetaComputerTurn.DEFAULT_MAX_DEPTH,
+						transpositionTable),
+				GameConfiguration.DEFAULT, threads, GameServer.DEFAULT_QUEUE_CAPACITY,
+				GameServer.DEFAULT_IDLE_TIMEOUT_MILLIS, metrics);
+		new NioGameServer(gameServer, port).run();
+	}
+}
@@ -0,0 +1,116 @@
+package com.darsavelidze.renju.record;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.GameState;
+
+/**
+ * A finished game. Moves are board indexes, {@code row * size + column}.
+ */
+public class GameRecord {
+	private final GameConfiguration configuration;
+	private final CellValue firstMover;
+	private final int[] moves;
+	private final GameState result;
+
+	public GameRecord(GameConfiguration configuration, CellValue firstMover, int[] moves, GameState result) {
+		Objects.requireNonNull(configuration, "Configuration can't be null");
+		Objects.requireNonNull(moves, "Moves can't be null");
+		Objects.requireNonNull(result, "Result can't be null");
+		if (firstMover != CellValue.HUMAN && firstMover != CellValue.COMPUTER) {
+			throw new IllegalArgumentException("First mover should be a stone value: " + firstMover);
+		}
+		int size = configuration.getSize();
+		if (moves.length > size * size) {
+			throw new IllegalArgumentException("Too many moves for " + configuration + ": " + moves.length);
+		}
+		for (int move : moves) {
+			if (move < 0 || move >= size * size) {
+				throw new IllegalArgumentException("Move is outside of the board: " + move);
+			}
+		}
+		this.configuration = configuration;
+		this.firstMover = firstMover;
+		this.moves = moves.clone();
+		this.result = result;
+	}
+
+	public static GameRecord of(GameConfiguration configuration, CellValue firstMover, List<Cell> moves,
+			GameState result) {
+		int size = configuration.getSize();
+		int[] indexes = new int[moves.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			Cell cell = moves.get(i);
+			if (cell.getRowIndex() < 0 || cell.getRowIndex() >= size || cell.getColumnIndex() < 0
+					|| cell.getColumnIndex() >= size) {
+				throw new IllegalArgumentException("Move is outside of the board: " + cell);
+			}
+			indexes[i] = cell.getRowIndex() * size + cell.getColumnIndex();
+		}
+		return new GameRecord(configuration, firstMover, indexes, result);
+	}
+
+	public GameConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	public CellValue getFirstMover() {
+		return firstMover;
+	}
+
+	public GameState getResult() {
+		return result;
+	}
+
+	public int getMoveCount() {
+		return moves.length;
+	}
+
+	public int getMove(int number) {
+		return moves[number];
+	}
+
+	public CellValue getMover(int number) {
+		return number % 2 == 0 ? firstMover
+				: firstMover == CellValue.HUMAN ? CellValue.COMPUTER : CellValue.HUMAN;
+	}
+
+	public List<Cell> getMoves() {
+		int size = configuration.getSize();
+		List<Cell> cells = new ArrayList<>(moves.length);
+		for (int move : moves) {
+			cells.add(new Cell(move / size, move % size));
+		}
+		return Collections.unmodifiableList(cells);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GameRecord)) {
+			return false;
+		}
+		GameRecord other = (GameRecord) obj;
+		return configuration.equals(other.configuration) && firstMover == other.firstMover
+				&& Arrays.equals(moves, other.moves) && result == other.result;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(configuration, firstMover, Arrays.hashCode(moves), result);
+	}
+
+	@Override
+	public String toString() {
+		return configuration + ", first mover = " + firstMover + ", moves = " + getMoves() + ", result = " + result;
+	}
+}
@@ -0,0 +1,26 @@
+package com.darsavelidze.renju.record;
+
+/**
+ * Append-only game log: a 5 byte file header (magic, version) followed by records. A record is the board size
+ * (2 bytes), the win count (1 byte), a flags byte (result ordinal, computer moved first), the move count as a
+ * varint and the moves as {@code row * size + column}, each in the smallest number of bytes that fits the board:
+ * one byte per move up to 16x16.
+ */
+class GameRecordFormat {
+	static final int MAGIC = 0x52474C47;
+	static final int VERSION = 1;
+	static final int FILE_HEADER_BYTES = 5;
+	static final int MAX_RECORD_HEADER_BYTES = 9;
+	static final int RESULT_MASK = 0x03;
+	static final int COMPUTER_FIRST_FLAG = 0x04;
+	static final int BUFFER_BYTES = 64 * 1024;
+
+	static int getMoveBytes(int size) {
+		int maxIndex = size * size - 1;
+		int bytes = 1;
+		while (maxIndex >>> (8 * bytes) != 0) {
+			bytes++;
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,138 @@
+package com.darsavelidze.renju.record;
+
+import static com.darsavelidze.renju.record.GameRecordFormat.BUFFER_BYTES;
+import static com.darsavelidze.renju.record.GameRecordFormat.COMPUTER_FIRST_FLAG;
+import static com.darsavelidze.renju.record.GameRecordFormat.FILE_HEADER_BYTES;
+import static com.darsavelidze.renju.record.GameRecordFormat.MAGIC;
+import static com.darsavelidze.renju.record.GameRecordFormat.RESULT_MASK;
+import static com.darsavelidze.renju.record.GameRecordFormat.VERSION;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.GameState;
+
+public class GameRecordReader implements Closeable {
+	private static final GameState[] RESULTS = GameState.values();
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+	private boolean endOfFile;
+	private long recordCount;
+
+	public GameRecordReader(Path path) throws IOException {
+		Objects.requireNonNull(path, "Path can't be null");
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			readFileHeader(channel);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		buffer.flip();
+	}
+
+	static void readFileHeader(FileChannel channel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) < 0) {
+				throw new IOException("Not a game record file");
+			}
+		}
+		header.flip();
+		if (header.getInt() != MAGIC) {
+			throw new IOException("Not a game record file");
+		}
+		int version = header.get();
+		if (version != VERSION) {
+			throw new IOException("Unsupported game record version: " + version);
+		}
+		channel.position(FILE_HEADER_BYTES);
+	}
+
+	public GameRecord read() throws IOException {
+		if (!fill(1)) {
+			return null;
+		}
+		require(4);
+		int size = buffer.getShort() & 0xFFFF;
+		int winCount = buffer.get() & 0xFF;
+		int flags = buffer.get() & 0xFF;
+		if ((flags & RESULT_MASK) >= RESULTS.length) {
+			throw new IOException("Invalid game record flags: " + flags);
+		}
+		GameConfiguration configuration;
+		try {
+			configuration = new GameConfiguration(size, winCount);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid game record configuration", e);
+		}
+		int moveCount = getVarInt();
+		if (moveCount < 0 || moveCount > size * size) {
+			throw new IOException("Invalid number of moves: " + moveCount);
+		}
+		int moveBytes = GameRecordFormat.getMoveBytes(size);
+		int[] moves = new int[moveCount];
+		for (int n = 0; n < moveCount; n++) {
+			require(moveBytes);
+			int index = 0;
+			for (int b = 0; b < moveBytes; b++) {
+				index = index << 8 | buffer.get() & 0xFF;
+			}
+			if (index >= size * size) {
+				throw new IOException("Move is outside of the board: " + index);
+			}
+			moves[n] = index;
+		}
+		recordCount++;
+		CellValue firstMover = (flags & COMPUTER_FIRST_FLAG) != 0 ? CellValue.COMPUTER : CellValue.HUMAN;
+		return new GameRecord(configuration, firstMover, moves, RESULTS[flags & RESULT_MASK]);
+	}
+
+	private int getVarInt() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			require(1);
+			int b = buffer.get() & 0xFF;
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Invalid varint in game record");
+	}
+
+	private void require(int bytes) throws IOException {
+		if (!fill(bytes)) {
+			throw new EOFException("Game record is truncated after " + recordCount + " records");
+		}
+	}
+
+	private boolean fill(int bytes) throws IOException {
+		if (buffer.remaining() >= bytes) {
+			return true;
+		}
+		buffer.compact();
+		while (buffer.position() < bytes && !endOfFile) {
+			endOfFile = channel.read(buffer) < 0;
+		}
+		buffer.flip();
+		return buffer.remaining() >= bytes;
+	}
+
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,80 @@
+package com.darsavelidze.renju.record;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameState;
+import com.darsavelidze.renju.analysis.AnalysisWriter;
+import com.darsavelidze.renju.analysis.BatchAnalyzer;
+import com.darsavelidze.renju.book.OpeningBookBuilder;
+import com.darsavelidze.renju.impl.AlphaBetaComputerTurn;
+
+public class GameRecordTool {
+	private static final int DEFAULT_MAX_PLY = 12;
+	private static final int DEFAULT_MIN_GAMES = 2;
+	private static final long DEFAULT_ANALYSIS_MILLIS = 1000;
+	private static final int DEFAULT_ANALYSIS_TRANSPOSITION_TABLE_MEGABYTES = 16;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length >= 2 && "stats".equals(args[0])) {
+			printStatistics(Paths.get(args[1]));
+		} else if (args.length >= 3 && "book".equals(args[0])) {
+			int maxPly = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MAX_PLY;
+			int minGames = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_MIN_GAMES;
+			OpeningBookBuilder builder = new OpeningBookBuilder(() -> new AlphaBetaComputerTurn(), maxPly, minGames,
+					1, 0);
+			int games = builder.addRecords(Paths.get(args[1]));
+			builder.write(Paths.get(args[2]));
+			System.out.println("Opening book " + args[2] + " is built from " + games + " finished games");
+		} else if (args.length >= 3 && "analyze".equals(args[0])) {
+			long timeBudgetMillis = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_ANALYSIS_MILLIS;
+			int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+			int maxDepth = args.length > 5 ? Integer.parseInt(args[5]) : AlphaBetaComputerTurn.DEFAULT_MAX_DEPTH;
+			analyze(Paths.get(args[1]), Paths.get(args[2]), new BatchAnalyzer(timeBudgetMillis, maxDepth, threads,
+					DEFAULT_ANALYSIS_TRANSPOSITION_TABLE_MEGABYTES, false));
+		} else {
+			System.err.println("Usage: GameRecordTool stats <records file>");
+			System.err.println("       GameRecordTool book <records file> <book file> [max ply] [min games]");
+			System.err.println("       GameRecordTool analyze <records file> <output file> [time budget millis] "
+					+ "[threads] [max depth]");
+			System.exit(1);
+		}
+	}
+
+	private static void analyze(Path recordsPath, Path outputPath, BatchAnalyzer analyzer) throws IOException {
+		long start = System.currentTimeMillis();
+		try (GameRecordReader reader = new GameRecordReader(recordsPath);
+				AnalysisWriter writer = new AnalysisWriter(Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8))) {
+			long positions = analyzer.analyze(reader::read, writer);
+			System.out.println(positions + " positions analyzed with " + analyzer.getThreads() + " threads in "
+					+ (System.currentTimeMillis() - start) + "ms");
+		}
+	}
+
+	private static void printStatistics(Path path) throws IOException {
+		Map<GameState, Integer> results = new EnumMap<>(GameState.class);
+		int computerFirst = 0;
+		long moves = 0;
+		long start = System.currentTimeMillis();
+		try (GameRecordReader reader = new GameRecordReader(path)) {
+			GameRecord record;
+			while ((record = reader.read()) != null) {
+				Integer count = results.get(record.getResult());
+				results.put(record.getResult(), count == null ? 1 : count + 1);
+				if (record.getFirstMover() == CellValue.COMPUTER) {
+					computerFirst++;
+				}
+				moves += record.getMoveCount();
+			}
+			long games = reader.getRecordCount();
+			System.out.println(games + " games, " + moves + " moves, " + computerFirst + " started by the computer, "
+					+ results + ", read in " + (System.currentTimeMillis() - start) + "ms");
+		}
+	}
+}
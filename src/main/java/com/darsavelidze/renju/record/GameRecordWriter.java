@@ -0,0 +1,98 @@
+package com.darsavelidze.renju.record;
+
+import static com.darsavelidze.renju.record.GameRecordFormat.BUFFER_BYTES;
+import static com.darsavelidze.renju.record.GameRecordFormat.COMPUTER_FIRST_FLAG;
+import static com.darsavelidze.renju.record.GameRecordFormat.MAGIC;
+import static com.darsavelidze.renju.record.GameRecordFormat.MAX_RECORD_HEADER_BYTES;
+import static com.darsavelidze.renju.record.GameRecordFormat.VERSION;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+
+public class GameRecordWriter implements Closeable, Flushable {
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+	private long recordCount;
+
+	public GameRecordWriter(Path path) throws IOException {
+		Objects.requireNonNull(path, "Path can't be null");
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if (channel.size() == 0) {
+				buffer.putInt(MAGIC).put((byte) VERSION);
+			} else {
+				GameRecordReader.readFileHeader(channel);
+				channel.position(channel.size());
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public void write(GameRecord record) throws IOException {
+		Objects.requireNonNull(record, "Record can't be null");
+		int size = record.getConfiguration().getSize();
+		int moveBytes = GameRecordFormat.getMoveBytes(size);
+		ensureRemaining(MAX_RECORD_HEADER_BYTES);
+		buffer.putShort((short) size).put((byte) record.getConfiguration().getWinCount());
+		int flags = record.getResult().ordinal();
+		if (record.getFirstMover() == CellValue.COMPUTER) {
+			flags |= COMPUTER_FIRST_FLAG;
+		}
+		buffer.put((byte) flags);
+		putVarInt(record.getMoveCount());
+		for (int n = 0; n < record.getMoveCount(); n++) {
+			ensureRemaining(moveBytes);
+			int index = record.getMove(n);
+			for (int b = moveBytes - 1; b >= 0; b--) {
+				buffer.put((byte) (index >>> (8 * b)));
+			}
+		}
+		recordCount++;
+	}
+
+	private void putVarInt(int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	private void ensureRemaining(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	public long getRecordCount() {
+		return recordCount;
+	}
+}
@@ -0,0 +1,66 @@
+package com.darsavelidze.renju.record;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameState;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.PlayingFieldListener;
+
+public class GameRecorder implements PlayingFieldListener {
+	private static final int INITIAL_CAPACITY = 64;
+	private final PlayingField playingField;
+	private int[] moves = new int[INITIAL_CAPACITY];
+	private int moveCount;
+	private CellValue firstMover;
+
+	public GameRecorder(PlayingField playingField) {
+		Objects.requireNonNull(playingField, "Playing field can't be null");
+		this.playingField = playingField;
+		playingField.addPlayingFieldListener(this);
+	}
+
+	public void detach() {
+		playingField.removePlayingFieldListener(this);
+	}
+
+	@Override
+	public void valueChanged(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue) {
+		int move = rowIndex * playingField.getSize() + columnIndex;
+		if (oldValue != CellValue.EMPTY) {
+			// taken back moves are usually the last ones
+			for (int n = moveCount - 1; n >= 0; n--) {
+				if (moves[n] == move) {
+					System.arraycopy(moves, n + 1, moves, n, moveCount - n - 1);
+					moveCount--;
+					break;
+				}
+			}
+		}
+		if (newValue != CellValue.EMPTY) {
+			if (moveCount == 0) {
+				firstMover = newValue;
+			}
+			if (moveCount == moves.length) {
+				moves = Arrays.copyOf(moves, moves.length * 2);
+			}
+			moves[moveCount++] = move;
+		}
+	}
+
+	@Override
+	public void reInitialized() {
+		moveCount = 0;
+		firstMover = null;
+	}
+
+	public int getMoveCount() {
+		return moveCount;
+	}
+
+	public GameRecord toRecord(GameState result) {
+		return new GameRecord(playingField.getConfiguration(), firstMover == null ? CellValue.HUMAN : firstMover,
+				Arrays.copyOf(moves, moveCount), result);
+	}
+}
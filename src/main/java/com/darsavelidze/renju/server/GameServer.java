@@ -0,0 +1,220 @@
+package com.darsavelidze.renju.server;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.ComputerTurnFactory;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.impl.EngineTracer;
+import com.darsavelidze.renju.metrics.EngineMetrics;
+
+public class GameServer {
+	private static final Logger LOGGER = LoggerFactory.getLogger(GameServer.class);
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+	private final ComputerTurnFactory computerTurnFactory;
+	private final GameConfiguration configuration;
+	private final long idleTimeoutMillis;
+	private final ThreadPoolExecutor workers;
+	private final ScheduledExecutorService evictor;
+	private final ConcurrentMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+	private final AtomicLong nextSessionId = new AtomicLong();
+	private final AtomicLong rejectedTurns = new AtomicLong();
+	private final AtomicLong evictedSessions = new AtomicLong();
+	private final EngineMetrics metrics;
+
+	public GameServer(ComputerTurnFactory computerTurnFactory) {
+		this(computerTurnFactory, GameConfiguration.DEFAULT, Runtime.getRuntime().availableProcessors(),
+				DEFAULT_QUEUE_CAPACITY, DEFAULT_IDLE_TIMEOUT_MILLIS);
+	}
+
+	public GameServer(ComputerTurnFactory computerTurnFactory, GameConfiguration configuration, int workerThreads,
+			int queueCapacity, long idleTimeoutMillis) {
+		this(computerTurnFactory, configuration, workerThreads, queueCapacity, idleTimeoutMillis, null);
+	}
+
+	public GameServer(ComputerTurnFactory computerTurnFactory, GameConfiguration configuration, int workerThreads,
+			int queueCapacity, long idleTimeoutMillis, EngineMetrics metrics) {
+		Objects.requireNonNull(computerTurnFactory, "Computer turn factory can't be null");
+		Objects.requireNonNull(configuration, "Game configuration can't be null");
+		if (workerThreads <= 0) {
+			throw new IllegalArgumentException("Number of worker threads should be positive: " + workerThreads);
+		}
+		if (queueCapacity <= 0) {
+			throw new IllegalArgumentException("Queue capacity should be positive: " + queueCapacity);
+		}
+		if (idleTimeoutMillis <= 0) {
+			throw new IllegalArgumentException("Idle timeout should be positive: " + idleTimeoutMillis);
+		}
+		this.computerTurnFactory = computerTurnFactory;
+		this.configuration = configuration;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.metrics = metrics;
+		AtomicInteger threadNumber = new AtomicInteger();
+		workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "game-worker-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "game-session-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1, idleTimeoutMillis / 2);
+		evictor.scheduleWithFixedDelay(this::evictIdleSessions, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	public long openSession() {
+		long id = nextSessionId.incrementAndGet();
+		sessions.put(id, new GameSession(id, configuration, computerTurnFactory, metrics));
+		LOGGER.debug("Session {} opened", id);
+		return id;
+	}
+
+	public boolean closeSession(long sessionId) {
+		boolean closed = sessions.remove(sessionId) != null;
+		if (closed) {
+			LOGGER.debug("Session {} closed", sessionId);
+		}
+		return closed;
+	}
+
+	public CompletableFuture<MoveResult> makeTurn(long sessionId, int rowIndex, int columnIndex) {
+		try {
+			GameSession session = getSession(sessionId);
+			MoveResult humanResult = session.makeHumanTurn(rowIndex, columnIndex);
+			if (humanResult.getState().isOver()) {
+				return CompletableFuture.completedFuture(humanResult);
+			}
+			return submitComputerTurn(session, humanResult.getHumanTurn());
+		} catch (RuntimeException e) {
+			return failedFuture(e);
+		}
+	}
+
+	public CompletableFuture<MoveResult> makeComputerFirstTurn(long sessionId) {
+		try {
+			GameSession session = getSession(sessionId);
+			session.beginComputerFirstTurn();
+			return submitComputerTurn(session, null);
+		} catch (RuntimeException e) {
+			return failedFuture(e);
+		}
+	}
+
+	public void setTracing(long sessionId, boolean enabled) {
+		GameSession session = getSession(sessionId);
+		if (enabled && session.getTracer() == null) {
+			session.setTracer(new EngineTracer(session.getBoardSize()));
+		} else if (!enabled) {
+			session.setTracer(null);
+		}
+		LOGGER.info("Tracing of session {} is {}", sessionId, enabled ? "enabled" : "disabled");
+	}
+
+	public List<String> dumpTrace(long sessionId) {
+		EngineTracer tracer = getSession(sessionId).getTracer();
+		if (tracer == null) {
+			throw new IllegalStateException("Tracing of session " + sessionId + " is not enabled");
+		}
+		return tracer.dump();
+	}
+
+	public int evictIdleSessions() {
+		long now = System.currentTimeMillis();
+		int evicted = 0;
+		for (Iterator<GameSession> iterator = sessions.values().iterator(); iterator.hasNext();) {
+			GameSession session = iterator.next();
+			// a turn accepted between the check and the removal would be lost with the session
+			synchronized (session) {
+				if (session.evictIfIdle(now, idleTimeoutMillis)) {
+					iterator.remove();
+					evicted++;
+				}
+			}
+		}
+		if (evicted > 0) {
+			evictedSessions.addAndGet(evicted);
+			LOGGER.info("{} idle sessions evicted, {} sessions left", evicted, sessions.size());
+		}
+		return evicted;
+	}
+
+	public void shutdown() {
+		evictor.shutdownNow();
+		workers.shutdownNow();
+		sessions.clear();
+	}
+
+	public GameSession findSession(long sessionId) {
+		return sessions.get(sessionId);
+	}
+
+	public int getSessionCount() {
+		return sessions.size();
+	}
+
+	public int getQueuedTurns() {
+		return workers.getQueue().size();
+	}
+
+	public long getRejectedTurns() {
+		return rejectedTurns.get();
+	}
+
+	public long getEvictedSessions() {
+		return evictedSessions.get();
+	}
+
+	public EngineMetrics getMetrics() {
+		return metrics;
+	}
+
+	public GameConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	private GameSession getSession(long sessionId) {
+		GameSession session = sessions.get(sessionId);
+		if (session == null) {
+			throw new IllegalArgumentException("Unknown session: " + sessionId);
+		}
+		session.touch();
+		return session;
+	}
+
+	private CompletableFuture<MoveResult> submitComputerTurn(GameSession session, Cell humanTurn) {
+		try {
+			return CompletableFuture.supplyAsync(() -> session.makeComputerTurn(humanTurn), workers);
+		} catch (RejectedExecutionException e) {
+			session.cancelTurn();
+			rejectedTurns.incrementAndGet();
+			LOGGER.warn("Turn of session {} rejected: {} turns are queued", session.getId(), getQueuedTurns());
+			throw e;
+		}
+	}
+
+	private static <T> CompletableFuture<T> failedFuture(Throwable e) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(e);
+		return future;
+	}
+}
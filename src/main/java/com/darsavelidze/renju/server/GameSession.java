@@ -0,0 +1,181 @@
+package com.darsavelidze.renju.server;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.ComputerTurnFactory;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.GameState;
+import com.darsavelidze.renju.GameStatus;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.WinnerFinder;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+import com.darsavelidze.renju.impl.DefaultWinnerFinder;
+import com.darsavelidze.renju.impl.EngineTracer;
+import com.darsavelidze.renju.impl.Traceable;
+import com.darsavelidze.renju.metrics.EngineMetrics;
+import com.darsavelidze.renju.metrics.MeteredComputerTurn;
+import com.darsavelidze.renju.metrics.MeteredWinnerFinder;
+
+public class GameSession {
+	private final long id;
+	private final PlayingField playingField;
+	private final WinnerFinder winnerFinder;
+	private final ComputerTurnFactory computerTurnFactory;
+	private final EngineMetrics metrics;
+	private ComputerTurn computerTurn;
+	private int stoneCount;
+	private int turnStartMoveCount;
+	private boolean evicted;
+	private volatile GameState state = GameState.IN_PROGRESS;
+	private volatile boolean busy;
+	private volatile long lastAccessMillis;
+	private volatile EngineTracer tracer;
+
+	GameSession(long id, GameConfiguration configuration, ComputerTurnFactory computerTurnFactory,
+			EngineMetrics metrics) {
+		this.id = id;
+		this.playingField = new BitboardPlayingField(configuration);
+		this.winnerFinder = metrics == null ? new DefaultWinnerFinder()
+				: new MeteredWinnerFinder(new DefaultWinnerFinder(), metrics);
+		this.winnerFinder.setPlayingField(playingField);
+		this.computerTurnFactory = computerTurnFactory;
+		this.metrics = metrics;
+		this.lastAccessMillis = System.currentTimeMillis();
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public GameState getState() {
+		return state;
+	}
+
+	public boolean isBusy() {
+		return busy;
+	}
+
+	public long getLastAccessMillis() {
+		return lastAccessMillis;
+	}
+
+	public EngineTracer getTracer() {
+		return tracer;
+	}
+
+	int getBoardSize() {
+		return playingField.getSize();
+	}
+
+	void setTracer(EngineTracer tracer) {
+		this.tracer = tracer;
+	}
+
+	void touch() {
+		lastAccessMillis = System.currentTimeMillis();
+	}
+
+	synchronized MoveResult makeHumanTurn(int rowIndex, int columnIndex) {
+		checkReady();
+		if (!playingField.isCellFree(rowIndex, columnIndex)) {
+			throw new IllegalArgumentException("Cell " + rowIndex + ":" + columnIndex + " is not empty");
+		}
+		turnStartMoveCount = playingField.getMoveCount();
+		playingField.makeMove(rowIndex, columnIndex, CellValue.HUMAN);
+		stoneCount++;
+		Cell cell = new Cell(rowIndex, columnIndex);
+		GameStatus gameStatus = winnerFinder.isWinnerFound(cell);
+		if (gameStatus.winnerExists()) {
+			state = GameState.HUMAN_WINS;
+		} else if (!playingField.isEmptyCellExists()) {
+			state = GameState.DRAW;
+		} else {
+			busy = true;
+		}
+		return new MoveResult(cell, null, state, gameStatus.getWinnerCells());
+	}
+
+	synchronized void beginComputerFirstTurn() {
+		checkReady();
+		if (stoneCount != 0) {
+			throw new IllegalStateException("Computer can make the first turn only on empty playing field");
+		}
+		turnStartMoveCount = playingField.getMoveCount();
+		busy = true;
+	}
+
+	/**
+	 * Takes back the human turn, if any, and whatever a failed engine left on the playing field after it.
+	 */
+	synchronized void cancelTurn() {
+		while (playingField.getMoveCount() > turnStartMoveCount) {
+			playingField.unmakeMove();
+		}
+		stoneCount = turnStartMoveCount;
+		busy = false;
+	}
+
+	/**
+	 * Marks the session evicted if no turn is in progress and it was idle long enough. The caller holds the session
+	 * lock while it removes the session, so no turn can be accepted in between.
+	 */
+	synchronized boolean evictIfIdle(long now, long idleTimeoutMillis) {
+		if (busy || now - lastAccessMillis < idleTimeoutMillis) {
+			return false;
+		}
+		evicted = true;
+		return true;
+	}
+
+	MoveResult makeComputerTurn(Cell humanTurn) {
+		try {
+			Cell cell;
+			try {
+				cell = findComputerTurn();
+			} catch (RuntimeException | Error e) {
+				// otherwise the human turn stays on the playing field and the human moves twice in a row
+				cancelTurn();
+				throw e;
+			}
+			stoneCount++;
+			GameStatus gameStatus = winnerFinder.isWinnerFound(cell);
+			if (gameStatus.winnerExists()) {
+				state = GameState.COMPUTER_WINS;
+			} else if (!playingField.isEmptyCellExists()) {
+				state = GameState.DRAW;
+			}
+			return new MoveResult(humanTurn, cell, state, gameStatus.getWinnerCells());
+		} finally {
+			touch();
+			busy = false;
+		}
+	}
+
+	private Cell findComputerTurn() {
+		if (computerTurn == null) {
+			computerTurn = computerTurnFactory.createComputerTurn();
+			if (metrics != null) {
+				computerTurn = new MeteredComputerTurn(computerTurn, metrics);
+			}
+			computerTurn.setPlayingField(playingField);
+		}
+		if (computerTurn instanceof Traceable) {
+			// handed over on the worker thread, so engines keep a plain field
+			((Traceable) computerTurn).setTracer(tracer);
+		}
+		return stoneCount == 0 ? computerTurn.makeFirstTurn() : computerTurn.makeTurn();
+	}
+
+	private void checkReady() {
+		if (evicted) {
+			throw new IllegalStateException("Session " + id + " is evicted");
+		}
+		if (busy) {
+			throw new IllegalStateException("Previous turn of session " + id + " is in progress");
+		}
+		if (state.isOver()) {
+			throw new IllegalStateException("Game of session " + id + " is over: " + state);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.darsavelidze.renju.server;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.GameState;
+import com.darsavelidze.renju.GameStatus;
+
+public class MoveResult implements GameStatus {
+	private final Cell humanTurn;
+	private final Cell computerTurn;
+	private final GameState state;
+	private final List<Cell> winnerCells;
+
+	public MoveResult(Cell humanTurn, Cell computerTurn, GameState state, List<Cell> winnerCells) {
+		this.humanTurn = humanTurn;
+		this.computerTurn = computerTurn;
+		this.state = state;
+		this.winnerCells = winnerCells == null ? Collections.<Cell>emptyList()
+				: Collections.unmodifiableList(winnerCells);
+	}
+
+	public Cell getHumanTurn() {
+		return humanTurn;
+	}
+
+	public Cell getComputerTurn() {
+		return computerTurn;
+	}
+
+	public GameState getState() {
+		return state;
+	}
+
+	@Override
+	public boolean winnerExists() {
+		return !winnerCells.isEmpty();
+	}
+
+	@Override
+	public List<Cell> getWinnerCells() {
+		return winnerCells;
+	}
+
+	@Override
+	public String toString() {
+		return "human = " + humanTurn + ", computer = " + computerTurn + ", state = " + state + ", winnerCells = "
+				+ winnerCells;
+	}
+}
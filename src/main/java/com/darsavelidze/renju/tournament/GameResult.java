@@ -0,0 +1,5 @@
+package com.darsavelidze.renju.tournament;
+
+public enum GameResult {
+	FIRST_ENGINE_WIN, SECOND_ENGINE_WIN, DRAW;
+}
@@ -0,0 +1,112 @@
+package com.darsavelidze.renju.tournament;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.ComputerTurnFactory;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.WinnerFinder;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+import com.darsavelidze.renju.impl.DefaultWinnerFinder;
+import com.darsavelidze.renju.impl.SwappedPlayingField;
+
+public class SelfPlayGame implements Callable<GameResult> {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SelfPlayGame.class);
+	public static final int MAX_OPENING_MOVES = 8;
+	private static final int OPENING_RADIUS = 3;
+	private final ComputerTurnFactory firstEngineFactory;
+	private final ComputerTurnFactory secondEngineFactory;
+	private final boolean firstEngineStarts;
+	private final int openingMoves;
+	private final long openingSeed;
+	private final List<Cell> moves = new ArrayList<>();
+
+	public SelfPlayGame(ComputerTurnFactory firstEngineFactory, ComputerTurnFactory secondEngineFactory,
+			boolean firstEngineStarts, int openingMoves, long openingSeed) {
+		Objects.requireNonNull(firstEngineFactory, "First engine factory can't be null");
+		Objects.requireNonNull(secondEngineFactory, "Second engine factory can't be null");
+		if (openingMoves < 0 || openingMoves > MAX_OPENING_MOVES) {
+			throw new IllegalArgumentException(
+					"Opening moves should be between 0 and " + MAX_OPENING_MOVES + ": " + openingMoves);
+		}
+		this.firstEngineFactory = firstEngineFactory;
+		this.secondEngineFactory = secondEngineFactory;
+		this.firstEngineStarts = firstEngineStarts;
+		this.openingMoves = openingMoves;
+		this.openingSeed = openingSeed;
+	}
+
+	@Override
+	public GameResult call() {
+		moves.clear();
+		PlayingField playingField = new BitboardPlayingField();
+		WinnerFinder winnerFinder = new DefaultWinnerFinder();
+		winnerFinder.setPlayingField(playingField);
+		ComputerTurn[] engines = new ComputerTurn[2];
+		engines[0] = firstEngineFactory.createComputerTurn();
+		engines[0].setPlayingField(playingField);
+		engines[1] = secondEngineFactory.createComputerTurn();
+		engines[1].setPlayingField(new SwappedPlayingField(playingField));
+		CellValue[] stones = { CellValue.COMPUTER, CellValue.HUMAN };
+		int turn = firstEngineStarts ? 0 : 1;
+		playOpening(playingField, stones, turn);
+		turn = (turn + openingMoves) % 2;
+		int moveCount = openingMoves;
+		while (playingField.isEmptyCellExists()) {
+			Cell cell;
+			try {
+				cell = moveCount == 0 ? engines[turn].makeFirstTurn() : engines[turn].makeTurn();
+			} catch (RuntimeException e) {
+				LOGGER.warn("Engine {} forfeits the game: {}", turn + 1, e.toString());
+				return getWinResult(1 - turn);
+			}
+			if (playingField.getValue(cell.getRowIndex(), cell.getColumnIndex()) != stones[turn]) {
+				LOGGER.warn("Engine {} forfeits the game: turn {} was not played", turn + 1, cell);
+				return getWinResult(1 - turn);
+			}
+			moves.add(cell);
+			moveCount++;
+			if (winnerFinder.isWinnerFound(cell).winnerExists()) {
+				return getWinResult(turn);
+			}
+			turn = 1 - turn;
+		}
+		return GameResult.DRAW;
+	}
+
+	private void playOpening(PlayingField playingField, CellValue[] stones, int turn) {
+		Random random = new Random(openingSeed);
+		int center = playingField.getSize() / 2;
+		for (int i = 0; i < openingMoves;) {
+			int rowIndex = center + random.nextInt(2 * OPENING_RADIUS + 1) - OPENING_RADIUS;
+			int columnIndex = center + random.nextInt(2 * OPENING_RADIUS + 1) - OPENING_RADIUS;
+			if (playingField.isCellFree(rowIndex, columnIndex)) {
+				playingField.makeMove(rowIndex, columnIndex, stones[(turn + i) % 2]);
+				moves.add(new Cell(rowIndex, columnIndex));
+				i++;
+			}
+		}
+	}
+
+	public boolean isFirstEngineStarts() {
+		return firstEngineStarts;
+	}
+
+	public List<Cell> getMoves() {
+		return Collections.unmodifiableList(moves);
+	}
+
+	private static GameResult getWinResult(int engine) {
+		return engine == 0 ? GameResult.FIRST_ENGINE_WIN : GameResult.SECOND_ENGINE_WIN;
+	}
+}
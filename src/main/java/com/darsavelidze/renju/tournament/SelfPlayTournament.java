@@ -0,0 +1,110 @@
+package com.darsavelidze.renju.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.darsavelidze.renju.ComputerTurnFactory;
+
+public class SelfPlayTournament {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SelfPlayTournament.class);
+	private static final int DEFAULT_OPENING_MOVES = 4;
+	private static final int PROGRESS_INTERVAL = 100;
+	private final ComputerTurnFactory firstEngineFactory;
+	private final ComputerTurnFactory secondEngineFactory;
+	private final int games;
+	private final int threads;
+	private final int openingMoves;
+	private final long seed;
+
+	public SelfPlayTournament(ComputerTurnFactory firstEngineFactory, ComputerTurnFactory secondEngineFactory,
+			int games) {
+		this(firstEngineFactory, secondEngineFactory, games, Runtime.getRuntime().availableProcessors(),
+				DEFAULT_OPENING_MOVES, System.nanoTime());
+	}
+
+	public SelfPlayTournament(ComputerTurnFactory firstEngineFactory, ComputerTurnFactory secondEngineFactory,
+			int games, int threads, int openingMoves, long seed) {
+		Objects.requireNonNull(firstEngineFactory, "First engine factory can't be null");
+		Objects.requireNonNull(secondEngineFactory, "Second engine factory can't be null");
+		if (games <= 0) {
+			throw new IllegalArgumentException("Number of games should be positive: " + games);
+		}
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads should be positive: " + threads);
+		}
+		if (openingMoves < 0 || openingMoves > SelfPlayGame.MAX_OPENING_MOVES) {
+			throw new IllegalArgumentException(
+					"Opening moves should be between 0 and " + SelfPlayGame.MAX_OPENING_MOVES + ": " + openingMoves);
+		}
+		this.firstEngineFactory = firstEngineFactory;
+		this.secondEngineFactory = secondEngineFactory;
+		this.games = games;
+		this.threads = threads;
+		this.openingMoves = openingMoves;
+		this.seed = seed;
+	}
+
+	public TournamentResult run() throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			long start = System.currentTimeMillis();
+			List<Future<GameResult>> results = new ArrayList<>(games);
+			for (int i = 0; i < games; i++) {
+				// every opening is played twice with colours reversed to cancel the first move advantage
+				results.add(executor.submit(new SelfPlayGame(firstEngineFactory, secondEngineFactory, i % 2 == 0,
+						openingMoves, seed + i / 2)));
+			}
+			int wins = 0;
+			int draws = 0;
+			int losses = 0;
+			for (int i = 0; i < games; i++) {
+				GameResult result = getResult(results.get(i));
+				if (result == GameResult.FIRST_ENGINE_WIN) {
+					wins++;
+				} else if (result == GameResult.SECOND_ENGINE_WIN) {
+					losses++;
+				} else {
+					draws++;
+				}
+				if ((i + 1) % PROGRESS_INTERVAL == 0) {
+					LOGGER.info("{} of {} games played: +{} ={} -{}", i + 1, games, wins, draws, losses);
+				}
+			}
+			return new TournamentResult(wins, draws, losses, System.currentTimeMillis() - start);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static GameResult getResult(Future<GameResult> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Game failed", e.getCause());
+		}
+	}
+
+	public int getGames() {
+		return games;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public int getOpeningMoves() {
+		return openingMoves;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+}
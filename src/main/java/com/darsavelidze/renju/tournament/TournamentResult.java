@@ -0,0 +1,88 @@
+package com.darsavelidze.renju.tournament;
+
+public class TournamentResult {
+	private static final double CONFIDENCE_Z = 1.96;
+	private final int wins;
+	private final int draws;
+	private final int losses;
+	private final long elapsedMillis;
+
+	public TournamentResult(int wins, int draws, int losses, long elapsedMillis) {
+		this.wins = wins;
+		this.draws = draws;
+		this.losses = losses;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public int getWins() {
+		return wins;
+	}
+
+	public int getDraws() {
+		return draws;
+	}
+
+	public int getLosses() {
+		return losses;
+	}
+
+	public int getGames() {
+		return wins + draws + losses;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public double getGamesPerSecond() {
+		return elapsedMillis == 0 ? 0.0 : getGames() * 1000.0 / elapsedMillis;
+	}
+
+	public double getScore() {
+		return getGames() == 0 ? 0.5 : (wins + 0.5 * draws) / getGames();
+	}
+
+	public double getScoreStandardError() {
+		int games = getGames();
+		if (games == 0) {
+			return 0.0;
+		}
+		double score = getScore();
+		double variance = (wins * square(1.0 - score) + draws * square(0.5 - score) + losses * square(score)) / games;
+		return Math.sqrt(variance / games);
+	}
+
+	public double getEloDifference() {
+		return toElo(getScore());
+	}
+
+	public double getEloLowerBound() {
+		return toElo(getScore() - CONFIDENCE_Z * getScoreStandardError());
+	}
+
+	public double getEloUpperBound() {
+		return toElo(getScore() + CONFIDENCE_Z * getScoreStandardError());
+	}
+
+	private static double toElo(double score) {
+		if (score <= 0.0) {
+			return Double.NEGATIVE_INFINITY;
+		} else if (score >= 1.0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return -400.0 * Math.log10(1.0 / score - 1.0);
+	}
+
+	private static double square(double value) {
+		return value * value;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"games = %d, wins = %d, draws = %d, losses = %d, score = %.3f, elo = %.1f [%.1f, %.1f] (95%%), "
+						+ "games/sec = %.2f",
+				getGames(), wins, draws, losses, getScore(), getEloDifference(), getEloLowerBound(),
+				getEloUpperBound(), getGamesPerSecond());
+	}
+}
@@ -0,0 +1,78 @@
+package com.darsavelidze.renju.tournament;
+
+import java.util.Locale;
+
+import org.slf4j.LoggerFactory;
+
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.ComputerTurnFactory;
+import com.darsavelidze.renju.impl.AlphaBetaComputerTurn;
+import com.darsavelidze.renju.impl.DefaultComputerTurn;
+import com.darsavelidze.renju.impl.RandomComputerTurn;
+
+import ch.qos.logback.classic.Level;
+
+public class TournamentRunner {
+	private static final int DEFAULT_GAMES = 1000;
+	private static final long DEFAULT_TIME_BUDGET_MILLIS = 20;
+	private static final int DEFAULT_OPENING_MOVES = 4;
+
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length < 2) {
+			System.err.println("Usage: TournamentRunner <first engine> <second engine> [games] [threads] "
+					+ "[time budget millis] [opening moves] [seed]");
+			System.err.println("Engines: default, random, alphabeta");
+			System.exit(1);
+		}
+		int games = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		long timeBudgetMillis = args.length > 4 ? Long.parseLong(args[4]) : DEFAULT_TIME_BUDGET_MILLIS;
+		int openingMoves = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_OPENING_MOVES;
+		long seed = args.length > 6 ? Long.parseLong(args[6]) : System.nanoTime();
+		quietEngineLogging();
+		SelfPlayTournament tournament = new SelfPlayTournament(createFactory(args[0], timeBudgetMillis),
+				createFactory(args[1], timeBudgetMillis), games, threads, openingMoves, seed);
+		System.out.println(args[0] + " vs " + args[1] + ": " + games + " games, " + threads + " threads, seed "
+				+ seed);
+		TournamentResult result = tournament.run();
+		System.out.println(result);
+	}
+
+	static ComputerTurnFactory createFactory(String name, final long timeBudgetMillis) {
+		switch (name.toLowerCase(Locale.ROOT)) {
+		case "default":
+			return new ComputerTurnFactory() {
+				@Override
+				public ComputerTurn createComputerTurn() {
+					return new DefaultComputerTurn();
+				}
+			};
+		case "random":
+			return new ComputerTurnFactory() {
+				@Override
+				public ComputerTurn createComputerTurn() {
+					return new RandomComputerTurn();
+				}
+			};
+		case "alphabeta":
+			return new ComputerTurnFactory() {
+				@Override
+				public ComputerTurn createComputerTurn() {
+					return new AlphaBetaComputerTurn(timeBudgetMillis);
+				}
+			};
+		default:
+			throw new IllegalArgumentException("Unknown engine: " + name);
+		}
+	}
+
+	public static void quietEngineLogging() {
+		if (System.getProperty("logback.configurationFile") != null) {
+			return;
+		}
+		org.slf4j.Logger root = LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+		if (root instanceof ch.qos.logback.classic.Logger) {
+			((ch.qos.logback.classic.Logger) root).setLevel(Level.WARN);
+		}
+	}
+}
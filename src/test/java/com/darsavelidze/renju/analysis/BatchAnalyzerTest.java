@@ -0,0 +1,86 @@
+package com.darsavelidze.renju.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.GameState;
+import com.darsavelidze.renju.record.GameRecord;
+
+public class BatchAnalyzerTest {
+	private static final int SIZE = GameConfiguration.DEFAULT.getSize();
+
+	@Test
+	public void analyzesPositionsInSourceOrder() throws IOException {
+		List<GameRecord> positions = new ArrayList<>();
+		for (int row = 0; row < SIZE; row++) {
+			positions.add(fourInRow(row, row % 2 == 0 ? CellValue.HUMAN : CellValue.COMPUTER));
+		}
+		positions.add(fullBoard());
+		List<PositionAnalysis> analyses = new ArrayList<>();
+		BatchAnalyzer batchAnalyzer = new BatchAnalyzer(1000, 3, 3, 1, false);
+		assertEquals(positions.size(), batchAnalyzer.analyze(PositionSource.of(positions.iterator()), analyses::add));
+		assertEquals(positions.size(), analyses.size());
+		for (int row = 0; row < SIZE; row++) {
+			PositionAnalysis analysis = analyses.get(row);
+			assertEquals(row, analysis.getNumber());
+			assertFalse(analysis.isFailed());
+			// the side to move completes its four
+			assertEquals(row % 2 == 0 ? CellValue.HUMAN : CellValue.COMPUTER, analysis.getSideToMove());
+			Cell bestMove = analysis.getResult().getBestMove();
+			assertEquals(row, bestMove.getRowIndex());
+			assertTrue(bestMove.getColumnIndex() == 3 || bestMove.getColumnIndex() == 8);
+			assertTrue(analysis.getResult().getScore() > 0);
+		}
+		PositionAnalysis failed = analyses.get(SIZE);
+		assertEquals(SIZE, failed.getNumber());
+		assertTrue(failed.isFailed());
+	}
+
+	@Test
+	public void writesOneLinePerPosition() throws IOException {
+		StringWriter output = new StringWriter();
+		PositionAnalyzer positionAnalyzer = new PositionAnalyzer(1000, 2, 1, false);
+		try (AnalysisWriter writer = new AnalysisWriter(output)) {
+			writer.write(positionAnalyzer.analyze(0, fourInRow(5, CellValue.COMPUTER)));
+			writer.write(positionAnalyzer.analyze(1, fullBoard()));
+		}
+		String[] lines = output.toString().split("\n");
+		assertEquals(2, lines.length);
+		String[] fields = lines[0].split("\t");
+		assertEquals("0", fields[0]);
+		assertEquals(CellValue.COMPUTER.toString(), fields[1]);
+		assertTrue(fields[2].equals("5:3") || fields[2].equals("5:8"));
+		assertTrue(fields[2].equals(fields[6].split(" ")[0]));
+		assertTrue(lines[1].startsWith("1\t" + CellValue.HUMAN + "\terror\t"));
+	}
+
+	/**
+	 * The side to move has four stones from column 4 to 7 of the row, the opponent has stones far from them.
+	 */
+	private static GameRecord fourInRow(int row, CellValue sideToMove) {
+		int opponentRow = row < SIZE / 2 ? SIZE - 1 : 0;
+		int[] moves = new int[8];
+		for (int i = 0; i < 4; i++) {
+			// with an even number of moves the first mover is to move again
+			moves[2 * i] = row * SIZE + 4 + i;
+			moves[2 * i + 1] = opponentRow * SIZE + 2 * i;
+		}
+		return new GameRecord(GameConfiguration.DEFAULT, sideToMove, moves, GameState.IN_PROGRESS);
+	}
+
+	private static GameRecord fullBoard() {
+		int[] moves = { 0, 1, 2, 4, 3, 5, 7, 6, 8 };
+		return new GameRecord(new GameConfiguration(3, 3), CellValue.COMPUTER, moves, GameState.DRAW);
+	}
+}
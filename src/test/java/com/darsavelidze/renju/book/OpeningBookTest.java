@@ -0,0 +1,131 @@
+package com.darsavelidze.renju.book;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+
+public class OpeningBookTest {
+	private static final int SIZE = GameConfiguration.DEFAULT.getSize();
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void findsWrittenMoves() throws IOException {
+		List<BookEntry> entries = Arrays.asList(new BookEntry(5L, 10, 3, 0.5), new BookEntry(-7L, 20, 8, 0.25),
+				new BookEntry(5L, 11, 6, 0.75), new BookEntry(5L, 12, 1, 1.0), new BookEntry(42L, 30, 2, 0.0));
+		OpeningBook openingBook = writeAndOpen(entries);
+		assertEquals(GameConfiguration.DEFAULT, openingBook.getConfiguration());
+		assertEquals(entries.size(), openingBook.getEntryCount());
+		List<BookEntry> moves = openingBook.findMoves(5L);
+		assertEquals(3, moves.size());
+		assertEntry(11, 6, 0.75, moves.get(0));
+		assertEntry(10, 3, 0.5, moves.get(1));
+		assertEntry(12, 1, 1.0, moves.get(2));
+		// the best scored move is taken among the moves played often enough
+		assertEntry(12, 1, 1.0, openingBook.findBestMove(5L, 1));
+		assertEntry(11, 6, 0.75, openingBook.findBestMove(5L, 2));
+		assertNull(openingBook.findBestMove(5L, 7));
+		assertEntry(20, 8, 0.25, openingBook.findBestMove(-7L, 1));
+		assertEntry(30, 2, 0.0, openingBook.findBestMove(42L, 1));
+		assertNull(openingBook.findBestMove(6L, 1));
+		assertTrue(openingBook.findMoves(Long.MIN_VALUE).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsMovesOutsideOfTheBoard() throws IOException {
+		writeAndOpen(Collections.singletonList(new BookEntry(1L, SIZE * SIZE, 1, 0.5)));
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsTruncatedFile() throws IOException {
+		Path path = folder.newFile().toPath();
+		OpeningBook.write(path, GameConfiguration.DEFAULT, Collections.singletonList(new BookEntry(1L, 0, 1, 0.5)));
+		Files.write(path, Arrays.copyOf(Files.readAllBytes(path),
+				OpeningBook.HEADER_BYTES + OpeningBook.ENTRY_BYTES - 1));
+		OpeningBook.open(path);
+	}
+
+	@Test
+	public void bookMovesForbiddenForBlackAreSkipped() throws IOException {
+		PlayingField playingField = new BitboardPlayingField();
+		// 7:7 makes a double three of the computer stones, and the computer is black with equal stone counts
+		int[][] computerStones = { { 7, 5 }, { 7, 6 }, { 5, 7 }, { 6, 7 } };
+		int[][] humanStones = { { 0, 0 }, { 0, 14 }, { 14, 0 }, { 14, 14 } };
+		for (int i = 0; i < computerStones.length; i++) {
+			playingField.makeMove(computerStones[i][0], computerStones[i][1], CellValue.COMPUTER);
+			playingField.makeMove(humanStones[i][0], humanStones[i][1], CellValue.HUMAN);
+		}
+		OpeningBook openingBook = writeAndOpen(
+				Collections.singletonList(new BookEntry(playingField.getHashKey(), 7 * SIZE + 7, 10, 1.0)));
+		BookComputerTurn computerTurn = new BookComputerTurn(openingBook, new FixedComputerTurn(10, 10));
+		computerTurn.setPlayingField(playingField);
+
+		Cell cell = computerTurn.makeTurn();
+		assertEquals(7, cell.getRowIndex());
+		assertEquals(7, cell.getColumnIndex());
+		playingField.unmakeMove();
+
+		computerTurn.setRenjuRules(true);
+		cell = computerTurn.makeTurn();
+		assertEquals(10, cell.getRowIndex());
+		assertEquals(10, cell.getColumnIndex());
+		assertEquals(CellValue.EMPTY, playingField.getValue(7, 7));
+	}
+
+	private OpeningBook writeAndOpen(List<BookEntry> entries) throws IOException {
+		Path path = folder.newFile().toPath();
+		OpeningBook.write(path, GameConfiguration.DEFAULT, entries);
+		return OpeningBook.open(path);
+	}
+
+	private static void assertEntry(int move, int games, double score, BookEntry entry) {
+		assertEquals(move, entry.getMove());
+		assertEquals(games, entry.getGames());
+		assertEquals(score, entry.getScore(), 1e-4);
+	}
+
+	private static class FixedComputerTurn implements ComputerTurn {
+		private final int rowIndex;
+		private final int columnIndex;
+		private PlayingField playingField;
+
+		FixedComputerTurn(int rowIndex, int columnIndex) {
+			this.rowIndex = rowIndex;
+			this.columnIndex = columnIndex;
+		}
+
+		@Override
+		public void setPlayingField(PlayingField playingField) {
+			this.playingField = playingField;
+		}
+
+		@Override
+		public Cell makeTurn() {
+			playingField.makeMove(rowIndex, columnIndex, CellValue.COMPUTER);
+			return new Cell(rowIndex, columnIndex);
+		}
+
+		@Override
+		public Cell makeFirstTurn() {
+			return makeTurn();
+		}
+	}
+}
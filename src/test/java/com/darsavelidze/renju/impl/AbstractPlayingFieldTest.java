@@ -0,0 +1,99 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.PlayingField;
+
+public class AbstractPlayingFieldTest {
+	private static final GameConfiguration CONFIGURATION = new GameConfiguration(15, 5);
+
+	@Test
+	public void unmakeAndRedoRestorePositions() {
+		for (PlayingField playingField : createPlayingFields()) {
+			Random random = new Random(50);
+			int size = playingField.getSize();
+			int moveCount = 40;
+			long[] hashKeys = new long[moveCount + 1];
+			String[] positions = new String[moveCount + 1];
+			positions[0] = PlayingFieldCodec.toText(playingField);
+			for (int i = 0; i < moveCount;) {
+				int index = random.nextInt(size * size);
+				if (playingField.isCellFree(index / size, index % size)) {
+					CellValue cellValue = i % 2 == 0 ? CellValue.HUMAN : CellValue.COMPUTER;
+					playingField.makeMove(index / size, index % size, cellValue);
+					i++;
+					hashKeys[i] = playingField.getHashKey();
+					positions[i] = PlayingFieldCodec.toText(playingField);
+				}
+			}
+			for (int i = moveCount; i > 0; i--) {
+				playingField.unmakeMove();
+				assertPosition(playingField, i - 1, moveCount - i + 1, hashKeys[i - 1], positions[i - 1]);
+			}
+			assertNull(playingField.getLastMove());
+			for (int i = 1; i <= moveCount; i++) {
+				playingField.redoMove();
+				assertPosition(playingField, i, moveCount - i, hashKeys[i], positions[i]);
+			}
+		}
+	}
+
+	@Test
+	public void makeMoveDropsRedoHistory() {
+		for (PlayingField playingField : createPlayingFields()) {
+			playingField.makeMove(7, 7, CellValue.HUMAN);
+			playingField.makeMove(7, 8, CellValue.COMPUTER);
+			playingField.unmakeMove();
+			playingField.unmakeMove();
+			playingField.makeMove(8, 8, CellValue.HUMAN);
+			assertEquals(0, playingField.getRedoCount());
+			try {
+				playingField.redoMove();
+				fail("Redo history should be dropped");
+			} catch (IllegalStateException e) {
+				assertEquals(CellValue.EMPTY, playingField.getValue(7, 7));
+			}
+		}
+	}
+
+	@Test
+	public void redoIsRejectedWhenCellWasSetDirectly() {
+		for (PlayingField playingField : createPlayingFields()) {
+			playingField.makeMove(7, 7, CellValue.HUMAN);
+			playingField.makeMove(7, 8, CellValue.COMPUTER);
+			playingField.unmakeMove();
+			playingField.setValue(7, 8, CellValue.HUMAN);
+			long hashKey = playingField.getHashKey();
+			try {
+				playingField.redoMove();
+				fail("Redo over a stone should fail");
+			} catch (IllegalStateException e) {
+				assertEquals(CellValue.HUMAN, playingField.getValue(7, 8));
+				assertEquals(hashKey, playingField.getHashKey());
+				assertEquals(1, playingField.getMoveCount());
+				assertEquals(0, playingField.getRedoCount());
+			}
+		}
+	}
+
+	private static void assertPosition(PlayingField playingField, int moveCount, int redoCount, long hashKey,
+			String position) {
+		assertEquals(moveCount, playingField.getMoveCount());
+		assertEquals(redoCount, playingField.getRedoCount());
+		assertEquals(hashKey, playingField.getHashKey());
+		assertEquals(position, PlayingFieldCodec.toText(playingField));
+	}
+
+	private static PlayingField[] createPlayingFields() {
+		return new PlayingField[] { new DefaultPlayingField(CONFIGURATION), new BitboardPlayingField(CONFIGURATION),
+				new SparsePlayingField(CONFIGURATION) };
+	}
+}
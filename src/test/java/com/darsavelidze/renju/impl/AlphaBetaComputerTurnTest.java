@@ -0,0 +1,177 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.PlayingFieldListener;
+
+public class AlphaBetaComputerTurnTest {
+	@Test
+	public void completesFive() {
+		PlayingField playingField = new BitboardPlayingField();
+		AlphaBetaComputerTurn computerTurn = new AlphaBetaComputerTurn(300, 4, 1);
+		computerTurn.setPlayingField(playingField);
+		for (int column = 3; column < 7; column++) {
+			playingField.makeMove(7, column, CellValue.COMPUTER);
+			playingField.makeMove(10, 2 * column - 3, CellValue.HUMAN);
+		}
+		Cell cell = computerTurn.makeTurn();
+		assertEquals(7, cell.getRowIndex());
+		assertTrue(cell.getColumnIndex() == 2 || cell.getColumnIndex() == 7);
+		DefaultWinnerFinder winnerFinder = new DefaultWinnerFinder();
+		winnerFinder.setPlayingField(playingField);
+		assertTrue(winnerFinder.isWinnerFound(cell).winnerExists());
+	}
+
+	@Test
+	public void blocksFourOfHuman() {
+		PlayingField playingField = new BitboardPlayingField();
+		AlphaBetaComputerTurn computerTurn = new AlphaBetaComputerTurn(300, 4, 1);
+		computerTurn.setPlayingField(playingField);
+		playingField.makeMove(3, 2, CellValue.COMPUTER);
+		playingField.makeMove(11, 11, CellValue.COMPUTER);
+		playingField.makeMove(11, 5, CellValue.COMPUTER);
+		for (int column = 3; column < 7; column++) {
+			playingField.makeMove(3, column, CellValue.HUMAN);
+		}
+		Cell cell = computerTurn.makeTurn();
+		assertEquals(3, cell.getRowIndex());
+		assertEquals(7, cell.getColumnIndex());
+	}
+
+	@Test
+	public void searchResultDescribesTurn() {
+		PlayingField playingField = new BitboardPlayingField();
+		AlphaBetaComputerTurn computerTurn = new AlphaBetaComputerTurn(60000, 2, 1);
+		computerTurn.setPlayingField(playingField);
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		Cell cell = computerTurn.makeTurn();
+		SearchResult result = computerTurn.getLastSearchResult();
+		assertEquals(2, result.getDepth());
+		assertEquals(cell.getRowIndex(), result.getBestMove().getRowIndex());
+		assertEquals(cell.getColumnIndex(), result.getBestMove().getColumnIndex());
+		assertEquals(cell.getRowIndex(), result.getPrincipalVariation().get(0).getRowIndex());
+		assertEquals(cell.getColumnIndex(), result.getPrincipalVariation().get(0).getColumnIndex());
+		assertTrue(result.getNodes() > 0);
+		assertEquals(2, playingField.getMoveCount());
+	}
+
+	@Test(expected = ComputerTurnException.class)
+	public void fullBoardIsReported() {
+		PlayingField playingField = new BitboardPlayingField(new GameConfiguration(3, 3));
+		AlphaBetaComputerTurn computerTurn = new AlphaBetaComputerTurn(100, 2, 1);
+		computerTurn.setPlayingField(playingField);
+		int[] order = { 0, 1, 2, 4, 3, 5, 7, 6, 8 };
+		for (int i = 0; i < order.length; i++) {
+			playingField.makeMove(order[i] / 3, order[i] % 3, i % 2 == 0 ? CellValue.HUMAN : CellValue.COMPUTER);
+		}
+		computerTurn.makeTurn();
+	}
+
+	@Test
+	public void releasesPreviousPlayingField() {
+		AlphaBetaComputerTurn computerTurn = new AlphaBetaComputerTurn(50, 2, 1);
+		computerTurn.setRenjuRules(true);
+		assertListenersReleased(computerTurn);
+	}
+
+	@Test
+	public void parallelSearchReleasesPreviousPlayingField() {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+		try {
+			assertListenersReleased(new ParallelAlphaBetaComputerTurn(50, 2, 1, forkJoinPool, false));
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	@Test
+	public void blackNeverPlaysForbiddenMove() {
+		assertNoForbiddenMoves(new AlphaBetaComputerTurn(300, 4, 1));
+	}
+
+	@Test
+	public void parallelSearchBlackNeverPlaysForbiddenMove() {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+		try {
+			assertNoForbiddenMoves(new ParallelAlphaBetaComputerTurn(300, 4, 1, forkJoinPool, false));
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	private static void assertNoForbiddenMoves(AlphaBetaComputerTurn computerTurn) {
+		PlayingField playingField = new BitboardPlayingField();
+		computerTurn.setRenjuRules(true);
+		computerTurn.setPlayingField(playingField);
+		RenjuRules renjuRules = new RenjuRules(playingField);
+		renjuRules.setBlack(CellValue.COMPUTER);
+		// the only open point of the computer's two threes is a double-three for black
+		int[] computerStones = { 7, 5, 7, 6, 5, 7, 6, 7 };
+		int[] humanStones = { 0, 0, 0, 14, 14, 0, 14, 14 };
+		for (int i = 0; i < computerStones.length; i += 2) {
+			playingField.makeMove(computerStones[i], computerStones[i + 1], CellValue.COMPUTER);
+			playingField.makeMove(humanStones[i], humanStones[i + 1], CellValue.HUMAN);
+		}
+		assertEquals(RenjuRules.Foul.DOUBLE_THREE, renjuRules.getFoul(7, 7, CellValue.COMPUTER));
+		assertNotForbidden(renjuRules, playingField, computerTurn.makeTurn());
+		// black changes sides between games on the same engine
+		Random random = new Random(70);
+		playingField.reInitialize();
+		assertNotForbidden(renjuRules, playingField, computerTurn.makeFirstTurn());
+		for (int turn = 0; turn < 12 && playingField.isEmptyCellExists(); turn++) {
+			int row = 4 + random.nextInt(7);
+			int column = 4 + random.nextInt(7);
+			if (playingField.isCellFree(row, column)) {
+				playingField.makeMove(row, column, CellValue.HUMAN);
+				assertNotForbidden(renjuRules, playingField, computerTurn.makeTurn());
+			}
+		}
+	}
+
+	private static void assertNotForbidden(RenjuRules renjuRules, PlayingField playingField, Cell cell) {
+		playingField.unmakeMove();
+		assertEquals("Turn " + cell, RenjuRules.Foul.NONE,
+				renjuRules.getFoul(cell.getRowIndex(), cell.getColumnIndex(), CellValue.COMPUTER));
+		playingField.redoMove();
+	}
+
+	private static void assertListenersReleased(AlphaBetaComputerTurn computerTurn) {
+		ListenerCountingPlayingField first = new ListenerCountingPlayingField();
+		computerTurn.setPlayingField(first);
+		assertTrue(first.listeners > 0);
+		ListenerCountingPlayingField second = new ListenerCountingPlayingField();
+		computerTurn.setPlayingField(second);
+		assertEquals(0, first.listeners);
+		assertTrue(second.listeners > 0);
+		computerTurn.makeFirstTurn();
+		computerTurn.makeTurn();
+		assertEquals(2, second.getMoveCount());
+		assertEquals(0, first.getMoveCount());
+	}
+
+	private static class ListenerCountingPlayingField extends BitboardPlayingField {
+		private int listeners;
+
+		@Override
+		public void addPlayingFieldListener(PlayingFieldListener listener) {
+			super.addPlayingFieldListener(listener);
+			listeners++;
+		}
+
+		@Override
+		public void removePlayingFieldListener(PlayingFieldListener listener) {
+			super.removePlayingFieldListener(listener);
+			listeners--;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+
+public class DefaultComputerTurnTest {
+	private static final int WARM_UP_TURNS = 3000;
+	private static final int MEASURED_TURNS = 500;
+	// a turn evaluates hundreds of windows, so allocating per window would cost tens of kilobytes per turn
+	private static final long MAX_BYTES_PER_TURN = 1024;
+	private com.sun.management.ThreadMXBean threadBean;
+
+	@Before
+	public void setUp() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		threadBean = (com.sun.management.ThreadMXBean) bean;
+		assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	@Test
+	public void makeTurnDoesNotAllocatePerWindow() {
+		PlayingField playingField = new BitboardPlayingField();
+		DefaultComputerTurn computerTurn = new DefaultComputerTurn();
+		computerTurn.setPlayingField(playingField);
+		// no line is close to a win, so every turn scans the windows for all the patterns
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		playingField.makeMove(8, 8, CellValue.COMPUTER);
+		playingField.makeMove(7, 9, CellValue.HUMAN);
+		playingField.makeMove(9, 7, CellValue.COMPUTER);
+		for (int i = 0; i < WARM_UP_TURNS; i++) {
+			computerTurn.makeTurn();
+			playingField.unmakeMove();
+		}
+		long threadId = Thread.currentThread().getId();
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_TURNS; i++) {
+			computerTurn.makeTurn();
+			playingField.unmakeMove();
+		}
+		long bytesPerTurn = (threadBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_TURNS;
+		assertTrue("Computer turn allocates " + bytesPerTurn + " bytes", bytesPerTurn <= MAX_BYTES_PER_TURN);
+	}
+
+	@Test
+	public void winnerCheckWithoutWinnerDoesNotAllocate() {
+		PlayingField playingField = new BitboardPlayingField();
+		DefaultWinnerFinder winnerFinder = new DefaultWinnerFinder();
+		winnerFinder.setPlayingField(playingField);
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		playingField.makeMove(7, 8, CellValue.HUMAN);
+		playingField.makeMove(7, 9, CellValue.HUMAN);
+		Cell cell = new Cell(7, 9);
+		for (int i = 0; i < WARM_UP_TURNS * 10; i++) {
+			winnerFinder.isWinnerFound(cell);
+		}
+		long threadId = Thread.currentThread().getId();
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_TURNS * 10; i++) {
+			winnerFinder.isWinnerFound(cell);
+		}
+		long bytes = threadBean.getThreadAllocatedBytes(threadId) - before;
+		// leaves room for the measurement itself
+		assertTrue("Winner checks allocate " + bytes + " bytes", bytes < 1024);
+	}
+}
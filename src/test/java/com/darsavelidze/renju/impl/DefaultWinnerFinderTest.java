@@ -0,0 +1,149 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.GameStatus;
+import com.darsavelidze.renju.PlayingField;
+
+public class DefaultWinnerFinderTest {
+	private static final CellValue[] STONES = { CellValue.HUMAN, CellValue.COMPUTER };
+
+	@Test
+	public void lastTurnMatchesFullScanInRandomGames() {
+		Random random = new Random(20);
+		int overlines = 0;
+		int wins = 0;
+		for (int game = 0; game < 400; game++) {
+			int winCount = 3 + random.nextInt(3);
+			int size = winCount + random.nextInt(6);
+			PlayingField playingField = game % 2 == 0 ? new BitboardPlayingField(new GameConfiguration(size, winCount))
+					: new SparsePlayingField(new GameConfiguration(size, winCount));
+			DefaultWinnerFinder winnerFinder = new DefaultWinnerFinder();
+			winnerFinder.setPlayingField(playingField);
+			boolean[][] blocked = new boolean[2][size * size];
+			for (int turn = 0; turn < size * size * 4; turn++) {
+				int side = turn % 2;
+				int index = random.nextInt(size * size);
+				if (!playingField.isCellFree(index / size, index % size) || blocked[side][index]) {
+					continue;
+				}
+				Cell cell = new Cell(index / size, index % size);
+				playingField.makeMove(cell.getRowIndex(), cell.getColumnIndex(), STONES[side]);
+				GameStatus lastTurnStatus = winnerFinder.isWinnerFound(cell);
+				boolean lineExists = hasLine(playingField, STONES[side], winCount);
+				assertEquals("Turn " + cell + " on " + playingField.getConfiguration(), lineExists,
+						lastTurnStatus.winnerExists());
+				assertEquals("Scan after turn " + cell + " on " + playingField.getConfiguration(), lineExists,
+						winnerFinder.isWinnerFound(STONES[side]).winnerExists());
+				if (lastTurnStatus.winnerExists()) {
+					wins++;
+					List<Cell> winnerCells = lastTurnStatus.getWinnerCells();
+					assertWinnerLine(playingField, STONES[side], cell, winnerCells, winCount);
+					if (winnerCells.size() > winCount) {
+						overlines++;
+					}
+					// keep the board without a five, so a line found later is made by the last turn
+					playingField.unmakeMove();
+					blocked[side][index] = true;
+				}
+			}
+		}
+		assertTrue("Random games should produce wins: " + wins, wins > 100);
+		assertTrue("Random games should produce lines longer than win count: " + overlines, overlines > 10);
+	}
+
+	@Test
+	public void findsLinesOnBoardEdges() {
+		PlayingField playingField = new BitboardPlayingField(new GameConfiguration(7, 5));
+		DefaultWinnerFinder winnerFinder = new DefaultWinnerFinder();
+		winnerFinder.setPlayingField(playingField);
+		for (int k = 0; k < 4; k++) {
+			playingField.makeMove(6 - k, k, CellValue.COMPUTER);
+			playingField.makeMove(k + 2, 6, CellValue.HUMAN);
+		}
+		assertFalse(winnerFinder.isWinnerFound(new Cell(3, 3)).winnerExists());
+		assertFalse(winnerFinder.isWinnerFound(CellValue.COMPUTER).winnerExists());
+		playingField.makeMove(2, 4, CellValue.COMPUTER);
+		GameStatus status = winnerFinder.isWinnerFound(new Cell(2, 4));
+		assertTrue(status.winnerExists());
+		assertEquals(5, status.getWinnerCells().size());
+		assertTrue(winnerFinder.isWinnerFound(CellValue.COMPUTER).winnerExists());
+		playingField.makeMove(6, 6, CellValue.HUMAN);
+		status = winnerFinder.isWinnerFound(new Cell(6, 6));
+		assertTrue(status.winnerExists());
+		assertEquals(5, status.getWinnerCells().size());
+		assertTrue(winnerFinder.isWinnerFound(CellValue.HUMAN).winnerExists());
+	}
+
+	@Test
+	public void findsOverlineJoiningTwoLines() {
+		PlayingField playingField = new BitboardPlayingField();
+		DefaultWinnerFinder winnerFinder = new DefaultWinnerFinder();
+		winnerFinder.setPlayingField(playingField);
+		for (int column = 0; column < 15; column++) {
+			if (column != 7 && Math.abs(column - 7) <= 4) {
+				playingField.makeMove(3, column, CellValue.HUMAN);
+			}
+		}
+		assertFalse(winnerFinder.isWinnerFound(CellValue.HUMAN).winnerExists());
+		playingField.makeMove(3, 7, CellValue.HUMAN);
+		GameStatus status = winnerFinder.isWinnerFound(new Cell(3, 7));
+		assertEquals(9, status.getWinnerCells().size());
+		assertTrue(winnerFinder.isWinnerFound(CellValue.HUMAN).winnerExists());
+	}
+
+	/**
+	 * Plain scan of every row, column and diagonal, independent of the finder and its helpers.
+	 */
+	private static boolean hasLine(PlayingField playingField, CellValue cellValue, int winCount) {
+		int size = playingField.getSize();
+		int[][] directions = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+		for (int[] direction : directions) {
+			for (int row = 0; row < size; row++) {
+				for (int column = 0; column < size; column++) {
+					int length = 0;
+					int r = row;
+					int c = column;
+					while (length < winCount && r >= 0 && r < size && c >= 0 && c < size
+							&& playingField.getValue(r, c) == cellValue) {
+						length++;
+						r += direction[0];
+						c += direction[1];
+					}
+					if (length == winCount) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private static void assertWinnerLine(PlayingField playingField, CellValue cellValue, Cell lastTurn,
+			List<Cell> winnerCells, int winCount) {
+		assertTrue(winnerCells.size() >= winCount);
+		boolean containsLastTurn = false;
+		for (int k = 0; k < winnerCells.size(); k++) {
+			Cell cell = winnerCells.get(k);
+			assertEquals(cellValue, playingField.getValue(cell.getRowIndex(), cell.getColumnIndex()));
+			if (k > 0) {
+				Cell previous = winnerCells.get(k - 1);
+				assertTrue(Math.abs(cell.getRowIndex() - previous.getRowIndex()) <= 1
+						&& Math.abs(cell.getColumnIndex() - previous.getColumnIndex()) <= 1);
+			}
+			containsLastTurn |= cell.getRowIndex() == lastTurn.getRowIndex()
+					&& cell.getColumnIndex() == lastTurn.getColumnIndex();
+		}
+		assertTrue(containsLastTurn);
+	}
+}
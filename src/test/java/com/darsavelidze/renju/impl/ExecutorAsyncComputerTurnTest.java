@@ -0,0 +1,224 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+
+public class ExecutorAsyncComputerTurnTest {
+	private PlayingField playingField;
+	private CountingComputerTurn engine;
+	private ExecutorAsyncComputerTurn asyncComputerTurn;
+
+	@Before
+	public void setUp() {
+		playingField = new BitboardPlayingField();
+		engine = new CountingComputerTurn();
+		// results are applied on the engine thread, so a completed future makes them visible to the test
+		asyncComputerTurn = new ExecutorAsyncComputerTurn(engine, Runnable::run);
+		asyncComputerTurn.setPlayingField(playingField);
+	}
+
+	@After
+	public void tearDown() {
+		asyncComputerTurn.shutdown();
+	}
+
+	@Test
+	public void engineFieldFollowsMovesAndTakeBacks() throws Exception {
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		Cell cell = asyncComputerTurn.makeTurn().get();
+		assertEquals(CellValue.COMPUTER, playingField.getValue(cell.getRowIndex(), cell.getColumnIndex()));
+		assertSameField();
+		for (int turn = 0; turn < 4; turn++) {
+			playHuman();
+			asyncComputerTurn.makeTurn().get();
+			assertSameField();
+		}
+		playingField.unmakeMove();
+		playingField.unmakeMove();
+		playingField.unmakeMove();
+		playHuman();
+		asyncComputerTurn.makeTurn().get();
+		assertSameField();
+		playingField.reInitialize();
+		asyncComputerTurn.makeFirstTurn().get();
+		assertSameField();
+	}
+
+	@Test
+	public void cancelledTurnIsDiscarded() throws Exception {
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		engine.blockNextTurn();
+		asyncComputerTurn.makeTurn();
+		assertTrue(engine.turnStarted.await(10, TimeUnit.SECONDS));
+		asyncComputerTurn.cancel();
+		engine.turnReleased.countDown();
+		assertEquals(1, playingField.getMoveCount());
+		assertFalse(asyncComputerTurn.isThinking());
+		// the next turn starts from the field without the discarded move
+		asyncComputerTurn.makeTurn().get();
+		assertSameField();
+	}
+
+	@Test
+	public void ponderHitReusesSearch() throws Exception {
+		asyncComputerTurn.setPondering(true);
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		asyncComputerTurn.makeTurn().get();
+		assertTrue(engine.pondered.await(10, TimeUnit.SECONDS));
+		Cell reply = engine.ponderReply;
+		assertNotNull(reply);
+		playingField.makeMove(reply.getRowIndex(), reply.getColumnIndex(), CellValue.HUMAN);
+		asyncComputerTurn.makeTurn().get();
+		assertEquals(0, engine.lastTurnSearches);
+		assertSameField();
+	}
+
+	@Test
+	public void ponderMissSearchesAgain() throws Exception {
+		asyncComputerTurn.setPondering(true);
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		asyncComputerTurn.makeTurn().get();
+		assertTrue(engine.pondered.await(10, TimeUnit.SECONDS));
+		Cell reply = engine.ponderReply;
+		int row = reply.getRowIndex() == 0 && reply.getColumnIndex() == 0 ? 14 : 0;
+		playingField.makeMove(row, row, CellValue.HUMAN);
+		asyncComputerTurn.makeTurn().get();
+		assertEquals(1, engine.lastTurnSearches);
+		assertSameField();
+	}
+
+	@Test
+	public void noPonderingByDefault() throws Exception {
+		assertFalse(asyncComputerTurn.isPondering());
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		asyncComputerTurn.makeTurn().get();
+		playHuman();
+		// pondering would be queued on the engine thread ahead of this turn
+		asyncComputerTurn.makeTurn().get();
+		assertEquals(1, engine.pondered.getCount());
+		assertEquals(1, engine.lastTurnSearches);
+	}
+
+	private void playHuman() {
+		int size = playingField.getSize();
+		for (int index = size * size / 2;; index++) {
+			if (playingField.isCellFree(index / size, index % size)) {
+				playingField.makeMove(index / size, index % size, CellValue.HUMAN);
+				return;
+			}
+		}
+	}
+
+	private void assertSameField() {
+		assertEquals(playingField.getHashKey(), engine.turnHashKey);
+		assertEquals(playingField.getMoveCount(), engine.turnMoveCount);
+		Cell lastMove = playingField.getLastMove();
+		assertEquals(lastMove.getRowIndex(), engine.turnLastMove.getRowIndex());
+		assertEquals(lastMove.getColumnIndex(), engine.turnLastMove.getColumnIndex());
+	}
+
+	private static class CountingComputerTurn extends AlphaBetaComputerTurn {
+		private final AtomicInteger computerSearches = new AtomicInteger();
+		private final CountDownLatch pondered = new CountDownLatch(1);
+		private final CountDownLatch turnStarted = new CountDownLatch(1);
+		private final CountDownLatch turnReleased = new CountDownLatch(1);
+		private volatile boolean blockNextTurn;
+		private volatile PlayingField playingField;
+		private volatile Cell ponderReply;
+		private volatile int lastTurnSearches;
+		// the engine field is read on its own thread, since pondering may already use it when the turn is handed over
+		private volatile long turnHashKey;
+		private volatile int turnMoveCount;
+		private volatile Cell turnLastMove;
+
+		CountingComputerTurn() {
+			super(200, 2, 1);
+		}
+
+		void blockNextTurn() {
+			blockNextTurn = true;
+		}
+
+		@Override
+		public void setPlayingField(PlayingField playingField) {
+			super.setPlayingField(playingField);
+			this.playingField = playingField;
+		}
+
+		@Override
+		protected MoveSearch createSearch(PlayingField playingField) {
+			MoveSearch search = super.createSearch(playingField);
+			return new MoveSearch() {
+				@Override
+				public SearchResult search(CellValue cellValue, long timeBudgetMillis, int maxDepth) {
+					if (cellValue == CellValue.COMPUTER) {
+						computerSearches.incrementAndGet();
+					}
+					return search.search(cellValue, timeBudgetMillis, maxDepth);
+				}
+
+				@Override
+				public void setRenjuRules(boolean enabled) {
+					search.setRenjuRules(enabled);
+				}
+
+				@Override
+				public void detach() {
+					search.detach();
+				}
+			};
+		}
+
+		@Override
+		public Cell makeTurn() {
+			if (blockNextTurn) {
+				blockNextTurn = false;
+				turnStarted.countDown();
+				try {
+					turnReleased.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			int searches = computerSearches.get();
+			Cell cell = super.makeTurn();
+			lastTurnSearches = computerSearches.get() - searches;
+			recordField();
+			return cell;
+		}
+
+		@Override
+		public Cell makeFirstTurn() {
+			Cell cell = super.makeFirstTurn();
+			recordField();
+			return cell;
+		}
+
+		private void recordField() {
+			turnHashKey = playingField.getHashKey();
+			turnMoveCount = playingField.getMoveCount();
+			turnLastMove = playingField.getLastMove();
+		}
+
+		@Override
+		public void ponder(Cell reply) {
+			super.ponder(reply);
+			ponderReply = reply;
+			pondered.countDown();
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.PlayingField;
+
+public class MoveGeneratorTest {
+	@Test
+	public void matchesNewGeneratorAfterMovesAndReInitialization() {
+		Random random = new Random(30);
+		int size = 200;
+		PlayingField playingField = new SparsePlayingField(new GameConfiguration(size, 5));
+		MoveGenerator moveGenerator = new MoveGenerator(playingField);
+		for (int round = 0; round < 20; round++) {
+			playRandomMoves(playingField, random, 60);
+			assertSameCandidates(new MoveGenerator(playingField), moveGenerator);
+			int unmade = random.nextInt(playingField.getMoveCount() + 1);
+			for (int i = 0; i < unmade; i++) {
+				playingField.unmakeMove();
+			}
+			assertSameCandidates(new MoveGenerator(playingField), moveGenerator);
+			if (round % 3 == 2) {
+				playingField.reInitialize();
+				assertEquals(0, moveGenerator.getCandidateCount());
+				assertEquals(0, moveGenerator.getStoneCount());
+			}
+		}
+	}
+
+	@Test
+	public void listsCandidatesInIndexOrder() {
+		int size = 100;
+		PlayingField playingField = new BitboardPlayingField(new GameConfiguration(size, 5));
+		MoveGenerator moveGenerator = new MoveGenerator(playingField, 1);
+		playingField.makeMove(0, 0, CellValue.HUMAN);
+		playingField.makeMove(size - 1, size - 1, CellValue.COMPUTER);
+		int[] expected = { 1, size, size + 1, size * size - size - 2, size * size - size - 1, size * size - 2 };
+		int[] buffer = new int[moveGenerator.getCandidateCount()];
+		assertEquals(expected.length, moveGenerator.fillCandidates(buffer));
+		assertArrayEquals(expected, buffer);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], moveGenerator.getCandidate(i));
+		}
+	}
+
+	static void playRandomMoves(PlayingField playingField, Random random, int count) {
+		int size = playingField.getSize();
+		int center = size / 2;
+		for (int i = 0; i < count; i++) {
+			int row = center - 15 + random.nextInt(30);
+			int column = center - 15 + random.nextInt(30);
+			if (playingField.isCellFree(row, column)) {
+				playingField.makeMove(row, column,
+						playingField.getMoveCount() % 2 == 0 ? CellValue.HUMAN : CellValue.COMPUTER);
+			}
+		}
+	}
+
+	private static void assertSameCandidates(MoveGenerator expected, MoveGenerator actual) {
+		assertEquals(expected.getStoneCount(), actual.getStoneCount());
+		assertEquals(expected.getCandidateCount(), actual.getCandidateCount());
+		int[] expectedCandidates = new int[expected.getCandidateCount()];
+		int[] actualCandidates = new int[actual.getCandidateCount()];
+		expected.fillCandidates(expectedCandidates);
+		actual.fillCandidates(actualCandidates);
+		assertArrayEquals(expectedCandidates, actualCandidates);
+		expected.detach();
+	}
+}
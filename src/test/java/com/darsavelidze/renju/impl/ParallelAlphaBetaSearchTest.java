@@ -0,0 +1,76 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+
+public class ParallelAlphaBetaSearchTest {
+	private static final long TIME_BUDGET_MILLIS = 60000;
+	private ForkJoinPool forkJoinPool;
+
+	@Before
+	public void setUp() {
+		forkJoinPool = new ForkJoinPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		forkJoinPool.shutdown();
+	}
+
+	@Test
+	public void findsSameScoreAsSequentialSearch() {
+		Random random = new Random(7);
+		for (int position = 0; position < 6; position++) {
+			PlayingField playingField = new BitboardPlayingField();
+			fillRandomly(playingField, random, 3 + position % 3);
+			// no transposition tables, so both searches see the same tree at a fixed depth
+			AlphaBetaSearch search = new AlphaBetaSearch(playingField, null);
+			ParallelAlphaBetaSearch parallelSearch = new ParallelAlphaBetaSearch(playingField, forkJoinPool, null, 0);
+			for (int depth = 1; depth <= 3; depth++) {
+				SearchResult expected = search.search(CellValue.COMPUTER, TIME_BUDGET_MILLIS, depth);
+				SearchResult actual = parallelSearch.search(CellValue.COMPUTER, TIME_BUDGET_MILLIS, depth);
+				String message = "Position " + position + ", depth " + depth;
+				assertEquals(message, expected.getDepth(), actual.getDepth());
+				assertEquals(message, expected.getScore(), actual.getScore());
+				if (actual.getDepth() > 0) {
+					// equally scored moves may be taken in any order, but the move found has to be worth the score
+					assertEquals(message, actual.getScore(),
+							scoreMove(search, playingField, actual.getBestMove(), depth));
+				}
+				assertEquals(message, actual.getScore(),
+						parallelSearch.search(CellValue.COMPUTER, TIME_BUDGET_MILLIS, depth).getScore());
+			}
+			search.detach();
+			parallelSearch.detach();
+		}
+	}
+
+	private static int scoreMove(AlphaBetaSearch search, PlayingField playingField, Cell cell, int depth) {
+		search.startSearch(System.currentTimeMillis() + TIME_BUDGET_MILLIS);
+		search.updateBlack(CellValue.COMPUTER);
+		int move = cell.getRowIndex() * playingField.getSize() + cell.getColumnIndex();
+		return search.searchMove(move, CellValue.COMPUTER, depth, -AlphaBetaSearch.INFINITY, AlphaBetaSearch.INFINITY);
+	}
+
+	private static void fillRandomly(PlayingField playingField, Random random, int stonesPerSide) {
+		for (int n = 0; n < 2 * stonesPerSide; n++) {
+			int row;
+			int column;
+			do {
+				row = 3 + random.nextInt(9);
+				column = 3 + random.nextInt(9);
+			} while (!playingField.isCellFree(row, column));
+			playingField.makeMove(row, column, n % 2 == 0 ? CellValue.HUMAN : CellValue.COMPUTER);
+		}
+	}
+}
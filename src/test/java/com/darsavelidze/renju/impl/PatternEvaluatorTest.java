@@ -0,0 +1,49 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.PlayingField;
+
+public class PatternEvaluatorTest {
+	@Test
+	public void matchesNewEvaluatorAfterMovesAndReInitialization() {
+		Random random = new Random(40);
+		int size = 60;
+		PlayingField playingField = new SparsePlayingField(new GameConfiguration(size, 5));
+		PatternEvaluator patternEvaluator = new PatternEvaluator(playingField);
+		for (int round = 0; round < 12; round++) {
+			MoveGeneratorTest.playRandomMoves(playingField, random, 80);
+			assertSameEvaluation(playingField, patternEvaluator);
+			if (round % 3 == 2) {
+				playingField.reInitialize();
+				assertSameEvaluation(playingField, patternEvaluator);
+				// the stones near the edges check that the edge codes are restored as well
+				playingField.makeMove(0, 2, CellValue.HUMAN);
+				playingField.makeMove(size - 1, size - 3, CellValue.COMPUTER);
+				assertSameEvaluation(playingField, patternEvaluator);
+			}
+		}
+	}
+
+	private static void assertSameEvaluation(PlayingField playingField, PatternEvaluator actual) {
+		PatternEvaluator expected = new PatternEvaluator(playingField);
+		expected.detach();
+		int size = playingField.getSize();
+		assertEquals(expected.getScore(CellValue.HUMAN), actual.getScore(CellValue.HUMAN));
+		assertEquals(expected.getScore(CellValue.COMPUTER), actual.getScore(CellValue.COMPUTER));
+		for (int index = 0; index < size * size; index++) {
+			for (int d = 0; d < PatternEvaluator.DIRECTION_COUNT; d++) {
+				assertEquals(expected.getShape(index, d, CellValue.HUMAN), actual.getShape(index, d, CellValue.HUMAN));
+				assertEquals(expected.getShape(index, d, CellValue.COMPUTER),
+						actual.getShape(index, d, CellValue.COMPUTER));
+			}
+			assertEquals(expected.getMoveScore(index, CellValue.HUMAN), actual.getMoveScore(index, CellValue.HUMAN));
+		}
+	}
+}
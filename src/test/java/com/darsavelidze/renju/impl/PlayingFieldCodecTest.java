@@ -0,0 +1,136 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.PlayingField;
+
+public class PlayingFieldCodecTest {
+	@Test
+	public void encodedAndTextPositionsRoundTrip() {
+		Random random = new Random(60);
+		for (int size : new int[] { 7, 13, 15, 16 }) {
+			for (int n = 0; n < 100; n++) {
+				PlayingField playingField = createRandomPosition(random, size);
+				byte[] encoded = PlayingFieldCodec.encode(playingField);
+				assertEquals(PlayingFieldCodec.getEncodedLength(size), encoded.length);
+				PlayingField decoded = new BitboardPlayingField(playingField.getConfiguration());
+				decoded.makeMove(0, 0, CellValue.HUMAN);
+				PlayingFieldCodec.decode(encoded, decoded);
+				assertSamePosition(playingField, decoded);
+				assertEquals(0, decoded.getMoveCount());
+				PlayingField parsed = new SparsePlayingField(playingField.getConfiguration());
+				PlayingFieldCodec.fromText(PlayingFieldCodec.toText(playingField), parsed);
+				assertSamePosition(playingField, parsed);
+			}
+		}
+	}
+
+	@Test
+	public void writesTextForm() {
+		PlayingField playingField = new BitboardPlayingField();
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		playingField.makeMove(7, 8, CellValue.COMPUTER);
+		playingField.makeMove(0, 14, CellValue.HUMAN);
+		assertEquals("14X/15/15/15/15/15/15/7XO6/15/15/15/15/15/15/15", PlayingFieldCodec.toText(playingField));
+	}
+
+	@Test
+	public void rejectsInvalidText() {
+		String[] texts = { "", "15", "16/15/15/15/15/15/15/15/15/15/15/15/15/15/15",
+				"15/15/15/15/15/15/15/15/15/15/15/15/15/15/15/15", "14Z/15/15/15/15/15/15/15/15/15/15/15/15/15/15",
+				"0X14/15/15/15/15/15/15/15/15/15/15/15/15/15/15", "15X/15/15/15/15/15/15/15/15/15/15/15/15/15/15",
+				"99999999999/15/15/15/15/15/15/15/15/15/15/15/15/15/15" };
+		for (String text : texts) {
+			try {
+				PlayingFieldCodec.fromText(text, new BitboardPlayingField());
+				fail("Text should be rejected: " + text);
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void rejectsInvalidEncodedPositions() {
+		byte[][] encodedPositions = { new byte[56], new byte[57], new byte[57] };
+		// a stone in the padding bits after the last cell
+		encodedPositions[1][56] = 4;
+		// cell code 3
+		encodedPositions[2][3] = 0x0C;
+		for (byte[] encoded : encodedPositions) {
+			PlayingField playingField = new BitboardPlayingField();
+			playingField.makeMove(7, 7, CellValue.HUMAN);
+			try {
+				PlayingFieldCodec.decode(encoded, playingField);
+				fail("Encoded position should be rejected");
+			} catch (IllegalArgumentException e) {
+				assertEquals(CellValue.HUMAN, playingField.getValue(7, 7));
+			}
+		}
+	}
+
+	@Test
+	public void canonicalFormIsSharedBySymmetricPositions() {
+		Random random = new Random(61);
+		for (int size : new int[] { 7, 15, 16 }) {
+			for (int n = 0; n < 50; n++) {
+				PlayingField playingField = createRandomPosition(random, size);
+				long canonicalKey = PlayingFieldCodec.getCanonicalHashKey(playingField);
+				byte[] canonical = PlayingFieldCodec.encodeCanonical(playingField);
+				for (Symmetry symmetry : Symmetry.values()) {
+					PlayingField transformed = transform(playingField, symmetry);
+					assertArrayEquals(PlayingFieldCodec.encode(playingField, symmetry),
+							PlayingFieldCodec.encode(transformed));
+					assertEquals(canonicalKey, PlayingFieldCodec.getCanonicalHashKey(transformed));
+					assertArrayEquals(canonical, PlayingFieldCodec.encodeCanonical(transformed));
+					assertSamePosition(playingField, transform(transformed, symmetry.inverse()));
+				}
+				PlayingField canonicalField = new BitboardPlayingField(playingField.getConfiguration());
+				PlayingFieldCodec.decode(canonical, canonicalField);
+				assertEquals(canonicalKey, canonicalField.getHashKey());
+			}
+		}
+	}
+
+	private static PlayingField createRandomPosition(Random random, int size) {
+		PlayingField playingField = new BitboardPlayingField(new GameConfiguration(size, 5));
+		int stones = random.nextInt(size * size / 2 + 1);
+		for (int i = 0; i < stones; i++) {
+			int row = random.nextInt(size);
+			int column = random.nextInt(size);
+			if (playingField.isCellFree(row, column)) {
+				playingField.makeMove(row, column, random.nextBoolean() ? CellValue.HUMAN : CellValue.COMPUTER);
+			}
+		}
+		return playingField;
+	}
+
+	private static PlayingField transform(PlayingField playingField, Symmetry symmetry) {
+		int size = playingField.getSize();
+		PlayingField transformed = new BitboardPlayingField(playingField.getConfiguration());
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				CellValue cellValue = playingField.getValue(i, j);
+				if (cellValue != CellValue.EMPTY) {
+					Cell cell = symmetry.apply(new Cell(i, j), size);
+					transformed.setValue(cell.getRowIndex(), cell.getColumnIndex(), cellValue);
+				}
+			}
+		}
+		return transformed;
+	}
+
+	private static void assertSamePosition(PlayingField expected, PlayingField actual) {
+		assertEquals(expected.getHashKey(), actual.getHashKey());
+		assertEquals(PlayingFieldCodec.toText(expected), PlayingFieldCodec.toText(actual));
+	}
+}
@@ -0,0 +1,116 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.PlayingFieldListener;
+
+public class RenjuRulesTest {
+	private PlayingField playingField;
+	private RenjuRules renjuRules;
+
+	@Before
+	public void setUp() {
+		playingField = new BitboardPlayingField();
+		renjuRules = new RenjuRules(playingField);
+		renjuRules.setBlack(CellValue.HUMAN);
+	}
+
+	@Test
+	public void doubleThreeIsForbidden() {
+		place(CellValue.HUMAN, 7, 5, 7, 6, 5, 7, 6, 7);
+		assertEquals(RenjuRules.Foul.DOUBLE_THREE, renjuRules.getFoul(7, 7, CellValue.HUMAN));
+		assertEquals(RenjuRules.Foul.NONE, renjuRules.getFoul(7, 7, CellValue.COMPUTER));
+	}
+
+	@Test
+	public void doubleThreeWithBlockedThreeIsAllowed() {
+		place(CellValue.HUMAN, 7, 5, 7, 6, 5, 7, 6, 7);
+		place(CellValue.COMPUTER, 7, 4);
+		assertEquals(RenjuRules.Foul.NONE, renjuRules.getFoul(7, 7, CellValue.HUMAN));
+	}
+
+	@Test
+	public void doubleFourIsForbidden() {
+		place(CellValue.HUMAN, 7, 4, 7, 5, 7, 6, 4, 7, 5, 7, 6, 7);
+		assertEquals(RenjuRules.Foul.DOUBLE_FOUR, renjuRules.getFoul(7, 7, CellValue.HUMAN));
+	}
+
+	@Test
+	public void overlineIsForbidden() {
+		place(CellValue.HUMAN, 7, 2, 7, 3, 7, 4, 7, 6, 7, 7);
+		assertEquals(RenjuRules.Foul.OVERLINE, renjuRules.getFoul(7, 5, CellValue.HUMAN));
+		renjuRules.setBlack(CellValue.COMPUTER);
+		assertEquals(RenjuRules.Foul.NONE, renjuRules.getFoul(7, 5, CellValue.HUMAN));
+	}
+
+	@Test
+	public void fourThreeAndFiveAreAllowed() {
+		place(CellValue.HUMAN, 7, 4, 7, 5, 7, 6, 5, 7, 6, 7);
+		assertEquals(RenjuRules.Foul.NONE, renjuRules.getFoul(7, 7, CellValue.HUMAN));
+		place(CellValue.HUMAN, 7, 3);
+		// a five wins even when it makes a double-four as well
+		place(CellValue.HUMAN, 4, 7);
+		assertEquals(RenjuRules.Foul.NONE, renjuRules.getFoul(7, 7, CellValue.HUMAN));
+	}
+
+	@Test
+	public void probeLeavesMoveHistoryAndListenersAlone() {
+		playingField.makeMove(7, 5, CellValue.HUMAN);
+		playingField.makeMove(0, 0, CellValue.COMPUTER);
+		playingField.makeMove(7, 6, CellValue.HUMAN);
+		playingField.makeMove(0, 2, CellValue.COMPUTER);
+		playingField.makeMove(5, 7, CellValue.HUMAN);
+		playingField.makeMove(0, 4, CellValue.COMPUTER);
+		playingField.makeMove(6, 7, CellValue.HUMAN);
+		playingField.makeMove(0, 6, CellValue.COMPUTER);
+		playingField.unmakeMove();
+		long hashKey = playingField.getHashKey();
+		AtomicInteger events = new AtomicInteger();
+		playingField.addPlayingFieldListener(new PlayingFieldListener() {
+			@Override
+			public void valueChanged(int rowIndex, int columnIndex, CellValue oldValue, CellValue newValue) {
+				events.incrementAndGet();
+			}
+
+			@Override
+			public void reInitialized() {
+				events.incrementAndGet();
+			}
+		});
+		assertEquals(RenjuRules.Foul.DOUBLE_THREE, renjuRules.getFoul(7, 7, CellValue.HUMAN));
+		// a split three along the row
+		assertEquals(1, renjuRules.getThreeDirections(7 * 15 + 8, CellValue.HUMAN));
+		assertEquals(7, playingField.getMoveCount());
+		assertEquals(1, playingField.getRedoCount());
+		assertEquals(hashKey, playingField.getHashKey());
+		assertEquals(CellValue.EMPTY, playingField.getValue(7, 7));
+		assertEquals(0, events.get());
+		// the redo still replays the move that was taken back, not the rejected one
+		playingField.redoMove();
+		assertEquals(CellValue.COMPUTER, playingField.getValue(0, 6));
+		assertEquals(CellValue.EMPTY, playingField.getValue(7, 7));
+	}
+
+	@Test
+	public void reInitializationClearsStones() {
+		place(CellValue.HUMAN, 7, 5, 7, 6, 5, 7, 6, 7);
+		playingField.reInitialize();
+		place(CellValue.HUMAN, 7, 5, 5, 7);
+		assertEquals(RenjuRules.Foul.NONE, renjuRules.getFoul(7, 7, CellValue.HUMAN));
+		place(CellValue.HUMAN, 7, 6, 6, 7);
+		assertEquals(RenjuRules.Foul.DOUBLE_THREE, renjuRules.getFoul(7, 7, CellValue.HUMAN));
+	}
+
+	private void place(CellValue cellValue, int... cells) {
+		for (int i = 0; i < cells.length; i += 2) {
+			playingField.makeMove(cells[i], cells[i + 1], cellValue);
+		}
+	}
+}
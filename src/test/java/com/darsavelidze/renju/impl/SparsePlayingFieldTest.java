@@ -0,0 +1,77 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+
+public class SparsePlayingFieldTest {
+	private static final CellValue[] VALUES = CellValue.values();
+
+	@Test
+	public void keepsStonesWhileCellsAreClearedInRandomOrder() {
+		Random random = new Random(10);
+		int size = 40;
+		SparsePlayingField playingField = new SparsePlayingField(new GameConfiguration(size, 5));
+		CellValue[] expected = new CellValue[size * size];
+		Arrays.fill(expected, CellValue.EMPTY);
+		int stoneCount = 0;
+		for (int step = 0; step < 200000; step++) {
+			// a small region keeps the probe sequences long, so removals have to shift the following keys back
+			int index = random.nextInt(size * size / 4);
+			CellValue cellValue = VALUES[random.nextInt(VALUES.length)];
+			if (expected[index] == CellValue.EMPTY && cellValue != CellValue.EMPTY) {
+				stoneCount++;
+			} else if (expected[index] != CellValue.EMPTY && cellValue == CellValue.EMPTY) {
+				stoneCount--;
+			}
+			expected[index] = cellValue;
+			playingField.setValue(index / size, index % size, cellValue);
+			if (step % 1000 == 0) {
+				assertBoard(expected, playingField);
+			}
+			assertEquals(stoneCount, playingField.getStoneCount());
+		}
+		assertBoard(expected, playingField);
+	}
+
+	@Test
+	public void unmakesMovesInReverseOrder() {
+		Random random = new Random(11);
+		int size = 300;
+		SparsePlayingField playingField = new SparsePlayingField(new GameConfiguration(size, 5));
+		int[] moves = new int[500];
+		int count = 0;
+		while (count < moves.length) {
+			int index = (size / 2 - 20 + random.nextInt(40)) * size + size / 2 - 20 + random.nextInt(40);
+			if (playingField.isCellFree(index / size, index % size)) {
+				CellValue cellValue = count % 2 == 0 ? CellValue.HUMAN : CellValue.COMPUTER;
+				playingField.makeMove(index / size, index % size, cellValue);
+				moves[count++] = index;
+			}
+		}
+		for (int i = count - 1; i >= 0; i--) {
+			assertEquals(i % 2 == 0 ? CellValue.HUMAN : CellValue.COMPUTER,
+					playingField.getValue(moves[i] / size, moves[i] % size));
+			playingField.unmakeMove();
+			assertEquals(CellValue.EMPTY, playingField.getValue(moves[i] / size, moves[i] % size));
+			for (int j = 0; j < i; j++) {
+				assertNotEquals(CellValue.EMPTY, playingField.getValue(moves[j] / size, moves[j] % size));
+			}
+		}
+		assertEquals(0, playingField.getStoneCount());
+	}
+
+	private static void assertBoard(CellValue[] expected, SparsePlayingField playingField) {
+		int size = playingField.getSize();
+		for (int index = 0; index < expected.length; index++) {
+			assertEquals("Cell " + index, expected[index], playingField.getValue(index / size, index % size));
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.PlayingField;
+
+public class ThreatSearchTest {
+	private static final int SIZE = 15;
+	private PlayingField playingField;
+	private ThreatSearch threatSearch;
+	private long hashKey;
+
+	@Before
+	public void setUp() {
+		playingField = new BitboardPlayingField();
+		threatSearch = new ThreatSearch(playingField);
+	}
+
+	@Test
+	public void findsDoubleFour() {
+		// closed threes in row 7 and column 8 that both become fours at 7:8
+		place(CellValue.HUMAN, 7, 5, 7, 6, 7, 7, 4, 8, 5, 8, 6, 8);
+		place(CellValue.COMPUTER, 7, 4, 3, 8);
+		assertEquals(7 * SIZE + 8, threatSearch.findVcf(CellValue.HUMAN));
+		assertEquals(ThreatSearch.NO_MOVE, threatSearch.findVcf(CellValue.COMPUTER));
+		assertPositionUnchanged(8);
+	}
+
+	@Test
+	public void findsFourSequence() {
+		// the four at 7:8 forces 7:9, after which 8:9 makes a double four
+		place(CellValue.HUMAN, 7, 5, 7, 6, 7, 7, 9, 9, 10, 9, 8, 10, 8, 11);
+		place(CellValue.COMPUTER, 7, 4, 11, 9, 8, 12, 0, 0);
+		int move = threatSearch.findVcf(CellValue.HUMAN);
+		assertNotEquals(ThreatSearch.NO_MOVE, move);
+		assertPositionUnchanged(11);
+	}
+
+	@Test
+	public void blockedFoursAreNoWin() {
+		place(CellValue.HUMAN, 7, 5, 7, 6, 7, 7, 4, 8, 5, 8, 6, 8);
+		place(CellValue.COMPUTER, 7, 4, 3, 8, 7, 8);
+		assertEquals(ThreatSearch.NO_MOVE, threatSearch.findVcf(CellValue.HUMAN));
+		assertFalse(threatSearch.isExhausted());
+	}
+
+	@Test
+	public void scatteredStonesAreNoWin() {
+		place(CellValue.HUMAN, 7, 7, 7, 9, 9, 7, 3, 3);
+		place(CellValue.COMPUTER, 7, 8, 8, 8, 6, 6, 10, 10);
+		assertEquals(ThreatSearch.NO_MOVE, threatSearch.findVct(CellValue.HUMAN));
+		assertFalse(threatSearch.isExhausted());
+		assertPositionUnchanged(8);
+	}
+
+	@Test
+	public void defenderFiveComesFirst() {
+		place(CellValue.HUMAN, 7, 5, 7, 6, 7, 7, 4, 8, 5, 8, 6, 8);
+		place(CellValue.COMPUTER, 7, 4, 3, 8, 12, 1, 12, 2, 12, 3, 12, 4);
+		// the only move that doesn't lose at once blocks the computer's four
+		assertEquals(ThreatSearch.NO_MOVE, threatSearch.findVcf(CellValue.HUMAN));
+		assertEquals(12 * SIZE + 0, threatSearch.findVcf(CellValue.COMPUTER));
+	}
+
+	@Test
+	public void findsDoubleThreeByVct() {
+		// open twos in row 7 and column 8 that both become open threes at 7:8
+		place(CellValue.HUMAN, 7, 6, 7, 7, 5, 8, 6, 8);
+		place(CellValue.COMPUTER, 0, 0, 0, 14, 14, 0, 14, 14);
+		assertEquals(ThreatSearch.NO_MOVE, threatSearch.findVcf(CellValue.HUMAN));
+		assertNotEquals(ThreatSearch.NO_MOVE, threatSearch.findVct(CellValue.HUMAN));
+		assertEquals(ThreatSearch.NO_MOVE, threatSearch.findVct(CellValue.COMPUTER));
+		assertPositionUnchanged(8);
+	}
+
+	@Test
+	public void vctAvoidsForbiddenMovesOfBlack() {
+		place(CellValue.HUMAN, 7, 6, 7, 7, 5, 8, 6, 8);
+		place(CellValue.COMPUTER, 0, 0, 0, 14, 14, 0, 14, 14);
+		RenjuRules renjuRules = new RenjuRules(playingField);
+		renjuRules.setBlack(CellValue.HUMAN);
+		threatSearch.setRenjuRules(renjuRules);
+		int move = threatSearch.findVct(CellValue.HUMAN);
+		if (move != ThreatSearch.NO_MOVE) {
+			assertEquals(RenjuRules.Foul.NONE, renjuRules.getFoul(move / SIZE, move % SIZE, CellValue.HUMAN));
+		}
+		assertPositionUnchanged(8);
+	}
+
+	private void assertPositionUnchanged(int moveCount) {
+		assertEquals(moveCount, playingField.getMoveCount());
+		assertEquals(hashKey, playingField.getHashKey());
+	}
+
+	private void place(CellValue cellValue, int... cells) {
+		for (int i = 0; i < cells.length; i += 2) {
+			playingField.makeMove(cells[i], cells[i + 1], cellValue);
+		}
+		hashKey = playingField.getHashKey();
+	}
+}
@@ -0,0 +1,60 @@
+package com.darsavelidze.renju.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TranspositionTableTest {
+	@Test
+	public void keepsStoredValues() {
+		TranspositionTable transpositionTable = new TranspositionTable(1);
+		assertEquals(1 << 16, transpositionTable.getCapacity());
+		long[] keys = { 1L, -2L, 0x123456789ABCDEFL, Long.MIN_VALUE + 3 };
+		int[] scores = { AlphaBetaSearch.WIN_SCORE, -AlphaBetaSearch.WIN_SCORE, 0, -17 };
+		int[] depths = { 0, 1, 60, 255 };
+		int[] bounds = { TranspositionTable.EXACT, TranspositionTable.LOWER_BOUND, TranspositionTable.UPPER_BOUND,
+				TranspositionTable.EXACT };
+		int[] moves = { TranspositionTable.NO_MOVE, 0, 224, 300 * 300 - 1 };
+		for (int i = 0; i < keys.length; i++) {
+			transpositionTable.store(keys[i], scores[i], depths[i], bounds[i], moves[i]);
+		}
+		for (int i = 0; i < keys.length; i++) {
+			long entry = transpositionTable.probe(keys[i]);
+			assertEquals(scores[i], TranspositionTable.getScore(entry));
+			assertEquals(depths[i], TranspositionTable.getDepth(entry));
+			assertEquals(bounds[i], TranspositionTable.getBound(entry));
+			assertEquals(moves[i], TranspositionTable.getMove(entry));
+		}
+		assertEquals(TranspositionTable.NO_ENTRY, transpositionTable.probe(5L));
+		assertEquals(keys.length + 1, transpositionTable.getProbes());
+		assertEquals(keys.length, transpositionTable.getHits());
+		transpositionTable.clear();
+		assertEquals(TranspositionTable.NO_ENTRY, transpositionTable.probe(keys[0]));
+	}
+
+	@Test
+	public void deeperEntriesOfTheCurrentSearchAreKept() {
+		TranspositionTable transpositionTable = new TranspositionTable(1);
+		long key = 7L;
+		// the same slot, but another position
+		long collidingKey = key + transpositionTable.getCapacity();
+		transpositionTable.store(key, 10, 5, TranspositionTable.EXACT, 1);
+		transpositionTable.store(collidingKey, 20, 3, TranspositionTable.EXACT, 2);
+		assertEquals(TranspositionTable.NO_ENTRY, transpositionTable.probe(collidingKey));
+		assertEquals(5, TranspositionTable.getDepth(transpositionTable.probe(key)));
+		// the same position is always replaced
+		transpositionTable.store(key, 30, 2, TranspositionTable.LOWER_BOUND, 3);
+		assertEquals(30, TranspositionTable.getScore(transpositionTable.probe(key)));
+		transpositionTable.store(key, 10, 5, TranspositionTable.EXACT, 1);
+		// entries of earlier searches give way
+		transpositionTable.newSearch();
+		transpositionTable.store(collidingKey, 20, 3, TranspositionTable.EXACT, 2);
+		assertEquals(TranspositionTable.NO_ENTRY, transpositionTable.probe(key));
+		assertEquals(20, TranspositionTable.getScore(transpositionTable.probe(collidingKey)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsEmptyTable() {
+		new TranspositionTable(0);
+	}
+}
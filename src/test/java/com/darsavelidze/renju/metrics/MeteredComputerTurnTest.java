@@ -0,0 +1,92 @@
+package com.darsavelidze.renju.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.AlphaBetaComputerTurn;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+import com.darsavelidze.renju.impl.ComputerTurnException;
+import com.darsavelidze.renju.impl.DefaultComputerTurn;
+
+public class MeteredComputerTurnTest {
+	private PlayingField playingField;
+	private EngineMetrics metrics;
+
+	@Before
+	public void setUp() {
+		playingField = new BitboardPlayingField();
+		metrics = new EngineMetrics();
+	}
+
+	@Test
+	public void recordsMovesAndSearches() {
+		AlphaBetaComputerTurn engine = new AlphaBetaComputerTurn(200, 2, 1);
+		MeteredComputerTurn computerTurn = new MeteredComputerTurn(engine, metrics);
+		computerTurn.setPlayingField(playingField);
+		computerTurn.makeFirstTurn();
+		assertNull(computerTurn.getLastSearchResult());
+		playingField.makeMove(6, 6, CellValue.HUMAN);
+		computerTurn.makeTurn();
+		assertNotNull(computerTurn.getLastSearchResult());
+		assertSame(engine.getLastSearchResult(), computerTurn.getLastSearchResult());
+		assertEquals(2, metrics.getMoves());
+		assertEquals(1, metrics.getSearches());
+		assertEquals(0, metrics.getFailedMoves());
+	}
+
+	@Test
+	public void forwardsPondering() {
+		MeteredComputerTurn computerTurn = new MeteredComputerTurn(new AlphaBetaComputerTurn(200, 2, 1), metrics);
+		computerTurn.setPlayingField(playingField);
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		computerTurn.makeTurn();
+		Cell reply = computerTurn.predictReply();
+		assertNotNull(reply);
+		long hashKey = playingField.getHashKey();
+		computerTurn.ponder(reply);
+		assertEquals(hashKey, playingField.getHashKey());
+		playingField.makeMove(reply.getRowIndex(), reply.getColumnIndex(), CellValue.HUMAN);
+		computerTurn.makeTurn();
+		assertEquals(2, metrics.getMoves());
+		assertEquals(2, metrics.getSearches());
+	}
+
+	@Test
+	public void enginesWithoutSearchAreNotPondered() {
+		MeteredComputerTurn computerTurn = new MeteredComputerTurn(new DefaultComputerTurn(), metrics);
+		computerTurn.setPlayingField(playingField);
+		playingField.makeMove(7, 7, CellValue.HUMAN);
+		computerTurn.makeTurn();
+		assertNull(computerTurn.getLastSearchResult());
+		assertNull(computerTurn.predictReply());
+		assertEquals(1, metrics.getMoves());
+		assertEquals(0, metrics.getSearches());
+	}
+
+	@Test
+	public void recordsFailedMoves() {
+		MeteredComputerTurn computerTurn = new MeteredComputerTurn(new DefaultComputerTurn(), metrics);
+		playingField = new BitboardPlayingField(new GameConfiguration(3, 3));
+		computerTurn.setPlayingField(playingField);
+		for (int i = 0; i < 9; i++) {
+			playingField.makeMove(i / 3, i % 3, i % 2 == 0 ? CellValue.HUMAN : CellValue.COMPUTER);
+		}
+		try {
+			computerTurn.makeTurn();
+			fail("The board is full");
+		} catch (ComputerTurnException e) {
+			assertEquals(1, metrics.getFailedMoves());
+			assertEquals(0, metrics.getMoves());
+		}
+	}
+}
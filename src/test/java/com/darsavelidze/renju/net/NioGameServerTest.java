@@ -0,0 +1,118 @@
+package com.darsavelidze.renju.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.GameState;
+import com.darsavelidze.renju.impl.DefaultComputerTurn;
+import com.darsavelidze.renju.server.GameServer;
+import com.darsavelidze.renju.server.MoveResult;
+
+public class NioGameServerTest {
+	private static final int TIMEOUT_MILLIS = 10000;
+	private GameServer gameServer;
+	private NioGameServer nioGameServer;
+	private Thread serverThread;
+	private Socket socket;
+	private BufferedReader reader;
+	private OutputStream writer;
+
+	@Before
+	public void setUp() throws IOException {
+		gameServer = new GameServer(DefaultComputerTurn::new, GameConfiguration.DEFAULT, 1, 4,
+				GameServer.DEFAULT_IDLE_TIMEOUT_MILLIS);
+		nioGameServer = new NioGameServer(gameServer, 0);
+		serverThread = new Thread(nioGameServer, "nio-game-server");
+		serverThread.start();
+		socket = new Socket(InetAddress.getLoopbackAddress(), nioGameServer.getPort());
+		socket.setSoTimeout(TIMEOUT_MILLIS);
+		reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+		writer = socket.getOutputStream();
+	}
+
+	@After
+	public void tearDown() throws IOException, InterruptedException {
+		socket.close();
+		nioGameServer.close();
+		serverThread.join(TIMEOUT_MILLIS);
+		gameServer.shutdown();
+	}
+
+	@Test
+	public void playsTurns() throws IOException {
+		assertEquals("ERROR No game, send NEW first", request("MOVE 7 7"));
+		assertEquals("TURN 7 7 IN_PROGRESS", request("NEW FIRST"));
+		String[] reply = request("MOVE 0 0").split(" ");
+		assertEquals(4, reply.length);
+		assertEquals("TURN", reply[0]);
+		assertEquals(GameState.IN_PROGRESS.name(), reply[3]);
+		assertTrue(request("MOVE 0 0").startsWith("ERROR "));
+		assertEquals("OK", request("NEW"));
+		assertTrue(request("move 7 7").startsWith("TURN "));
+	}
+
+	@Test
+	public void reportsMalformedRequests() throws IOException {
+		assertEquals("ERROR Unknown command: HELLO", request("HELLO"));
+		assertEquals("OK", request("NEW"));
+		assertTrue(request("MOVE seven 7").startsWith("ERROR Invalid number: "));
+		assertEquals("ERROR Unknown command: MOVE 7", request("MOVE 7"));
+		char[] longLine = new char[200];
+		Arrays.fill(longLine, 'A');
+		assertEquals("ERROR Line is too long", request(new String(longLine)));
+	}
+
+	@Test
+	public void answersPipelinedRequestsInOrder() throws IOException {
+		send("NEW\nTRACE ON\nMOVE 7 7\n");
+		assertEquals("OK", reader.readLine());
+		assertEquals("OK", reader.readLine());
+		assertTrue(reader.readLine().startsWith("TURN "));
+		String[] header = request("DUMP").split(" ");
+		assertEquals("TRACE", header[0]);
+		int events = Integer.parseInt(header[1]);
+		assertTrue(events > 0);
+		for (int i = 0; i < events; i++) {
+			assertTrue(reader.readLine().length() > 0);
+		}
+		send("QUIT\n");
+		assertNull(reader.readLine());
+	}
+
+	@Test
+	public void formatsWinnerCells() {
+		MoveResult result = new MoveResult(new Cell(7, 7), null, GameState.HUMAN_WINS,
+				Arrays.asList(new Cell(7, 5), new Cell(7, 6), new Cell(7, 7)));
+		assertEquals("TURN - - HUMAN_WINS 7:5 7:6 7:7", NioGameServer.format(result));
+		result = new MoveResult(new Cell(7, 7), new Cell(8, 8), GameState.IN_PROGRESS,
+				Collections.<Cell>emptyList());
+		assertEquals("TURN 8 8 IN_PROGRESS", NioGameServer.format(result));
+	}
+
+	private String request(String line) throws IOException {
+		send(line + "\n");
+		return reader.readLine();
+	}
+
+	private void send(String lines) throws IOException {
+		writer.write(lines.getBytes(StandardCharsets.US_ASCII));
+		writer.flush();
+	}
+}
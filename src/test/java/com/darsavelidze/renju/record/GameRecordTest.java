@@ -0,0 +1,126 @@
+package com.darsavelidze.renju.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.GameState;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.BitboardPlayingField;
+
+public class GameRecordTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void readsWrittenRecords() throws IOException {
+		List<GameRecord> records = Arrays.asList(
+				randomRecord(GameConfiguration.DEFAULT, CellValue.HUMAN, 40, GameState.HUMAN_WINS, 1),
+				randomRecord(GameConfiguration.DEFAULT, CellValue.COMPUTER, 0, GameState.IN_PROGRESS, 2),
+				// more than 256 cells on a side takes three bytes per move
+				randomRecord(new GameConfiguration(300, 5), CellValue.COMPUTER, 500, GameState.COMPUTER_WINS, 3),
+				randomRecord(new GameConfiguration(3, 3), CellValue.HUMAN, 9, GameState.DRAW, 4));
+		Path path = folder.newFile().toPath();
+		Files.delete(path);
+		try (GameRecordWriter writer = new GameRecordWriter(path)) {
+			for (GameRecord record : records.subList(0, 2)) {
+				writer.write(record);
+			}
+		}
+		// a reopened file is appended to
+		try (GameRecordWriter writer = new GameRecordWriter(path)) {
+			for (GameRecord record : records.subList(2, records.size())) {
+				writer.write(record);
+			}
+			assertEquals(2, writer.getRecordCount());
+		}
+		assertEquals(records, readAll(path));
+	}
+
+	@Test(expected = EOFException.class)
+	public void truncatedRecordIsReported() throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.delete(path);
+		try (GameRecordWriter writer = new GameRecordWriter(path)) {
+			writer.write(randomRecord(GameConfiguration.DEFAULT, CellValue.HUMAN, 20, GameState.DRAW, 5));
+		}
+		byte[] bytes = Files.readAllBytes(path);
+		Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+		readAll(path);
+	}
+
+	@Test(expected = IOException.class)
+	public void foreignFileIsRejected() throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.write(path, new byte[] { 1, 2, 3, 4, 5, 6 });
+		new GameRecordReader(path).close();
+	}
+
+	@Test
+	public void recorderFollowsTakenBackMoves() {
+		PlayingField playingField = new BitboardPlayingField();
+		GameRecorder recorder = new GameRecorder(playingField);
+		playingField.makeMove(7, 7, CellValue.COMPUTER);
+		playingField.makeMove(7, 8, CellValue.HUMAN);
+		playingField.makeMove(8, 8, CellValue.COMPUTER);
+		playingField.unmakeMove();
+		playingField.makeMove(6, 6, CellValue.COMPUTER);
+		GameRecord record = recorder.toRecord(GameState.IN_PROGRESS);
+		assertEquals(CellValue.COMPUTER, record.getFirstMover());
+		assertEquals(3, record.getMoveCount());
+		assertEquals(7 * 15 + 7, record.getMove(0));
+		assertEquals(7 * 15 + 8, record.getMove(1));
+		assertEquals(6 * 15 + 6, record.getMove(2));
+		Cell cell = record.getMoves().get(2);
+		assertEquals(6, cell.getRowIndex());
+		assertEquals(6, cell.getColumnIndex());
+		assertEquals(CellValue.HUMAN, record.getMover(1));
+		playingField.reInitialize();
+		assertEquals(0, recorder.getMoveCount());
+		recorder.detach();
+	}
+
+	private static List<GameRecord> readAll(Path path) throws IOException {
+		List<GameRecord> records = new ArrayList<>();
+		try (GameRecordReader reader = new GameRecordReader(path)) {
+			GameRecord record;
+			while ((record = reader.read()) != null) {
+				records.add(record);
+			}
+			assertNull(reader.read());
+		}
+		return records;
+	}
+
+	private static GameRecord randomRecord(GameConfiguration configuration, CellValue firstMover, int moveCount,
+			GameState result, long seed) {
+		Random random = new Random(seed);
+		int cellCount = configuration.getSize() * configuration.getSize();
+		boolean[] used = new boolean[cellCount];
+		int[] moves = new int[moveCount];
+		for (int n = 0; n < moveCount; n++) {
+			int move;
+			do {
+				move = random.nextInt(cellCount);
+			} while (used[move]);
+			used[move] = true;
+			moves[n] = move;
+		}
+		return new GameRecord(configuration, firstMover, moves, result);
+	}
+}
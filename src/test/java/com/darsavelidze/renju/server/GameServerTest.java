@@ -0,0 +1,134 @@
+package com.darsavelidze.renju.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.CellValue;
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.GameConfiguration;
+import com.darsavelidze.renju.GameState;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.RandomComputerTurn;
+
+public class GameServerTest {
+	private final AtomicBoolean failNextTurn = new AtomicBoolean();
+	private final AtomicBoolean blockNextTurn = new AtomicBoolean();
+	private final CountDownLatch turnStarted = new CountDownLatch(1);
+	private final CountDownLatch turnReleased = new CountDownLatch(1);
+	private GameServer gameServer;
+
+	@Before
+	public void setUp() {
+		gameServer = new GameServer(() -> new FailingComputerTurn(new RandomComputerTurn()), GameConfiguration.DEFAULT,
+				1, 4, GameServer.DEFAULT_IDLE_TIMEOUT_MILLIS);
+	}
+
+	@After
+	public void tearDown() {
+		gameServer.shutdown();
+	}
+
+	@Test
+	public void failedComputerTurnTakesHumanTurnBack() throws Exception {
+		long sessionId = gameServer.openSession();
+		failNextTurn.set(true);
+		try {
+			gameServer.makeTurn(sessionId, 7, 7).get();
+			fail("Computer turn should fail");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		GameSession session = gameServer.findSession(sessionId);
+		assertFalse(session.isBusy());
+		assertEquals(GameState.IN_PROGRESS, session.getState());
+		// the cell is free again, so the human repeats the turn instead of playing twice
+		MoveResult result = gameServer.makeTurn(sessionId, 7, 7).get();
+		assertEquals(7, result.getHumanTurn().getRowIndex());
+		assertEquals(7, result.getHumanTurn().getColumnIndex());
+		assertNotNull(result.getComputerTurn());
+		// the engine's search moves are on the board when it fails, and only the moves of the game may stay
+		failNextTurn.set(true);
+		try {
+			gameServer.makeTurn(sessionId, 3, 3).get();
+			fail("Computer turn should fail");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		result = gameServer.makeTurn(sessionId, 3, 3).get();
+		assertNotNull(result.getComputerTurn());
+	}
+
+	@Test
+	public void busySessionIsNotEvicted() throws Exception {
+		long sessionId = gameServer.openSession();
+		GameSession session = gameServer.findSession(sessionId);
+		long later = System.currentTimeMillis() + 2 * GameServer.DEFAULT_IDLE_TIMEOUT_MILLIS;
+		blockNextTurn.set(true);
+		CompletableFuture<MoveResult> future = gameServer.makeTurn(sessionId, 7, 7);
+		turnStarted.await();
+		assertFalse(session.evictIfIdle(later, GameServer.DEFAULT_IDLE_TIMEOUT_MILLIS));
+		turnReleased.countDown();
+		assertNotNull(future.get().getComputerTurn());
+		assertTrue(session.evictIfIdle(later, GameServer.DEFAULT_IDLE_TIMEOUT_MILLIS));
+		try {
+			session.makeHumanTurn(3, 3);
+			fail("Evicted session should not accept turns");
+		} catch (IllegalStateException e) {
+			assertFalse(session.isBusy());
+		}
+	}
+
+	private class FailingComputerTurn implements ComputerTurn {
+		private final ComputerTurn computerTurn;
+		private PlayingField playingField;
+
+		FailingComputerTurn(ComputerTurn computerTurn) {
+			this.computerTurn = computerTurn;
+		}
+
+		@Override
+		public void setPlayingField(PlayingField playingField) {
+			this.playingField = playingField;
+			computerTurn.setPlayingField(playingField);
+		}
+
+		@Override
+		public Cell makeTurn() {
+			if (failNextTurn.getAndSet(false)) {
+				if (playingField.getMoveCount() > 1) {
+					// an engine failing in the middle of its search
+					playingField.makeMove(0, 0, CellValue.COMPUTER);
+					playingField.makeMove(0, 1, CellValue.HUMAN);
+				}
+				throw new IllegalStateException("Engine failure");
+			}
+			if (blockNextTurn.getAndSet(false)) {
+				turnStarted.countDown();
+				try {
+					turnReleased.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return computerTurn.makeTurn();
+		}
+
+		@Override
+		public Cell makeFirstTurn() {
+			return computerTurn.makeFirstTurn();
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.darsavelidze.renju.tournament;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.darsavelidze.renju.Cell;
+import com.darsavelidze.renju.ComputerTurn;
+import com.darsavelidze.renju.ComputerTurnFactory;
+import com.darsavelidze.renju.PlayingField;
+import com.darsavelidze.renju.impl.ComputerTurnException;
+import com.darsavelidze.renju.impl.DefaultComputerTurn;
+import com.darsavelidze.renju.impl.RandomComputerTurn;
+
+public class SelfPlayTournamentTest {
+	private static final ComputerTurnFactory RANDOM = RandomComputerTurn::new;
+	private static final ComputerTurnFactory FAILING = FailingComputerTurn::new;
+	private static final ComputerTurnFactory CHEATING = CheatingComputerTurn::new;
+
+	@Test
+	public void gamesEndWithResult() throws InterruptedException {
+		TournamentResult result = new SelfPlayTournament(DefaultComputerTurn::new, RANDOM, 6, 2, 2, 1).run();
+		assertEquals(6, result.getGames());
+		// the pattern engine finishes its lines, the random one doesn't block them
+		assertTrue(result.getWins() > result.getLosses());
+	}
+
+	@Test
+	public void failingEngineForfeits() throws InterruptedException {
+		TournamentResult result = new SelfPlayTournament(FAILING, RANDOM, 4, 2, 0, 1).run();
+		assertEquals(4, result.getLosses());
+		result = new SelfPlayTournament(RANDOM, FAILING, 4, 2, 4, 1).run();
+		assertEquals(4, result.getWins());
+	}
+
+	@Test
+	public void unplayedTurnForfeits() throws InterruptedException {
+		assertEquals(2, new SelfPlayTournament(CHEATING, RANDOM, 2, 1, 1, 1).run().getLosses());
+	}
+
+	@Test
+	public void pairedGamesShareOpening() {
+		SelfPlayGame first = new SelfPlayGame(FAILING, FAILING, true, 6, 42);
+		SelfPlayGame second = new SelfPlayGame(FAILING, FAILING, false, 6, 42);
+		assertEquals(GameResult.SECOND_ENGINE_WIN, first.call());
+		assertEquals(GameResult.FIRST_ENGINE_WIN, second.call());
+		assertOpening(first.getMoves(), 6);
+		List<Cell> moves = second.getMoves();
+		assertEquals(first.getMoves().size(), moves.size());
+		for (int i = 0; i < moves.size(); i++) {
+			assertEquals(first.getMoves().get(i).getRowIndex(), moves.get(i).getRowIndex());
+			assertEquals(first.getMoves().get(i).getColumnIndex(), moves.get(i).getColumnIndex());
+		}
+	}
+
+	@Test
+	public void scoreAndEloFollowResults() {
+		TournamentResult result = new TournamentResult(6, 2, 2, 1000);
+		assertEquals(0.7, result.getScore(), 1e-9);
+		assertEquals(147.2, result.getEloDifference(), 0.1);
+		assertTrue(result.getEloLowerBound() < result.getEloDifference());
+		assertTrue(result.getEloUpperBound() > result.getEloDifference());
+		assertEquals(10.0, result.getGamesPerSecond(), 1e-9);
+		assertEquals(0.0, new TournamentResult(5, 0, 5, 0).getEloDifference(), 1e-9);
+		assertEquals(Double.POSITIVE_INFINITY, new TournamentResult(3, 0, 0, 0).getEloDifference(), 0.0);
+	}
+
+	private static void assertOpening(List<Cell> moves, int openingMoves) {
+		assertEquals(openingMoves, moves.size());
+		Set<Integer> cells = new HashSet<>();
+		for (Cell cell : moves) {
+			assertTrue(Math.abs(cell.getRowIndex() - 7) <= 3 && Math.abs(cell.getColumnIndex() - 7) <= 3);
+			assertTrue(cells.add(cell.getRowIndex() * 15 + cell.getColumnIndex()));
+		}
+	}
+
+	private static class FailingComputerTurn implements ComputerTurn {
+		@Override
+		public void setPlayingField(PlayingField playingField) {
+		}
+
+		@Override
+		public Cell makeTurn() {
+			throw new ComputerTurnException("Engine failure");
+		}
+
+		@Override
+		public Cell makeFirstTurn() {
+			return makeTurn();
+		}
+	}
+
+	private static class CheatingComputerTurn implements ComputerTurn {
+		@Override
+		public void setPlayingField(PlayingField playingField) {
+		}
+
+		@Override
+		public Cell makeTurn() {
+			// reports a turn without playing it
+			return new Cell(0, 0);
+		}
+
+		@Override
+		public Cell makeFirstTurn() {
+			return makeTurn();
+		}
+	}
+}